@@ -0,0 +1,47 @@
+package com.mandyk.expense.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line, but writes the results
+ * as JSON to {@code jmh-result.json} unless {@code -rf}/{@code -rff} say otherwise, so every
+ * run leaves a file that can be compared with earlier ones.
+ *
+ * <pre>
+ *   java -jar benchmarks/target/benchmarks.jar                      # everything
+ *   java -jar benchmarks/target/benchmarks.jar Jwt -rff jwt.json    # a subset
+ *   java -jar benchmarks/target/benchmarks.jar -l                   # list
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+        if (cli.shouldList()) {
+            new Runner(cli).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getResultFormat().hasValue()) {
+            options.resultFormat(cli.getResultFormat().get());
+        } else {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.mandyk.expense.benchmark;
+
+import com.mandyk.expense.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService on its own.
+ *
+ * <ul>
+ *   <li>{@code generateToken} - signing a new token, paid on every login.</li>
+ *   <li>{@code extractClaimsCached} - a token the claims cache has already verified.</li>
+ *   <li>{@code extractClaimsUncached} - a token seen for the first time: hashing, parsing and
+ *   signature verification (the service is built with no cache capacity).</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+
+    private JwtService cachingService;
+    private JwtService uncachedService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingService = new JwtService(SECRET, 3_600_000L, 10_000, new SimpleMeterRegistry());
+        uncachedService = new JwtService(SECRET, 3_600_000L, 0, new SimpleMeterRegistry());
+        token = cachingService.generateToken("bench@example.com", 42);
+        cachingService.extractClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingService.generateToken("bench@example.com", 42);
+    }
+
+    @Benchmark
+    public Claims extractClaimsCached() {
+        return cachingService.extractClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractClaimsUncached() {
+        return uncachedService.extractClaims(token);
+    }
+}
@@ -0,0 +1,187 @@
+package com.mandyk.expense.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.mandyk.expense.config.JwtAuthFilter;
+import com.mandyk.expense.security.AuthenticatedUser;
+import com.mandyk.expense.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of authenticating one request in JwtAuthFilter, with a token already in
+ * the claims cache.
+ *
+ * <ul>
+ *   <li>{@code legacyFilter} - the filter as it was: request URI, raw Authorization header,
+ *   token and email logged on every request.</li>
+ *   <li>{@code sampledFilter} - the current filter: no per-request lines, successes
+ *   sampled at DEBUG.</li>
+ * </ul>
+ *
+ * {@code level} is what com.mandyk.expense logs at (DEBUG in application.yml, INFO in the
+ * perf profile). {@code appender} writes to a temporary file either on the calling thread
+ * or through an AsyncAppender as logback-spring.xml does; the async variant drops events
+ * instead of waiting when its writer falls behind, which is part of what it buys.
+ *
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar LoggingOverhead}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingOverheadBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"DEBUG", "INFO"})
+    private String level;
+
+    private File logFile;
+    private LegacyJwtAuthFilter legacyFilter;
+    private JwtAuthFilter sampledFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        logFile = File.createTempFile("logging-benchmark", ".log");
+        configureLogback();
+
+        JwtService jwtService = new JwtService(SECRET, 3_600_000L, 10_000, new SimpleMeterRegistry());
+        legacyFilter = new LegacyJwtAuthFilter(jwtService);
+        sampledFilter = new JwtAuthFilter(jwtService, Duration.ofSeconds(10), 0.01);
+
+        String token = jwtService.generateToken("bench@example.com", 42);
+        jwtService.extractClaims(token);
+        request = new MockHttpServletRequest("GET", "/api/transactions/user");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public Object legacyFilter() throws Exception {
+        legacyFilter.doFilter(request, response);
+        return clearAuthentication();
+    }
+
+    @Benchmark
+    public Object sampledFilter() throws Exception {
+        sampledFilter.doFilter(request, response, NO_OP_CHAIN);
+        return clearAuthentication();
+    }
+
+    // each invocation authenticates from scratch, as a new request would
+    private static Object clearAuthentication() {
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private void configureLogback() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> target = file;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            target = async;
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+        root.addAppender(target);
+        context.getLogger("com.mandyk.expense").setLevel(Level.toLevel(level));
+    }
+
+    // JwtAuthFilter.doFilterInternal before sampled logging, minus the filter plumbing
+    private static class LegacyJwtAuthFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+
+        private final JwtService jwtService;
+
+        LegacyJwtAuthFilter(JwtService jwtService) {
+            this.jwtService = jwtService;
+        }
+
+        void doFilter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+            log.debug("JwtAuthFilter hit for: {}", request.getRequestURI());
+
+            String authHeader = request.getHeader("Authorization");
+            log.info("Auth header: {}", authHeader);
+
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                log.warn("No Bearer token found, skipping filter");
+                NO_OP_CHAIN.doFilter(request, response);
+                return;
+            }
+
+            String token = authHeader.substring(7);
+            log.debug("Token extracted: {}", token);
+            try {
+                Claims claims = jwtService.extractClaims(token);
+                String email = claims.getSubject();
+                log.debug("Email extracted from token: {}", email);
+
+                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    log.debug("Token is valid for: {}", email);
+                    AuthenticatedUser principal = new AuthenticatedUser(claims.get("userId", Integer.class), email);
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            } catch (Exception ex) {
+                log.error("Error processing JWT token: ", ex);
+            }
+            NO_OP_CHAIN.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.mandyk.expense.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a page of transactions as the listing endpoints return it. The mapper is
+ * built like Spring Boot's (Java time module, ISO dates); {@code withoutDescription}
+ * is the {@code ?fields=} projection that leaves the description out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<TransactionResponseDTO> page;
+    private Page<TransactionResponseDTO> pageWithoutDescription;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = page(true);
+        pageWithoutDescription = page(false);
+    }
+
+    @Benchmark
+    public byte[] fullPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] withoutDescription() throws Exception {
+        return objectMapper.writeValueAsBytes(pageWithoutDescription);
+    }
+
+    private Page<TransactionResponseDTO> page(boolean description) {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 1, 12, 0);
+        List<TransactionResponseDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            TransactionResponseDTO dto = new TransactionResponseDTO();
+            dto.setId(i + 1);
+            dto.setUserId(1);
+            dto.setAccountId(1 + i % 3);
+            dto.setCategoryId(1 + i % 7);
+            dto.setAmount(new BigDecimal("42.50").add(BigDecimal.valueOf(i)));
+            dto.setDescription(description ? "Card payment " + i + " at a grocery store" : null);
+            dto.setTransactionType(i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            dto.setTransactionDate(now.minusHours(i));
+            dto.setCreatedAt(now.minusHours(i));
+            content.add(dto);
+        }
+        return new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+}
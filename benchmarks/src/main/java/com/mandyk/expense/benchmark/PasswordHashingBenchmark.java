@@ -0,0 +1,57 @@
+package com.mandyk.expense.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One BCrypt hash, i.e. the CPU a login (matches) or registration (encode) costs.
+ * The cost defaults to security.password.bcrypt-strength from the service's
+ * application.yml; compare others with {@code -p strength=12}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    @Param({"configured"})
+    private String strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(resolveStrength());
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    private int resolveStrength() {
+        if (!strength.equals("configured")) {
+            return Integer.parseInt(strength);
+        }
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties properties = yaml.getObject();
+        return Integer.parseInt(properties.getProperty("security.password.bcrypt-strength", "10"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.mandyk.expense.benchmark;
+
+import com.mandyk.expense.security.AuthenticatedUser;
+import com.mandyk.expense.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost of resolving the caller's user id.
+ *
+ * <ul>
+ *   <li>{@code legacyPerRequest} - what a request used to pay: the filter called extractEmail and
+ *   isTokenValid (which parsed twice more) and JwtUtil parsed again, each time deriving a new key and parser.</li>
+ *   <li>{@code singleVerification} - one signature check with the shared parser, i.e. the first request seen
+ *   for a token.</li>
+ *   <li>{@code cachedPrincipal} - a repeat request: the claims cache hit plus building the principal.</li>
+ * </ul>
+ *
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar RequestAuthentication}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000L, 10_000, new SimpleMeterRegistry());
+        parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build();
+        token = jwtService.generateToken("bench@example.com", 42);
+    }
+
+    @Benchmark
+    public Integer legacyPerRequest() {
+        String email = legacyParse(token).getSubject();
+        boolean valid = legacyParse(token).getSubject().equals(email)
+                && !legacyParse(token).getExpiration().before(new java.util.Date());
+        return valid ? legacyParse(token).get("userId", Integer.class) : null;
+    }
+
+    @Benchmark
+    public AuthenticatedUser singleVerification() {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return new AuthenticatedUser(claims.get("userId", Integer.class), claims.getSubject());
+    }
+
+    @Benchmark
+    public AuthenticatedUser cachedPrincipal() {
+        Claims claims = jwtService.extractClaims(token);
+        return new AuthenticatedUser(claims.get("userId", Integer.class), claims.getSubject());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping as done for single reads, batch inserts and the outbox.
+ * Lives in the service package because {@link TransactionService#mapToResponse} is
+ * package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionMappingBenchmark {
+
+    private Transaction transaction;
+    private List<Transaction> batch;
+
+    @Setup
+    public void setUp() {
+        transaction = transaction(1);
+        batch = new ArrayList<>(500);
+        for (int i = 0; i < 500; i++) {
+            batch.add(transaction(i + 1));
+        }
+    }
+
+    @Benchmark
+    public TransactionResponseDTO single() {
+        return TransactionService.mapToResponse(transaction);
+    }
+
+    // an import chunk's worth
+    @Benchmark
+    @OperationsPerInvocation(500)
+    public List<TransactionResponseDTO> batchOf500() {
+        return batch.stream().map(TransactionService::mapToResponse).toList();
+    }
+
+    private static Transaction transaction(int id) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setUserId(1);
+        t.setAccountId(1);
+        t.setCategoryId(2);
+        t.setAmount(new BigDecimal("19.99"));
+        t.setDescription("Card payment " + id);
+        t.setTransactionType(TransactionType.EXPENSE);
+        t.setTransactionDate(LocalDateTime.of(2025, 6, 1, 12, 0));
+        t.setCreatedAt(LocalDateTime.of(2025, 6, 1, 12, 0));
+        return t;
+    }
+}
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compares throughput and p99 latency of the platform-thread and virtual-thread request modes.
+#
+# Requires docker compose and hey (https://github.com/rakyll/hey). Each mode gets a fresh
+# container of expense-service against the compose Postgres, a warm-up run, then a measured run of
+# a read-heavy mix (transaction listing + balance) and of login, which is BCrypt-bound.
+# No results are checked in: run it on the deployment's hardware before picking a mode.
+#
+#   ./scripts/compare-thread-modes.sh [concurrency] [duration]
+set -euo pipefail
+
+CONCURRENCY=${1:-200}
+DURATION=${2:-60s}
+BASE_URL=http://localhost:8080
+EMAIL="loadtest-$(date +%s)@example.com"
+PASSWORD="loadtest-password"
+
+cd "$(dirname "$0")/.."
+./mvnw -q -DskipTests package
+docker compose up -d postgres
+
+wait_for_health() {
+  for _ in $(seq 1 60); do
+    curl -fs http://localhost:8081/actuator/health >/dev/null 2>&1 && return 0
+    sleep 2
+  done
+  echo "service did not become healthy" >&2
+  exit 1
+}
+
+summary() {
+  # hey prints "Requests/sec: N" and a latency distribution with a "99% in X secs" line
+  local rps p99
+  rps=$(grep 'Requests/sec' "$1" | awk '{print $2}')
+  p99=$(grep '99% in' "$1" | awk '{print $3 * 1000}')
+  printf '%-10s %-22s %10s req/s  p99 %8s ms\n' "$2" "$3" "$rps" "$p99"
+}
+
+run_mode() {
+  local mode=$1 virtual=$2
+  VIRTUAL_THREADS=$virtual docker compose up -d --build --force-recreate expense-service
+  wait_for_health
+
+  curl -fs -X POST "$BASE_URL/api/auth/register" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$mode-$EMAIL\",\"password\":\"$PASSWORD\"}" >/dev/null
+  local token account
+  token=$(curl -fs -X POST "$BASE_URL/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$mode-$EMAIL\",\"password\":\"$PASSWORD\"}" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+  account=$(curl -fs -X POST "$BASE_URL/api/accounts" -H "Authorization: Bearer $token" \
+    -H 'Content-Type: application/json' -d '{"name":"Load"}' | sed -E 's/.*"id":([0-9]+).*/\1/')
+
+  local out=target/load-$mode
+  mkdir -p "$out"
+  hey -z 15s -c "$CONCURRENCY" -H "Authorization: Bearer $token" "$BASE_URL/api/transactions/user?size=20" >/dev/null
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $token" \
+    "$BASE_URL/api/transactions/user?size=20" > "$out/list.txt"
+  hey -z "$DURATION" -c "$CONCURRENCY" -H "Authorization: Bearer $token" \
+    "$BASE_URL/api/transactions/$account/balance" > "$out/balance.txt"
+  hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T 'application/json' \
+    -d "{\"email\":\"$mode-$EMAIL\",\"password\":\"$PASSWORD\"}" "$BASE_URL/api/auth/login" > "$out/login.txt"
+
+  summary "$out/list.txt" "$mode" "GET transactions/user"
+  summary "$out/balance.txt" "$mode" "GET balance"
+  summary "$out/login.txt" "$mode" "POST auth/login"
+}
+
+run_mode platform false
+run_mode virtual true
+docker compose stop expense-service
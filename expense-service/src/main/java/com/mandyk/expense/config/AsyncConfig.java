@@ -0,0 +1,81 @@
+package com.mandyk.expense.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Statement imports are long-running and DB-heavy, so they get their own small
+    // pool instead of competing with request threads.
+    @Bean(name = "importExecutor")
+    public ThreadPoolTaskExecutor importExecutor(@Value("${import.workers:2}") int workers,
+                                                 @Value("${import.queue-capacity:20}") int queueCapacity,
+                                                 Environment environment,
+                                                 ObjectProvider<ConcurrencyLimit> concurrencyLimit) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // Same switch as Tomcat (spring.threads.virtual.enabled on JDK 21+); worker count and
+        // queue still bound the imports, only the kind of thread changes
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        // with virtual threads, also count against the requests' connection permits
+        concurrencyLimit.ifAvailable(executor::setTaskDecorator);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("statement-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Runs StreamingResponseBody exports (see WebConfig). Each one holds a DB connection
+    // for its whole duration, so the pool stays well under the Hikari pool size.
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor(@Value("${export.workers:4}") int workers,
+                                                 @Value("${export.queue-capacity:20}") int queueCapacity,
+                                                 Environment environment,
+                                                 ObjectProvider<ConcurrencyLimit> concurrencyLimit) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        concurrencyLimit.ifAvailable(executor::setTaskDecorator);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        return executor;
+    }
+
+    // BCrypt is CPU-bound: keep it to a few threads and shed load once the short queue is full
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${security.password.hashing.workers:4}") int workers,
+                                                          @Value("${security.password.hashing.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+
+    // Drains server-sent event queues (see LiveUpdateRegistry). A connection has at most
+    // one drain queued, so the queue never needs to hold more than one task per connection.
+    @Bean(name = "liveUpdateExecutor")
+    public ThreadPoolTaskExecutor liveUpdateExecutor(@Value("${live-updates.workers:4}") int workers,
+                                                     @Value("${live-updates.max-connections:10000}") int maxConnections,
+                                                     Environment environment,
+                                                     ObjectProvider<ConcurrencyLimit> concurrencyLimit) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        concurrencyLimit.ifAvailable(executor::setTaskDecorator);
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(maxConnections);
+        executor.setThreadNamePrefix("live-updates-");
+        return executor;
+    }
+}
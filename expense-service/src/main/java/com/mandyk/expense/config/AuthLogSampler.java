@@ -0,0 +1,92 @@
+package com.mandyk.expense.config;
+
+import org.slf4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps authentication logging off the per-request path. Rejected tokens are logged at
+ * most once per interval for each reason, with the number suppressed since the last
+ * line; accepted ones are sampled at DEBUG. Tokens are never written, only a short
+ * fingerprint that lets repeated lines be matched to the same token.
+ */
+class AuthLogSampler {
+
+    private Logger log;
+    private long failureIntervalNanos;
+    private double successSampleRate;
+    private LongSupplier nanoClock;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    AuthLogSampler(Logger log, Duration failureInterval, double successSampleRate) {
+        this(log, failureInterval, successSampleRate, System::nanoTime);
+    }
+
+    AuthLogSampler(Logger log, Duration failureInterval, double successSampleRate, LongSupplier nanoClock) {
+        if (successSampleRate < 0 || successSampleRate > 1) {
+            throw new IllegalArgumentException("security.auth-logging.success-sample-rate must be between 0 and 1");
+        }
+        this.log = log;
+        this.failureIntervalNanos = failureInterval.toNanos();
+        this.successSampleRate = successSampleRate;
+        this.nanoClock = nanoClock;
+    }
+
+    void accepted(String uri, Integer userId) {
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < successSampleRate) {
+            log.debug("Authenticated user {} for {} (sampled)", userId, uri);
+        }
+    }
+
+    // The exception message is left out: for malformed tokens it can echo token content
+    void rejected(String uri, String token, Exception ex) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        String reason = ex.getClass().getSimpleName();
+        long suppressed = windows.computeIfAbsent(reason, r -> new Window()).tryOpen(nanoClock.getAsLong(), failureIntervalNanos);
+        if (suppressed >= 0) {
+            log.warn("Rejected bearer token {} for {}: {}{}", fingerprint(token), uri, reason,
+                    suppressed > 0 ? " (" + suppressed + " similar suppressed)" : "");
+        }
+    }
+
+    static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Window {
+
+        private final AtomicLong openedAt = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong suppressed = new AtomicLong();
+
+        // -1 while the window is closed; otherwise the count suppressed before it opened
+        long tryOpen(long now, long intervalNanos) {
+            long last = openedAt.get();
+            if (last != Long.MIN_VALUE && now - last < intervalNanos) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            if (!openedAt.compareAndSet(last, now)) {
+                suppressed.incrementAndGet();
+                return -1;
+            }
+            return suppressed.getAndSet(0);
+        }
+    }
+}
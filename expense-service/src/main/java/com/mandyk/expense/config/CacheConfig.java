@@ -0,0 +1,50 @@
+package com.mandyk.expense.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read caches for per-user data that rarely changes, keyed by user id. Each cache has
+ * its own size and TTL; entries are evicted by CacheEvictionListener when the owning
+ * service publishes a change, so the TTL only bounds changes made by other instances.
+ * Caches are registered up front so their statistics are exported as cache.* meters.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ACCOUNTS = "accounts";
+    public static final String CATEGORIES = "categories";
+    public static final String USER_PROFILES = "userProfiles";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${caching.accounts.max-size:10000}") long accountsMaxSize,
+                                     @Value("${caching.accounts.ttl:PT10M}") Duration accountsTtl,
+                                     @Value("${caching.categories.max-size:10000}") long categoriesMaxSize,
+                                     @Value("${caching.categories.ttl:PT10M}") Duration categoriesTtl,
+                                     @Value("${caching.user-profiles.max-size:10000}") long profilesMaxSize,
+                                     @Value("${caching.user-profiles.ttl:PT5M}") Duration profilesTtl) {
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ACCOUNTS, build(accountsMaxSize, accountsTtl));
+        cacheManager.registerCustomCache(CATEGORIES, build(categoriesMaxSize, categoriesTtl));
+        cacheManager.registerCustomCache(USER_PROFILES, build(profilesMaxSize, profilesTtl));
+        return cacheManager;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
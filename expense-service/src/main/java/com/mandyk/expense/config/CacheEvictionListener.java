@@ -0,0 +1,59 @@
+package com.mandyk.expense.config;
+
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.event.UserChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Evicts straight away, so later reads in the same transaction see the change, and again
+// once the transaction has completed, so an entry that a concurrent read cached from the
+// old rows (or from rows that were then rolled back) does not outlive it.
+@Component
+public class CacheEvictionListener {
+
+    private CacheManager cacheManager;
+
+    public CacheEvictionListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        evict(CacheConfig.ACCOUNTS, event.userId());
+    }
+
+    @EventListener
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        evict(CacheConfig.CATEGORIES, event.userId());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(CacheConfig.USER_PROFILES, event.userId());
+        if (event.deleted()) {
+            evict(CacheConfig.ACCOUNTS, event.userId());
+            evict(CacheConfig.CATEGORIES, event.userId());
+        }
+    }
+
+    private void evict(String cacheName, Integer userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(userId);
+                }
+            });
+        }
+    }
+}
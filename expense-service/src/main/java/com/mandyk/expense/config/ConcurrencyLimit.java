@@ -0,0 +1,52 @@
+package com.mandyk.expense.config;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The server.concurrency.max-in-flight permits, shared by everything that takes a pooled
+ * connection: requests through ConcurrencyLimitFilter, and as a TaskDecorator the import,
+ * export and live-update executors and the scheduler. Requests give up after a timeout;
+ * background tasks wait, as their own worker counts already bound them. The outbox
+ * listener keeps its connection outside the pool, so it takes no permit.
+ */
+public class ConcurrencyLimit implements TaskDecorator {
+
+    private Semaphore permits;
+
+    public ConcurrencyLimit(int maxInFlight) {
+        this.permits = new Semaphore(maxInFlight, true);
+    }
+
+    boolean tryAcquire(long timeoutMillis) throws InterruptedException {
+        return permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        return () -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                // shutting down; the task never started
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+}
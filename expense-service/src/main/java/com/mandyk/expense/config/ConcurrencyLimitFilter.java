@@ -0,0 +1,81 @@
+package com.mandyk.expense.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests executing at once. With virtual threads Tomcat no longer limits
+ * concurrency through its thread pool, so without this every request would be admitted and then
+ * queue inside Hikari for one of its connections. The permits are shared with the background
+ * work that also holds connections, see ConcurrencyLimit.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private ConcurrencyLimit permits;
+    private long acquireTimeoutMillis;
+    private AtomicInteger waiting = new AtomicInteger();
+    private Counter rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimit permits, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.permits = permits;
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests rejected because no concurrency permit became available in time")
+                .register(meterRegistry);
+        meterRegistry.gauge("http.server.requests.waiting", waiting);
+        meterRegistry.gauge("http.server.requests.permits.available", permits, ConcurrencyLimit::availablePermits);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health and metrics probes must not queue behind application traffic
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejecting {} {}: no concurrency permit within {} ms", request.getMethod(), request.getRequestURI(), acquireTimeoutMillis);
+            // Written directly: sendError would re-dispatch to /error, which the security
+            // chain answers with 403 for an unauthenticated ERROR dispatch
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Server is busy, retry later");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
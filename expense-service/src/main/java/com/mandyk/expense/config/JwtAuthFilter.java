@@ -1,12 +1,14 @@
 package com.mandyk.expense.config;
 
+import com.mandyk.expense.security.AuthenticatedUser;
 import com.mandyk.expense.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,52 +16,49 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
-
     private JwtService jwtService;
+    private AuthLogSampler authLog;
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService,
+                         @Value("${security.auth-logging.failure-interval:PT10S}") Duration failureInterval,
+                         @Value("${security.auth-logging.success-sample-rate:0.01}") double successSampleRate) {
         this.jwtService = jwtService;
+        this.authLog = new AuthLogSampler(LoggerFactory.getLogger(JwtAuthFilter.class), failureInterval, successSampleRate);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        log.debug("JwtAuthFilter hit for: {}", request.getRequestURI());
 
         String authHeader = request.getHeader("Authorization");
-        log.info("Auth header: {}", authHeader);
 
-        // if no token, skip filter
+        // if no token, skip filter; the security chain rejects it unless the path is public
         if(authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("No Bearer token found, skipping filter");
             filterChain.doFilter(request, response);
             return;
         }
 
         String token = authHeader.substring(7); // Remove "Bearer "
-        log.debug("Token extracted: {}", token);
         try {
-            String email = jwtService.extractEmail(token);
-            log.debug("Email extracted from token: {}", email);
+            // Verify once; controllers read the principal instead of re-parsing the token
+            Claims claims = jwtService.extractClaims(token);
+            String email = claims.getSubject();
 
             // If email extracted and no existing authentication
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isTokenValid(token, email)) {
-                    log.debug("Token is valid for: {}", email);
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, null, List.of());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    log.warn("Token is invalid for: {}", email);
-                }
+                AuthenticatedUser principal = new AuthenticatedUser(claims.get("userId", Integer.class), email);
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                authLog.accepted(request.getRequestURI(), principal.getUserId());
             }
         } catch (Exception ex) {
-            log.error("Error processing JWT token: ", ex);
+            authLog.rejected(request.getRequestURI(), token, ex);
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,38 @@
+package com.mandyk.expense.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Latency metrics beyond what Boot records on its own. Controller methods are timed as
+ * http.server.requests (one series per uri and method) and repository methods as
+ * spring.data.repository.invocations; this adds an outcome tag to the latter and times
+ * JSON serialization of responses. Percentile histograms are switched on per meter
+ * under management.metrics.distribution.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // state already says whether the call failed; outcome is the tag the other timers use
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        DefaultRepositoryTagsProvider defaults = new DefaultRepositoryTagsProvider();
+        return invocation -> Tags.of(defaults.repositoryTags(invocation))
+                .and(Tag.of("outcome", invocation.getResult() == null
+                        ? "UNKNOWN" : invocation.getResult().getState().name()));
+    }
+
+    // replaces the converter Boot would create, with the same ObjectMapper
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+}
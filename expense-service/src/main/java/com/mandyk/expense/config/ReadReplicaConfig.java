@@ -0,0 +1,109 @@
+package com.mandyk.expense.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.mandyk.expense.replica.ReadReplicas;
+import com.mandyk.expense.replica.ReadYourWritesFilter;
+import com.mandyk.expense.replica.ReadYourWritesListener;
+import com.mandyk.expense.replica.ReplicaLagMonitor;
+import com.mandyk.expense.replica.ReplicaNode;
+import com.mandyk.expense.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Active with read-replicas.enabled=true, see application.yml
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "read-replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // static, like the post processor that needs it while the primary pool is being created
+    @Bean
+    public static ReadReplicas readReplicas(@Value("${read-replicas.urls:}") List<String> urls,
+                                            @Value("${read-replicas.username:${spring.datasource.username}}") String username,
+                                            @Value("${read-replicas.password:${spring.datasource.password}}") String password,
+                                            @Value("${read-replicas.maximum-pool-size:10}") int maximumPoolSize,
+                                            @Value("${read-replicas.connection-timeout:PT1S}") Duration connectionTimeout,
+                                            @Value("${read-replicas.max-lag:PT1S}") Duration maxLag,
+                                            @Value("${read-replicas.read-your-writes:PT5S}") Duration readYourWrites) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("read-replicas.enabled is set but read-replicas.urls is empty");
+        }
+        List<ReplicaNode> nodes = new ArrayList<>();
+        for (String url : urls) {
+            String name = "replica-" + (nodes.size() + 1);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setReadOnly(true);
+            nodes.add(new ReplicaNode(name, pool));
+        }
+        return new ReadReplicas(nodes, maxLag, readYourWrites, Ticker.systemTicker());
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicas readReplicas,
+                                               @Value("${read-replicas.lag-check-interval:PT1S}") Duration interval,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(readReplicas, interval, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesListener readYourWritesListener(ReadReplicas readReplicas) {
+        return new ReadYourWritesListener(readReplicas);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${read-replicas.read-your-writes:PT5S}") Duration readYourWrites) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWrites, Clock.systemUTC()));
+    }
+
+    // Ordered, so it runs before unordered post processors such as the slow query one,
+    // which then wraps (and times) the routing data source rather than the primary alone
+    @Bean
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+        return new RoutingPostProcessor(readReplicas);
+    }
+
+    private static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private ObjectProvider<ReadReplicas> readReplicas;
+
+        RoutingPostProcessor(ObjectProvider<ReadReplicas> readReplicas) {
+            this.readReplicas = readReplicas;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ReplicaRoutingDataSource)) {
+                return new ReplicaRoutingDataSource(dataSource, readReplicas.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
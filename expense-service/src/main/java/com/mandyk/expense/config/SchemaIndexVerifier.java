@@ -0,0 +1,107 @@
+package com.mandyk.expense.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Fails startup when an index declared on an entity ({@code @Table(indexes = ...)}) is
+ * missing from the database. Flyway owns the schema, so this catches an index that was
+ * declared without a migration, or a migration that never ran. Runs once all singletons
+ * exist, i.e. after Flyway and before the web server accepts traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    private DataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+
+    public SchemaIndexVerifier(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        Map<String, Set<String>> expected = expectedIndexes();
+        List<String> missing = new ArrayList<>();
+        int verified = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, Set<String>> table : expected.entrySet()) {
+                Set<String> present = existingIndexes(metaData, connection, table.getKey());
+                for (String index : table.getValue()) {
+                    if (present.contains(index)) {
+                        verified++;
+                    } else {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not read index metadata", ex);
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Database is missing indexes " + missing
+                    + "; add a migration under db/migration that creates them");
+        }
+        log.info("Verified {} declared indexes", verified);
+    }
+
+    // table name -> index names, both lower-cased as Postgres stores unquoted identifiers
+    public Map<String, Set<String>> expectedIndexes() {
+
+        Map<String, Set<String>> expected = new TreeMap<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            if (table == null || table.indexes().length == 0) {
+                continue;
+            }
+            Set<String> names = expected.computeIfAbsent(table.name().toLowerCase(Locale.ROOT), t -> new TreeSet<>());
+            for (Index index : table.indexes()) {
+                names.add(index.name().toLowerCase(Locale.ROOT));
+            }
+        }
+        return expected;
+    }
+
+    private Set<String> existingIndexes(DatabaseMetaData metaData, Connection connection, String table) throws SQLException {
+
+        Set<String> names = new HashSet<>();
+        try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (rows.next()) {
+                String name = rows.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
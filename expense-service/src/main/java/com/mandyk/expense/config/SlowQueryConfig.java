@@ -0,0 +1,47 @@
+package com.mandyk.expense.config;
+
+import com.mandyk.expense.monitoring.SlowQueriesEndpoint;
+import com.mandyk.expense.monitoring.SlowQueryDataSource;
+import com.mandyk.expense.monitoring.SlowQueryRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Active with slow-queries.enabled=true, see application-perf.yml
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "slow-queries.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryRecorder slowQueryRecorder(@Value("${slow-queries.threshold:200ms}") Duration threshold,
+                                               @Value("${slow-queries.capacity:100}") int capacity,
+                                               MeterRegistry meterRegistry) {
+        return new SlowQueryRecorder(threshold, capacity, meterRegistry);
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(SlowQueryRecorder slowQueryRecorder) {
+        return new SlowQueriesEndpoint(slowQueryRecorder);
+    }
+
+    // static, so the data source can be wrapped before the rest of this configuration exists
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, recorder::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.mandyk.expense.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times writing response DTOs as JSON, tagged with the same uri as http.server.requests
+ * so the serialization share of an endpoint's latency can be read next to it. The time
+ * includes handing the bytes to the response buffer, so a slow client shows up here too.
+ */
+class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final MeterRegistry meterRegistry;
+
+    TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+
+        long start = System.nanoTime();
+        String outcome = "ERROR";
+        try {
+            super.writeInternal(object, type, outputMessage);
+            outcome = "SUCCESS";
+        } finally {
+            Timer.builder("http.server.response.serialization")
+                    .description("Time to write a response body as JSON")
+                    .tag("uri", currentUri())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Unset for events written from other threads, such as server-sent events
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object pattern = attributes == null
+                ? null
+                : attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
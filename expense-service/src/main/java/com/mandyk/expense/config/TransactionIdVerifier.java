@@ -0,0 +1,42 @@
+package com.mandyk.expense.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails startup when transactions_seq is behind the ids already in use, which a restored
+ * dump or an id inserted by hand can cause. Uniqueness itself is enforced by the primary
+ * key of transaction_ids (migration V8, which also failed on any id already used twice),
+ * so a sequence that lags would make inserts fail rather than duplicate ids; this catches
+ * it before the first one does. The highest id is read from that primary key, so the
+ * check costs one index probe however large the ledger is.
+ */
+@Component
+@ConditionalOnProperty(name = "schema.verify-transaction-ids", havingValue = "true", matchIfMissing = true)
+public class TransactionIdVerifier implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionIdVerifier.class);
+
+    private JdbcTemplate jdbcTemplate;
+
+    public TransactionIdVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+
+        // the pooled generator hands out ids up to the sequence's last value, never beyond
+        long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from transaction_ids", Long.class);
+        long lastValue = jdbcTemplate.queryForObject("select last_value from transactions_seq", Long.class);
+        if (maxId > lastValue) {
+            throw new IllegalStateException("transactions_seq (at " + lastValue + ") is behind the highest transaction id "
+                    + maxId + "; run select setval('transactions_seq', " + (maxId + 1) + ")");
+        }
+        log.info("Verified transactions_seq is past every transaction id");
+    }
+}
@@ -0,0 +1,43 @@
+package com.mandyk.expense.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Active when spring.threads.virtual.enabled=true on JDK 21+, see application-virtual-threads.yml
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public ConcurrencyLimit concurrencyLimit(@Value("${server.concurrency.max-in-flight}") int maxInFlight) {
+        return new ConcurrencyLimit(maxInFlight);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyLimit concurrencyLimit,
+            @Value("${server.concurrency.acquire-timeout:5s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(concurrencyLimit, acquireTimeout, meterRegistry));
+        // Ahead of the security chain so waiting requests hold nothing but a virtual thread
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // Scheduled jobs (outbox relay, reconciliation, partition maintenance) run on the
+    // auto-configured virtual-thread scheduler
+    @Bean
+    public SimpleAsyncTaskSchedulerCustomizer concurrencyLimitedScheduler(ConcurrencyLimit concurrencyLimit) {
+        return scheduler -> scheduler.setTaskDecorator(concurrencyLimit);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mandyk.expense.config;
+
+import com.mandyk.expense.security.CurrentUserArgumentResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // Optional so that @WebMvcTest slices, which do not load AsyncConfig, still start
+    private ObjectProvider<AsyncTaskExecutor> exportExecutor;
+    private Duration asyncTimeout;
+
+    public WebConfig(@Qualifier("exportExecutor") ObjectProvider<AsyncTaskExecutor> exportExecutor,
+                     @Value("${export.timeout:PT30M}") Duration asyncTimeout) {
+        this.exportExecutor = exportExecutor;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+
+    // Streamed exports run for as long as the history takes to write, well past the
+    // container's default async timeout
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        exportExecutor.ifAvailable(configurer::setTaskExecutor);
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+}
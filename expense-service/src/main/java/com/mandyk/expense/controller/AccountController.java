@@ -1,9 +1,8 @@
 package com.mandyk.expense.controller;
 
 import com.mandyk.expense.dto.AccountDTO;
+import com.mandyk.expense.security.CurrentUser;
 import com.mandyk.expense.service.AccountService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,25 +17,21 @@ public class AccountController {
     private static final Logger log = LoggerFactory.getLogger(AccountController.class);
 
     private AccountService accountService;
-    private JwtUtil jwtUtil;
 
-    public AccountController(AccountService accountService, JwtUtil jwtUtil) {
+    public AccountController(AccountService accountService) {
         this.accountService = accountService;
-        this.jwtUtil = jwtUtil;
     }
 
     // Get all accounts for user
     @GetMapping(path = "/users")
-    public List<AccountDTO> getAccounts(HttpServletRequest request) {
-        Integer userId = jwtUtil.getUserIdFromRequest(request);
+    public List<AccountDTO> getAccounts(@CurrentUser Integer userId) {
         log.debug("List all the accounts for user: "+ userId);
         return accountService.getAccountsByUserId(userId);
     }
 
     // Create account
     @PostMapping()
-    public AccountDTO createAccount(@Valid @RequestBody AccountDTO dto, HttpServletRequest request) {
-        Integer userId = jwtUtil.getUserIdFromRequest(request);
+    public AccountDTO createAccount(@Valid @RequestBody AccountDTO dto, @CurrentUser Integer userId) {
         dto.setUserId(userId);
         log.debug("Create account for user: "+ userId);
         return accountService.createAccount(dto);
@@ -44,15 +39,13 @@ public class AccountController {
 
     // Get single account
     @GetMapping(path = "/{id}")
-    public AccountDTO getAccountById(@PathVariable("id") Integer accountId, HttpServletRequest request) {
-        Integer userId = jwtUtil.getUserIdFromRequest(request);
+    public AccountDTO getAccountById(@PathVariable("id") Integer accountId, @CurrentUser Integer userId) {
         log.debug("Create account " + accountId +" for user: "+ userId);
         return accountService.getAccountById(accountId, userId);
     }
 
     @DeleteMapping(path = "/{id}")
-    public void deleteAccountById(@PathVariable("id") Integer accountId, HttpServletRequest request) {
-        Integer userId = jwtUtil.getUserIdFromRequest(request);
+    public void deleteAccountById(@PathVariable("id") Integer accountId, @CurrentUser Integer userId) {
         log.debug("Delete account " + accountId +" for user: "+ userId);
         accountService.deleteAccount(accountId, userId);
     }
@@ -0,0 +1,54 @@
+package com.mandyk.expense.controller;
+
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.MonthlyExpenseDTO;
+import com.mandyk.expense.dto.TransactionSummaryDTO;
+import com.mandyk.expense.security.CurrentUser;
+import com.mandyk.expense.service.AnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // MONTHLY TREND, e.g. ?from=2025-01&to=2025-12 (defaults to the last 12 months)
+    @GetMapping("/monthly")
+    public List<MonthlyExpenseDTO> getMonthlyTrend(
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @CurrentUser Integer userId) {
+
+        return analyticsService.getMonthlyTrend(userId, from, to);
+    }
+
+    // EXPENSE BY CATEGORY, e.g. ?from=2025-01-01&to=2025-01-31 (defaults to the current month)
+    @GetMapping("/categories")
+    public List<CategoryExpenseDTO> getExpenseByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @CurrentUser Integer userId) {
+
+        return analyticsService.getExpenseByCategory(userId, from, to);
+    }
+
+    // SUMMARY
+    @GetMapping("/summary")
+    public TransactionSummaryDTO getSummary(@CurrentUser Integer userId) {
+
+        return analyticsService.getSummary(userId);
+    }
+}
@@ -1,9 +1,8 @@
 package com.mandyk.expense.controller;
 
 import com.mandyk.expense.dto.CategoryDTO;
+import com.mandyk.expense.security.CurrentUser;
 import com.mandyk.expense.service.CategoryService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,30 +13,28 @@ import java.util.List;
 public class CategoryController {
 
     private CategoryService categoryService;
-    private JwtUtil jwtUtil;
 
-    public CategoryController(CategoryService categoryService, JwtUtil jwtUtil) {
+    public CategoryController(CategoryService categoryService) {
         this.categoryService = categoryService;
-        this.jwtUtil = jwtUtil;
     }
 
     // Get categories by user
     @GetMapping(path="/users")
-    public List<CategoryDTO> getCategories(HttpServletRequest request) {
-        return categoryService.getCategoriesByUserId(jwtUtil.getUserIdFromRequest(request));
+    public List<CategoryDTO> getCategories(@CurrentUser Integer userId) {
+        return categoryService.getCategoriesByUserId(userId);
     }
 
     // Create category
     @PostMapping()
-    public CategoryDTO createCategory(@Valid @RequestBody CategoryDTO dto, HttpServletRequest request) {
-        dto.setUserId(jwtUtil.getUserIdFromRequest(request));
+    public CategoryDTO createCategory(@Valid @RequestBody CategoryDTO dto, @CurrentUser Integer userId) {
+        dto.setUserId(userId);
         return categoryService.createCategory(dto);
     }
 
     // Delete category
     @DeleteMapping("/{id}")
-    public void deleteCategoryById(@PathVariable Integer id, HttpServletRequest request) {
-        categoryService.deleteCategory(id, jwtUtil.getUserIdFromRequest(request));
+    public void deleteCategoryById(@PathVariable Integer id, @CurrentUser Integer userId) {
+        categoryService.deleteCategory(id, userId);
     }
 
 
@@ -1,75 +1,216 @@
 package com.mandyk.expense.controller;
 
 import com.mandyk.expense.dto.BalanceDTO;
+import com.mandyk.expense.dto.CursorPageDTO;
+import com.mandyk.expense.dto.TransactionBatchRequestDTO;
+import com.mandyk.expense.dto.TransactionBatchResponseDTO;
 import com.mandyk.expense.dto.TransactionCreateRequestDTO;
 import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.dto.TransactionSearchCriteria;
+import com.mandyk.expense.exporter.ExportFormat;
+import com.mandyk.expense.security.CurrentUser;
+import com.mandyk.expense.service.LiveUpdateRegistry;
+import com.mandyk.expense.service.TransactionExportService;
 import com.mandyk.expense.service.TransactionService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
     private TransactionService transactionService;
-    private JwtUtil jwtUtil;
+    private TransactionExportService transactionExportService;
+    private LiveUpdateRegistry liveUpdateRegistry;
 
-    public TransactionController(TransactionService transactionService, JwtUtil jwtUtil) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 LiveUpdateRegistry liveUpdateRegistry) {
         this.transactionService = transactionService;
-        this.jwtUtil = jwtUtil;
+        this.transactionExportService = transactionExportService;
+        this.liveUpdateRegistry = liveUpdateRegistry;
     }
 
     // CREATE
     @PostMapping
-    public TransactionResponseDTO createTransaction(@Valid @RequestBody TransactionCreateRequestDTO requestDTO, HttpServletRequest request) {
-        return transactionService.createTransaction(requestDTO, jwtUtil.getUserIdFromRequest(request));
+    public TransactionResponseDTO createTransaction(@Valid @RequestBody TransactionCreateRequestDTO requestDTO, @CurrentUser Integer userId) {
+        return transactionService.createTransaction(requestDTO, userId);
     }
 
+    // CREATE BATCH
+    @PostMapping("/batch")
+    public TransactionBatchResponseDTO createTransactions(@Valid @RequestBody TransactionBatchRequestDTO requestDTO, @CurrentUser Integer userId) {
+        return transactionService.createTransactions(requestDTO.getTransactions(), userId);
+    }
 
-    // GET ALL BY USER (paginated)
-    @GetMapping("/user")
-    public Page<TransactionResponseDTO> getTransactionsByUser(HttpServletRequest request, Pageable pageable) {
 
-        return transactionService.getTransactionsByUserId(jwtUtil.getUserIdFromRequest(request), pageable);
+    // GET ALL BY USER (paginated; from/to are inclusive dates, by default everything through today)
+    @GetMapping("/user")
+    public Page<TransactionResponseDTO> getTransactionsByUser(
+            @CurrentUser Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
+
+        return transactionService.getTransactionsByUserId(userId, from, to, pageable, fields);
     }
 
 
     // GET BY ACCOUNT (paginated)
     @GetMapping("/account/{accountId}")
     public Page<TransactionResponseDTO> getTransactionsByAccount(
-            @PathVariable Integer accountId, HttpServletRequest request,
-            Pageable pageable) {
+            @PathVariable Integer accountId, @CurrentUser Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
 
-        return transactionService.getTransactionsByAccountId(jwtUtil.getUserIdFromRequest(request), accountId, pageable);
+        return transactionService.getTransactionsByAccountId(userId, accountId, from, to, pageable, fields);
     }
 
 
     // GET BY CATEGORY (paginated)
     @GetMapping("/category/{categoryId}")
-    public Page<TransactionResponseDTO> getTransactionsByCategory(@PathVariable Integer categoryId, HttpServletRequest request, Pageable pageable) {
+    public Page<TransactionResponseDTO> getTransactionsByCategory(
+            @PathVariable Integer categoryId, @CurrentUser Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Pageable pageable,
+            @RequestParam(required = false) String fields) {
+
+        return transactionService.getTransactionsByCategoryId(userId, categoryId, from, to, pageable, fields);
+    }
+
+
+    // SEARCH (account, category, type, amount range, date range, description text)
+    @GetMapping("/search")
+    public Page<TransactionResponseDTO> searchTransactions(@Valid TransactionSearchCriteria criteria,
+                                                           Pageable pageable,
+                                                           @RequestParam(required = false) String fields,
+                                                           @CurrentUser Integer userId) {
+
+        return transactionService.searchTransactions(userId, criteria, pageable, fields);
+    }
+
+
+    // GET ALL BY USER (keyset, no count query)
+    @GetMapping("/user/cursor")
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByUserCursor(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            @CurrentUser Integer userId) {
+
+        return transactionService.getTransactionsByUserIdAfter(userId, from, to, cursor, size, fields);
+    }
+
+
+    // GET BY ACCOUNT (keyset, no count query)
+    @GetMapping("/account/{accountId}/cursor")
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByAccountCursor(
+            @PathVariable Integer accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            @CurrentUser Integer userId) {
+
+        return transactionService.getTransactionsByAccountIdAfter(userId, accountId, from, to, cursor, size, fields);
+    }
+
+
+    // GET BY CATEGORY (keyset, no count query)
+    @GetMapping("/category/{categoryId}/cursor")
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByCategoryCursor(
+            @PathVariable Integer categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            @CurrentUser Integer userId) {
+
+        return transactionService.getTransactionsByCategoryIdAfter(userId, categoryId, from, to, cursor, size, fields);
+    }
+
+
+    // EXPORT (CSV or NDJSON, streamed; gzip when the client accepts it)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @CurrentUser Integer userId) {
+
+        ExportFormat exportFormat = ExportFormat.resolve(format);
+        transactionExportService.checkRange(from, to);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 16 * 1024);
+                transactionExportService.exportTransactions(userId, exportFormat, from, to, gzipOut);
+                gzipOut.finish();
+            } else {
+                transactionExportService.exportTransactions(userId, exportFormat, from, to, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+
+    // LIVE UPDATES (server-sent events): transaction.created / transaction.deleted with the
+    // transaction, then balance with the new balance of each affected account. Events
+    // missed while disconnected are not replayed; clients refetch after reconnecting.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUpdates(@CurrentUser Integer userId) {
 
-        return transactionService.getTransactionsByCategoryId(jwtUtil.getUserIdFromRequest(request), categoryId, pageable);
+        return liveUpdateRegistry.subscribe(userId);
     }
 
 
     // GET SINGLE
     @GetMapping("/{txnId}")
-    public TransactionResponseDTO getTransaction(@PathVariable Integer txnId, HttpServletRequest request) {
+    public TransactionResponseDTO getTransaction(@PathVariable Integer txnId, @CurrentUser Integer userId) {
 
-        return transactionService.getTransaction(txnId, jwtUtil.getUserIdFromRequest(request));
+        return transactionService.getTransaction(txnId, userId);
     }
 
     @GetMapping("/{accountId}/balance")
-    public BalanceDTO getBalance(@PathVariable Integer accountId, HttpServletRequest request) {
+    public BalanceDTO getBalance(@PathVariable Integer accountId, @CurrentUser Integer userId) {
 
         BigDecimal balance =
-                transactionService.getAccountBalance(accountId, jwtUtil.getUserIdFromRequest(request));
+                transactionService.getAccountBalance(accountId, userId);
 
         BalanceDTO dto = new BalanceDTO();
         dto.setAccountId(accountId);
@@ -80,8 +221,8 @@ public class TransactionController {
 
     // DELETE
     @DeleteMapping("/{txnId}")
-    public void deleteTransaction(@PathVariable Integer txnId, HttpServletRequest request) {
+    public void deleteTransaction(@PathVariable Integer txnId, @CurrentUser Integer userId) {
 
-        transactionService.deleteTransaction(txnId, jwtUtil.getUserIdFromRequest(request));
+        transactionService.deleteTransaction(txnId, userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.mandyk.expense.controller;
+
+import com.mandyk.expense.dto.ImportJobDTO;
+import com.mandyk.expense.security.CurrentUser;
+import com.mandyk.expense.service.TransactionImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/transactions/import")
+public class TransactionImportController {
+
+    private TransactionImportService importService;
+
+    public TransactionImportController(TransactionImportService importService) {
+        this.importService = importService;
+    }
+
+    // START IMPORT (CSV or OFX)
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDTO importStatement(@RequestParam("file") MultipartFile file,
+                                        @RequestParam Integer accountId,
+                                        @RequestParam(required = false) String format,
+                                        @CurrentUser Integer userId) {
+
+        return importService.startImport(file, format, accountId, userId);
+    }
+
+    // JOB STATUS
+    @GetMapping("/{jobId}")
+    public ImportJobDTO getImportJob(@PathVariable String jobId, @CurrentUser Integer userId) {
+
+        return importService.getJob(jobId, userId);
+    }
+}
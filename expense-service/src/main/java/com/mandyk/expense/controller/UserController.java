@@ -3,9 +3,8 @@ package com.mandyk.expense.controller;
 import com.mandyk.expense.dto.ChangePasswordDTO;
 import com.mandyk.expense.dto.UpdateProfileDTO;
 import com.mandyk.expense.dto.UserDTO;
+import com.mandyk.expense.security.CurrentUser;
 import com.mandyk.expense.service.UserService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,38 +13,36 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private UserService userService;
-    private JwtUtil jwtUtil;
 
-    public UserController(UserService userService, JwtUtil jwtUtil) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.jwtUtil = jwtUtil;
     }
 
     // GET PROFILE
     @GetMapping("/me")
-    public UserDTO getProfile(HttpServletRequest request) {
+    public UserDTO getProfile(@CurrentUser Integer userId) {
 
-        return userService.getProfile(jwtUtil.getUserIdFromRequest(request));
+        return userService.getProfile(userId);
     }
 
     // UPDATE PROFILE
     @PutMapping("/me")
-    public UserDTO updateProfile(@Valid @RequestBody UpdateProfileDTO dto, HttpServletRequest request) {
+    public UserDTO updateProfile(@Valid @RequestBody UpdateProfileDTO dto, @CurrentUser Integer userId) {
 
-        return userService.updateProfile(dto, jwtUtil.getUserIdFromRequest(request));
+        return userService.updateProfile(dto, userId);
     }
 
     // CHANGE PASSWORD
     @PutMapping("/me/password")
-    public void changePassword(@Valid @RequestBody ChangePasswordDTO dto, HttpServletRequest request) {
+    public void changePassword(@Valid @RequestBody ChangePasswordDTO dto, @CurrentUser Integer userId) {
 
-        userService.changePassword(dto, jwtUtil.getUserIdFromRequest(request));
+        userService.changePassword(dto, userId);
     }
 
     // DELETE USER
     @DeleteMapping("/me")
-    public void deleteCurrentUser(HttpServletRequest request) {
+    public void deleteCurrentUser(@CurrentUser Integer userId) {
 
-        userService.deleteUserById(jwtUtil.getUserIdFromRequest(request));
+        userService.deleteUserById(userId);
     }
 }
\ No newline at end of file
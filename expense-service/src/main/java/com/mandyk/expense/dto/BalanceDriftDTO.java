@@ -0,0 +1,31 @@
+package com.mandyk.expense.dto;
+
+import java.math.BigDecimal;
+
+public class BalanceDriftDTO {
+
+    private Integer accountId;
+    private BigDecimal storedBalance;
+    private BigDecimal ledgerBalance;
+
+    public BalanceDriftDTO() {}
+
+    public BalanceDriftDTO(Integer accountId, BigDecimal storedBalance, BigDecimal ledgerBalance) {
+        this.accountId = accountId;
+        this.storedBalance = storedBalance;
+        this.ledgerBalance = ledgerBalance;
+    }
+
+    public BigDecimal getDrift() {
+        return ledgerBalance.subtract(storedBalance);
+    }
+
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public BigDecimal getStoredBalance() { return storedBalance; }
+    public void setStoredBalance(BigDecimal storedBalance) { this.storedBalance = storedBalance; }
+
+    public BigDecimal getLedgerBalance() { return ledgerBalance; }
+    public void setLedgerBalance(BigDecimal ledgerBalance) { this.ledgerBalance = ledgerBalance; }
+}
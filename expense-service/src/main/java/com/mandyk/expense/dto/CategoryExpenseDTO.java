@@ -0,0 +1,33 @@
+package com.mandyk.expense.dto;
+
+import java.math.BigDecimal;
+
+public class CategoryExpenseDTO {
+
+    // null for uncategorised expenses
+    private Integer categoryId;
+    private String categoryName;
+    private BigDecimal totalExpense;
+    private long transactionCount;
+
+    public CategoryExpenseDTO() {}
+
+    public CategoryExpenseDTO(Integer categoryId, String categoryName, BigDecimal totalExpense, Long transactionCount) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.totalExpense = totalExpense;
+        this.transactionCount = transactionCount;
+    }
+
+    public Integer getCategoryId() { return categoryId; }
+    public void setCategoryId(Integer categoryId) { this.categoryId = categoryId; }
+
+    public String getCategoryName() { return categoryName; }
+    public void setCategoryName(String categoryName) { this.categoryName = categoryName; }
+
+    public BigDecimal getTotalExpense() { return totalExpense; }
+    public void setTotalExpense(BigDecimal totalExpense) { this.totalExpense = totalExpense; }
+
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
+}
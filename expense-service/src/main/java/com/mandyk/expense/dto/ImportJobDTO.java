@@ -0,0 +1,75 @@
+package com.mandyk.expense.dto;
+
+import com.mandyk.expense.importer.ImportJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ImportJobDTO {
+
+    private String id;
+    private String status;
+    private String format;
+    private String filename;
+    private Integer accountId;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private String failureMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private List<ImportJob.RowError> errors;
+
+    public static ImportJobDTO from(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus().name());
+        dto.setFormat(job.getFormat().name());
+        dto.setFilename(job.getFilename());
+        dto.setAccountId(job.getAccountId());
+        dto.setRowsRead(job.getRowsRead());
+        dto.setRowsImported(job.getRowsImported());
+        dto.setRowsRejected(job.getRowsRejected());
+        dto.setFailureMessage(job.getFailureMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setErrors(job.getErrors());
+        return dto;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public String getFailureMessage() { return failureMessage; }
+    public void setFailureMessage(String failureMessage) { this.failureMessage = failureMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public List<ImportJob.RowError> getErrors() { return errors; }
+    public void setErrors(List<ImportJob.RowError> errors) { this.errors = errors; }
+}
@@ -1,4 +1,34 @@
 package com.mandyk.expense.dto;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
 public class MonthlyExpenseDTO {
+
+    private YearMonth month;
+    private BigDecimal totalIncome = BigDecimal.ZERO;
+    private BigDecimal totalExpense = BigDecimal.ZERO;
+    private long transactionCount;
+
+    public MonthlyExpenseDTO() {}
+
+    public MonthlyExpenseDTO(YearMonth month) {
+        this.month = month;
+    }
+
+    public BigDecimal getNet() {
+        return totalIncome.subtract(totalExpense);
+    }
+
+    public YearMonth getMonth() { return month; }
+    public void setMonth(YearMonth month) { this.month = month; }
+
+    public BigDecimal getTotalIncome() { return totalIncome; }
+    public void setTotalIncome(BigDecimal totalIncome) { this.totalIncome = totalIncome; }
+
+    public BigDecimal getTotalExpense() { return totalExpense; }
+    public void setTotalExpense(BigDecimal totalExpense) { this.totalExpense = totalExpense; }
+
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
 }
@@ -0,0 +1,22 @@
+package com.mandyk.expense.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class TransactionBatchRequestDTO {
+
+    @NotEmpty(message = "At least one transaction is required")
+    @Size(max = 5000, message = "Batch is too large")
+    private List<@Valid TransactionCreateRequestDTO> transactions;
+
+    public List<TransactionCreateRequestDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionCreateRequestDTO> transactions) {
+        this.transactions = transactions;
+    }
+}
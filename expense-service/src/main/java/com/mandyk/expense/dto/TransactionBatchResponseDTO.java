@@ -0,0 +1,42 @@
+package com.mandyk.expense.dto;
+
+import java.util.List;
+
+public class TransactionBatchResponseDTO {
+
+    private int created;
+    private int rejected;
+    private List<TransactionBatchResultDTO> results;
+
+    public TransactionBatchResponseDTO() {}
+
+    public TransactionBatchResponseDTO(int created, int rejected, List<TransactionBatchResultDTO> results) {
+        this.created = created;
+        this.rejected = rejected;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<TransactionBatchResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<TransactionBatchResultDTO> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,60 @@
+package com.mandyk.expense.dto;
+
+public class TransactionBatchResultDTO {
+
+    public enum Status { CREATED, REJECTED }
+
+    private int index;
+    private Status status;
+    private Integer transactionId;
+    private String error;
+
+    public TransactionBatchResultDTO() {}
+
+    public TransactionBatchResultDTO(int index, Status status, Integer transactionId, String error) {
+        this.index = index;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+
+    public static TransactionBatchResultDTO created(int index, Integer transactionId) {
+        return new TransactionBatchResultDTO(index, Status.CREATED, transactionId, null);
+    }
+
+    public static TransactionBatchResultDTO rejected(int index, String error) {
+        return new TransactionBatchResultDTO(index, Status.REJECTED, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Integer transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
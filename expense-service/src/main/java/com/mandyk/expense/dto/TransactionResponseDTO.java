@@ -1,5 +1,6 @@
 package com.mandyk.expense.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mandyk.expense.entity.TransactionType;
 
 import java.math.BigDecimal;
@@ -9,6 +10,8 @@ public class TransactionResponseDTO {
 
     private Integer id;
     private BigDecimal amount;
+    // Left out when the client narrows the response with ?fields=
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private LocalDateTime transactionDate;
     private TransactionType transactionType;
@@ -19,6 +22,25 @@ public class TransactionResponseDTO {
 
     private LocalDateTime createdAt;
 
+    public TransactionResponseDTO() {
+    }
+
+    // Used by the constructor-expression projections in TransactionRepository
+    public TransactionResponseDTO(Integer id, BigDecimal amount, String description,
+                                  LocalDateTime transactionDate, TransactionType transactionType,
+                                  Integer accountId, Integer categoryId, Integer userId,
+                                  LocalDateTime createdAt) {
+        this.id = id;
+        this.amount = amount;
+        this.description = description;
+        this.transactionDate = transactionDate;
+        this.transactionType = transactionType;
+        this.accountId = accountId;
+        this.categoryId = categoryId;
+        this.userId = userId;
+        this.createdAt = createdAt;
+    }
+
     public Integer getId() {
         return id;
     }
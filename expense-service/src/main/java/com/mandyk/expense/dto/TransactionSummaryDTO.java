@@ -1,7 +1,23 @@
 package com.mandyk.expense.dto;
 
+import java.math.BigDecimal;
+
 public class TransactionSummaryDTO {
 
+    private BigDecimal totalIncome = BigDecimal.ZERO;
+    private BigDecimal totalExpense = BigDecimal.ZERO;
+    private long transactionCount;
+
+    public BigDecimal getNet() {
+        return totalIncome.subtract(totalExpense);
+    }
+
+    public BigDecimal getTotalIncome() { return totalIncome; }
+    public void setTotalIncome(BigDecimal totalIncome) { this.totalIncome = totalIncome; }
 
+    public BigDecimal getTotalExpense() { return totalExpense; }
+    public void setTotalExpense(BigDecimal totalExpense) { this.totalExpense = totalExpense; }
 
+    public long getTransactionCount() { return transactionCount; }
+    public void setTransactionCount(long transactionCount) { this.transactionCount = transactionCount; }
 }
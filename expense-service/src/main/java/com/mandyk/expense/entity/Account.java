@@ -2,12 +2,13 @@ package com.mandyk.expense.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name="account")
+@Table(name="account", indexes = @Index(name="idx_account_user", columnList = "user_id"))
 public class Account {
 
     @Id
@@ -23,6 +24,12 @@ public class Account {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Running balance maintained by TransactionService with atomic increments
+    // (AccountRepository.adjustBalance); never written through the entity.
+    @Column(name = "balance", nullable = false, updatable = false, precision = 15, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal balance = BigDecimal.ZERO;
+
     public Account() {}
 
     public Account(String name, Integer userId) {
@@ -51,4 +58,7 @@ public class Account {
     public Integer getUserId() { return userId; }
     public void setUserId(Integer userId) { this.userId = userId; }
 
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
 }
@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
 @Entity
-@Table(name="category")
+@Table(name="category", indexes = @Index(name="idx_category_user", columnList = "user_id"))
 public class Category {
 
     @Id
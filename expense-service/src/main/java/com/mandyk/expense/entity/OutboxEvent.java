@@ -0,0 +1,66 @@
+package com.mandyk.expense.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A ledger change waiting to be published by OutboxRelay; see TransactionOutbox
+@Entity
+@Table(name = "transaction_outbox")
+public class OutboxEvent {
+
+    // pooled sequence so outbox rows batch together with the transaction inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_outbox_seq")
+    @SequenceGenerator(name = "transaction_outbox_seq", sequenceName = "transaction_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_type", length = 32, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType eventType;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "account_id", nullable = false)
+    private Integer accountId;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Integer transactionId;
+
+    // JSON document, passed to the sinks as is
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public OutboxEventType getEventType() { return eventType; }
+    public void setEventType(OutboxEventType eventType) { this.eventType = eventType; }
+
+    public Integer getUserId() { return userId; }
+    public void setUserId(Integer userId) { this.userId = userId; }
+
+    public Integer getAccountId() { return accountId; }
+    public void setAccountId(Integer accountId) { this.accountId = accountId; }
+
+    public Integer getTransactionId() { return transactionId; }
+    public void setTransactionId(Integer transactionId) { this.transactionId = transactionId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(LocalDateTime publishedAt) { this.publishedAt = publishedAt; }
+}
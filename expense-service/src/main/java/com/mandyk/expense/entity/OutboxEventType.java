@@ -0,0 +1,6 @@
+package com.mandyk.expense.entity;
+
+public enum OutboxEventType {
+    TRANSACTION_CREATED,
+    TRANSACTION_DELETED
+}
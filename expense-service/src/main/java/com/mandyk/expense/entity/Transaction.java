@@ -10,13 +10,21 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name="transactions",
     indexes = {
-        @Index(name="idx_transactions_user_date", columnList = "user_id"),
-        @Index(name="idx_transactions_account", columnList = "account_id")
+        @Index(name="idx_transactions_user_date", columnList = "user_id, transaction_date DESC, id DESC"),
+        @Index(name="idx_transactions_account_date", columnList = "account_id, transaction_date DESC, id DESC"),
+        @Index(name="idx_transactions_category_date", columnList = "category_id, transaction_date DESC, id DESC"),
+        // transaction search: type and amount filters within one user's history
+        @Index(name="idx_transactions_user_type_date", columnList = "user_id, type, transaction_date DESC, id DESC"),
+        @Index(name="idx_transactions_user_amount", columnList = "user_id, amount")
     })
 public class Transaction {
 
+    // pooled sequence (not IDENTITY) so Hibernate can batch inserts. The table's primary key
+    // is (id, transaction_date) because of partitioning; transaction_ids (kept by triggers)
+    // is what keeps id unique, and TransactionIdVerifier checks the sequence at startup
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Integer id;
 
     @Column(precision = 15, scale = 2)
@@ -27,7 +35,8 @@ public class Transaction {
     @Column(columnDefinition = "TEXT")
     private String description;
 
-    @Column(name="transaction_date", updatable = false)
+    // partition key (monthly ranges): never updated, so a row never moves between partitions
+    @Column(name="transaction_date", nullable = false, updatable = false)
     private LocalDateTime transactionDate;
 
     @Column(name="type")
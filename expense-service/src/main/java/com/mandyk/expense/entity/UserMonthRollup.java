@@ -0,0 +1,54 @@
+package com.mandyk.expense.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Per user, month, type and category totals maintained by MonthlyRollupService.
+// Rows are only written through UserMonthRollupRepository.increment, never through the entity.
+@Entity
+@Table(name = "user_month_rollup")
+@IdClass(UserMonthRollupId.class)
+public class UserMonthRollup {
+
+    // Category id used for uncategorised transactions so it can be part of the primary key
+    public static final int NO_CATEGORY = 0;
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Id
+    @Column(name = "type", length = 10)
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    @Id
+    @Column(name = "category_id")
+    private Integer categoryId;
+
+    @Column(name = "total_amount", precision = 17, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    public UserMonthRollup() {}
+
+    public Integer getUserId() { return userId; }
+
+    public LocalDate getMonthStart() { return monthStart; }
+
+    public TransactionType getTransactionType() { return transactionType; }
+
+    public Integer getCategoryId() { return categoryId; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+
+    public Long getTransactionCount() { return transactionCount; }
+}
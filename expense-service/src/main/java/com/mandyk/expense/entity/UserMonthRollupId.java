@@ -0,0 +1,37 @@
+package com.mandyk.expense.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public class UserMonthRollupId implements Serializable {
+
+    private Integer userId;
+    private LocalDate monthStart;
+    private TransactionType transactionType;
+    private Integer categoryId;
+
+    public UserMonthRollupId() {}
+
+    public UserMonthRollupId(Integer userId, LocalDate monthStart, TransactionType transactionType, Integer categoryId) {
+        this.userId = userId;
+        this.monthStart = monthStart;
+        this.transactionType = transactionType;
+        this.categoryId = categoryId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserMonthRollupId that)) return false;
+        return Objects.equals(userId, that.userId)
+                && Objects.equals(monthStart, that.monthStart)
+                && transactionType == that.transactionType
+                && Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, monthStart, transactionType, categoryId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.mandyk.expense.event;
+
+/**
+ * Published by AccountService when a user's accounts are created or deleted, and on the
+ * other instances by OutboxNotificationListener.
+ */
+public record AccountsChangedEvent(Integer userId) {
+}
@@ -0,0 +1,8 @@
+package com.mandyk.expense.event;
+
+/**
+ * Published by CategoryService when a user's categories are created or deleted, and on the
+ * other instances by OutboxNotificationListener.
+ */
+public record CategoriesChangedEvent(Integer userId) {
+}
@@ -0,0 +1,8 @@
+package com.mandyk.expense.event;
+
+/**
+ * Published by TransactionService whenever a user's transactions are created or deleted.
+ * Listeners that keep derived data (caches) react after the writing transaction commits.
+ */
+public record TransactionsChangedEvent(Integer userId) {
+}
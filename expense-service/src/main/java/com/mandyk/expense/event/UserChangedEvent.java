@@ -0,0 +1,7 @@
+package com.mandyk.expense.event;
+
+/**
+ * Published by UserService when a profile is updated, or the user is deleted.
+ */
+public record UserChangedEvent(Integer userId, boolean deleted) {
+}
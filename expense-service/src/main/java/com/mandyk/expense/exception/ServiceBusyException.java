@@ -0,0 +1,8 @@
+package com.mandyk.expense.exception;
+
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
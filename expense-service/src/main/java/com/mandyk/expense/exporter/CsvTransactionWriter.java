@@ -0,0 +1,65 @@
+package com.mandyk.expense.exporter;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV with a header row. Fields are quoted only when they contain a
+ * delimiter, quote or line break.
+ */
+public class CsvTransactionWriter implements TransactionExportWriter {
+
+    static final String HEADER = "id,date,type,amount,account_id,category_id,description,created_at";
+
+    private final Writer writer;
+
+    public CsvTransactionWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(TransactionResponseDTO row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(row.getTransactionDate().toString());
+        writer.write(',');
+        writer.write(row.getTransactionType().name());
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writer.write(String.valueOf(row.getAccountId()));
+        writer.write(',');
+        if (row.getCategoryId() != null) {
+            writer.write(String.valueOf(row.getCategoryId()));
+        }
+        writer.write(',');
+        writeQuoted(row.getDescription());
+        writer.write(',');
+        if (row.getCreatedAt() != null) {
+            writer.write(row.getCreatedAt().toString());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,39 @@
+package com.mandyk.expense.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Newline-delimited JSON: one {@link TransactionResponseDTO} object per line, in the
+ * same shape the paged endpoints return.
+ */
+public class NdjsonTransactionWriter implements TransactionExportWriter {
+
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    public NdjsonTransactionWriter(ObjectMapper objectMapper, Writer writer) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(TransactionResponseDTO row) throws IOException {
+        // A generator per row keeps Jackson from closing the shared writer or
+        // inserting its own root-value separators
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        objectMapper.writeValue(generator, row);
+        writer.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
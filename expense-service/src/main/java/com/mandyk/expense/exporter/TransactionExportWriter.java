@@ -0,0 +1,19 @@
+package com.mandyk.expense.exporter;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+
+import java.io.IOException;
+
+/**
+ * Writes exported transactions one row at a time; nothing is retained between rows,
+ * so memory use does not depend on how much history is exported.
+ */
+public interface TransactionExportWriter {
+
+    void write(TransactionResponseDTO row) throws IOException;
+
+    /**
+     * Flushes buffered output without closing the underlying stream.
+     */
+    void flush() throws IOException;
+}
@@ -0,0 +1,24 @@
+package com.mandyk.expense.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+public final class TransactionExportWriters {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private TransactionExportWriters() {}
+
+    public static TransactionExportWriter open(ExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return switch (format) {
+            case CSV -> new CsvTransactionWriter(writer);
+            case NDJSON -> new NdjsonTransactionWriter(objectMapper, writer);
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package com.mandyk.expense.importer;
+
+import com.mandyk.expense.entity.TransactionType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses RFC 4180 style CSV with a header row. Required columns are {@code date}
+ * and {@code amount}; {@code description}, {@code type} and {@code category} are
+ * optional. Without a type column the sign of the amount decides income vs expense.
+ * A record longer than {@code maxRecordLength} characters is skipped and reported
+ * as an invalid row rather than buffered.
+ */
+public class CsvStatementParser implements StatementParser {
+
+    private final BufferedReader reader;
+    private final int maxRecordLength;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private boolean overlong;
+
+    public CsvStatementParser(BufferedReader reader, int maxRecordLength) throws IOException {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+        readHeader();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("Statement is empty");
+        }
+        if (overlong) {
+            throw new IllegalArgumentException("CSV header is longer than " + maxRecordLength + " characters");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("date") || !columns.containsKey("amount")) {
+            throw new IllegalArgumentException("CSV header must contain 'date' and 'amount' columns");
+        }
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (!overlong && record.size() == 1 && record.get(0).isBlank());
+
+        long row = lineNumber;
+        if (overlong) {
+            return StatementRow.invalid(row, "Record is longer than " + maxRecordLength + " characters");
+        }
+        try {
+            LocalDateTime date = parseDate(value(record, "date"));
+            BigDecimal signed = new BigDecimal(value(record, "amount").trim());
+
+            String typeValue = value(record, "type");
+            TransactionType type = typeValue == null || typeValue.isBlank()
+                    ? (signed.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                    : TransactionType.valueOf(typeValue.trim().toUpperCase(Locale.ROOT));
+
+            String categoryValue = value(record, "category");
+            Integer categoryId = categoryValue == null || categoryValue.isBlank()
+                    ? null : Integer.valueOf(categoryValue.trim());
+
+            return StatementRow.of(row, date, signed.abs(), type, value(record, "description"), categoryId);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            return StatementRow.invalid(row, "Unreadable value: " + ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            return StatementRow.invalid(row, ex.getMessage());
+        }
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            if ("date".equals(column) || "amount".equals(column)) {
+                throw new IllegalArgumentException("Missing " + column);
+            }
+            return null;
+        }
+        return record.get(index);
+    }
+
+    static LocalDateTime parseDate(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() == 10) {
+            return LocalDate.parse(trimmed).atStartOfDay();
+        }
+        return LocalDateTime.parse(trimmed);
+    }
+
+    // Reads one logical record; quoted fields may contain commas, quotes ("") and line breaks.
+    // Past maxRecordLength the rest of the record is still consumed but nothing is kept.
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        lineNumber++;
+        overlong = false;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = 0;
+
+        for (; c != -1; c = reader.read()) {
+            boolean lineBreak = c == '\n' || c == '\r';
+            if (lineBreak) {
+                skipLineFeedAfter(c);
+                if (!quoted) {
+                    break;
+                }
+                lineNumber++;
+            }
+            if (++length > maxRecordLength) {
+                overlong = true;
+                fields.clear();
+                field.setLength(0);
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        reader.read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(lineBreak ? '\n' : (char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Treats \r\n as one line break
+    private void skipLineFeedAfter(int c) throws IOException {
+        if (c == '\r' && peek() == '\n') {
+            reader.read();
+        }
+    }
+
+    private int peek() throws IOException {
+        reader.mark(1);
+        int c = reader.read();
+        reader.reset();
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
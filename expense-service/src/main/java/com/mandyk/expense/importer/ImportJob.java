@@ -0,0 +1,114 @@
+package com.mandyk.expense.importer;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one statement import. Counters are updated by the import worker
+ * and read concurrently by the status endpoint.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public static class RowError {
+
+        private final long row;
+        private final String message;
+
+        @JsonCreator
+        public RowError(@JsonProperty("row") long row, @JsonProperty("message") String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getMessage() { return message; }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Integer userId;
+    private final Integer accountId;
+    private final StatementFormat format;
+    private final String filename;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String failureMessage;
+    private volatile LocalDateTime finishedAt;
+
+    public ImportJob(Integer userId, Integer accountId, StatementFormat format, String filename, int maxErrors) {
+        this.userId = userId;
+        this.accountId = accountId;
+        this.format = format;
+        this.filename = filename;
+        this.maxErrors = maxErrors;
+    }
+
+    public void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    public void markCompleted() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void markFailed(String message) {
+        failureMessage = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowsImported(int count) {
+        rowsImported.addAndGet(count);
+    }
+
+    // Only the first maxErrors messages are kept; the rejected count stays exact
+    public void reject(long row, String message) {
+        rowsRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() { return id; }
+    public Integer getUserId() { return userId; }
+    public Integer getAccountId() { return accountId; }
+    public StatementFormat getFormat() { return format; }
+    public String getFilename() { return filename; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public Status getStatus() { return status; }
+    public String getFailureMessage() { return failureMessage; }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getRowsImported() { return rowsImported.get(); }
+    public long getRowsRejected() { return rowsRejected.get(); }
+}
@@ -0,0 +1,143 @@
+package com.mandyk.expense.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.ImportJobDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Import jobs, kept in the import_jobs table so any instance can answer a status poll,
+ * also after the worker's instance restarted. The worker counts on its in-memory
+ * ImportJob; this instance writes those counters back every progress interval and when
+ * the job finishes, and serves its own jobs from memory. A job nobody has written for
+ * stale-after lost its instance and is reported as failed. Finished jobs are kept for
+ * the configured retention so clients can read the final report, then dropped.
+ */
+@Component
+public class ImportJobRegistry {
+
+    private static final TypeReference<List<ImportJob.RowError>> ERRORS = new TypeReference<>() {};
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration staleAfter;
+
+    public ImportJobRegistry(JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${import.job-retention:PT24H}") Duration retention,
+                             @Value("${import.stale-after:PT2M}") Duration staleAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.staleAfter = staleAfter;
+    }
+
+    public void register(ImportJob job) {
+        evictExpired();
+        jdbcTemplate.update("""
+                insert into import_jobs (id, user_id, account_id, format, filename, status, rows_read,
+                    rows_imported, rows_rejected, errors, created_at, updated_at)
+                values (?, ?, ?, ?, ?, ?, 0, 0, 0, '[]', ?, ?)
+                """,
+                job.getId(), job.getUserId(), job.getAccountId(), job.getFormat().name(), job.getFilename(),
+                job.getStatus().name(), Timestamp.valueOf(job.getCreatedAt()), Timestamp.valueOf(LocalDateTime.now()));
+        jobs.put(job.getId(), job);
+    }
+
+    // Writes the job's current counters; once the finished state is stored, an older
+    // snapshot (a progress write racing the worker) no longer matches
+    public void save(ImportJob job) {
+        jdbcTemplate.update("""
+                update import_jobs set status = ?, rows_read = ?, rows_imported = ?, rows_rejected = ?,
+                    failure_message = ?, errors = ?, updated_at = ?, finished_at = ?
+                where id = ? and finished_at is null
+                """,
+                job.getStatus().name(), job.getRowsRead(), job.getRowsImported(), job.getRowsRejected(),
+                job.getFailureMessage(), toJson(job.getErrors()), Timestamp.valueOf(LocalDateTime.now()),
+                job.getFinishedAt() == null ? null : Timestamp.valueOf(job.getFinishedAt()), job.getId());
+    }
+
+    // Also repeats the final write of recently finished jobs, in case the worker's own write failed
+    @Scheduled(fixedDelayString = "${import.progress-interval:PT10S}")
+    public void saveProgress() {
+        LocalDateTime recent = LocalDateTime.now().minus(staleAfter);
+        for (ImportJob job : jobs.values()) {
+            if (!job.isFinished() || job.getFinishedAt().isAfter(recent)) {
+                save(job);
+            }
+        }
+    }
+
+    public Optional<ImportJobDTO> find(String jobId, Integer userId) {
+        ImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.getUserId().equals(userId) ? Optional.of(ImportJobDTO.from(job)) : Optional.empty();
+        }
+        return jdbcTemplate.query("select * from import_jobs where id = ? and user_id = ?",
+                this::toDto, jobId, userId).stream().findFirst();
+    }
+
+    private ImportJobDTO toDto(ResultSet rs, int rowNum) throws SQLException {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(rs.getString("id"));
+        dto.setStatus(rs.getString("status"));
+        dto.setFormat(rs.getString("format"));
+        dto.setFilename(rs.getString("filename"));
+        dto.setAccountId(rs.getInt("account_id"));
+        dto.setRowsRead(rs.getLong("rows_read"));
+        dto.setRowsImported(rs.getLong("rows_imported"));
+        dto.setRowsRejected(rs.getLong("rows_rejected"));
+        dto.setFailureMessage(rs.getString("failure_message"));
+        dto.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        dto.setFinishedAt(finishedAt == null ? null : finishedAt.toLocalDateTime());
+        dto.setErrors(fromJson(rs.getString("errors")));
+
+        LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+        if (finishedAt == null && updatedAt.isBefore(LocalDateTime.now().minus(staleAfter))) {
+            dto.setStatus(ImportJob.Status.FAILED.name());
+            dto.setFailureMessage("Import was interrupted, upload the statement again");
+        }
+        return dto;
+    }
+
+    private String toJson(List<ImportJob.RowError> errors) {
+        try {
+            return objectMapper.writeValueAsString(errors);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException("Could not serialize import errors", ex);
+        }
+    }
+
+    private List<ImportJob.RowError> fromJson(String errors) {
+        try {
+            return objectMapper.readValue(errors, ERRORS);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException("Could not read import errors", ex);
+        }
+    }
+
+    private void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        jdbcTemplate.update("delete from import_jobs where coalesce(finished_at, updated_at) < ?",
+                Timestamp.valueOf(cutoff));
+    }
+}
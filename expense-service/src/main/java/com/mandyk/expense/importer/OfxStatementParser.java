@@ -0,0 +1,173 @@
+package com.mandyk.expense.importer;
+
+import com.mandyk.expense.entity.TransactionType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pulls {@code <STMTTRN>} blocks out of an OFX document with a forward-only tag
+ * scanner. Works for both SGML (OFX 1.x, unclosed leaf tags) and XML (OFX 2.x)
+ * files; nothing outside the current transaction block is retained, and a block
+ * longer than {@code maxRecordLength} characters is reported as an invalid row.
+ */
+public class OfxStatementParser implements StatementParser {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private long transactionNumber;
+    private int pushback = -1;
+
+    public OfxStatementParser(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public StatementRow next() throws IOException {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if ("STMTTRN".equals(tag)) {
+                return readTransaction();
+            }
+        }
+        return null;
+    }
+
+    private StatementRow readTransaction() throws IOException {
+        long row = ++transactionNumber;
+        Map<String, String> fields = new HashMap<>();
+        int length = 0;
+
+        String tag;
+        while ((tag = nextTag()) != null && !"/STMTTRN".equals(tag)) {
+            length += tag.length();
+            if (!tag.startsWith("/")) {
+                String text = readText(Math.max(0, maxRecordLength - length));
+                length = text == null ? maxRecordLength + 1 : length + text.length();
+                if (text != null && !text.isBlank()) {
+                    fields.put(tag, text.trim());
+                }
+            }
+            if (length > maxRecordLength) {
+                // keep scanning to </STMTTRN> so the next block still parses
+                fields.clear();
+            }
+        }
+        if (length > maxRecordLength) {
+            return StatementRow.invalid(row, "Transaction is longer than " + maxRecordLength + " characters");
+        }
+
+        try {
+            String posted = fields.get("DTPOSTED");
+            String amount = fields.get("TRNAMT");
+            if (posted == null || amount == null) {
+                return StatementRow.invalid(row, "Transaction is missing DTPOSTED or TRNAMT");
+            }
+            BigDecimal signed = new BigDecimal(amount.replace(',', '.'));
+            TransactionType type = signed.signum() < 0 ? TransactionType.EXPENSE : TransactionType.INCOME;
+
+            String description = fields.getOrDefault("NAME", fields.get("PAYEE"));
+            String memo = fields.get("MEMO");
+            if (memo != null && !memo.equals(description)) {
+                description = description == null ? memo : description + " - " + memo;
+            }
+
+            return StatementRow.of(row, parseDate(posted), signed.abs(), type, description, null);
+        } catch (NumberFormatException | DateTimeException ex) {
+            // DateTimeException also covers a month or day out of range; one bad row never fails the import
+            return StatementRow.invalid(row, "Unreadable value: " + ex.getMessage());
+        }
+    }
+
+    // OFX dates are YYYYMMDD[HHMMSS[.XXX]][[offset:TZ]]; the timezone suffix is ignored
+    static LocalDateTime parseDate(String value) {
+        int length = 0;
+        while (length < value.length() && length < 14 && Character.isDigit(value.charAt(length))) {
+            length++;
+        }
+        if (length < 8) {
+            throw new DateTimeException("DTPOSTED '" + value + "' does not start with YYYYMMDD");
+        }
+        String digits = value.substring(0, length >= 14 ? 14 : 8);
+        LocalDate date = LocalDate.of(
+                Integer.parseInt(digits.substring(0, 4)),
+                Integer.parseInt(digits.substring(4, 6)),
+                Integer.parseInt(digits.substring(6, 8)));
+        if (digits.length() < 14) {
+            return date.atStartOfDay();
+        }
+        return date.atTime(
+                Integer.parseInt(digits.substring(8, 10)),
+                Integer.parseInt(digits.substring(10, 12)),
+                Integer.parseInt(digits.substring(12, 14)));
+    }
+
+    // Returns the next tag name (upper case, "/" prefix for closing tags), or null at EOF
+    private String nextTag() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip text between tags
+        }
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder name = new StringBuilder();
+        while ((c = read()) != -1 && c != '>') {
+            if (name.length() == maxRecordLength) {
+                throw new IOException("Malformed OFX: tag longer than " + maxRecordLength + " characters");
+            }
+            name.append((char) c);
+        }
+        return name.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    // Text content up to (not including) the next '<', or null (the text skipped) when it exceeds limit
+    private String readText(int limit) throws IOException {
+        StringBuilder text = new StringBuilder();
+        boolean overlong = false;
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            if (text.length() == limit) {
+                overlong = true;
+                text.setLength(0);
+            }
+            if (!overlong) {
+                text.append((char) c);
+            }
+        }
+        if (c == '<') {
+            pushback = c;
+        }
+        return overlong ? null : decode(text.toString());
+    }
+
+    private int read() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static String decode(String text) {
+        if (text.indexOf('&') < 0) {
+            return text;
+        }
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
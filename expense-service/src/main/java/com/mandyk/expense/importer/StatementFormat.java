@@ -0,0 +1,29 @@
+package com.mandyk.expense.importer;
+
+import java.util.Locale;
+
+public enum StatementFormat {
+
+    CSV, OFX;
+
+    // Falls back to the file extension when the client does not name a format
+    public static StatementFormat resolve(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported statement format: " + format);
+            }
+        }
+        if (filename != null) {
+            String lower = filename.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+                return OFX;
+            }
+        }
+        throw new IllegalArgumentException("Statement format could not be determined");
+    }
+}
@@ -0,0 +1,16 @@
+package com.mandyk.expense.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a statement one row at a time so that arbitrarily large files can be
+ * imported without holding them in memory.
+ */
+public interface StatementParser extends Closeable {
+
+    /**
+     * @return the next row, or {@code null} once the input is exhausted
+     */
+    StatementRow next() throws IOException;
+}
@@ -0,0 +1,21 @@
+package com.mandyk.expense.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+public final class StatementParsers {
+
+    private StatementParsers() {}
+
+    public static StatementParser open(StatementFormat format, InputStream in, int maxRecordLength)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return switch (format) {
+            case CSV -> new CsvStatementParser(reader, maxRecordLength);
+            case OFX -> new OfxStatementParser(reader, maxRecordLength);
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.mandyk.expense.importer;
+
+import com.mandyk.expense.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry read from a bank statement. A row either carries parsed values or,
+ * when the source could not be read, an error describing why it was skipped.
+ */
+public class StatementRow {
+
+    private final long rowNumber;
+    private final LocalDateTime transactionDate;
+    private final BigDecimal amount;
+    private final TransactionType transactionType;
+    private final String description;
+    private final Integer categoryId;
+    private final String error;
+
+    private StatementRow(long rowNumber, LocalDateTime transactionDate, BigDecimal amount,
+                         TransactionType transactionType, String description, Integer categoryId, String error) {
+        this.rowNumber = rowNumber;
+        this.transactionDate = transactionDate;
+        this.amount = amount;
+        this.transactionType = transactionType;
+        this.description = description;
+        this.categoryId = categoryId;
+        this.error = error;
+    }
+
+    public static StatementRow of(long rowNumber, LocalDateTime transactionDate, BigDecimal amount,
+                                  TransactionType transactionType, String description, Integer categoryId) {
+        return new StatementRow(rowNumber, transactionDate, amount, transactionType, description, categoryId, null);
+    }
+
+    public static StatementRow invalid(long rowNumber, String error) {
+        return new StatementRow(rowNumber, null, null, null, null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
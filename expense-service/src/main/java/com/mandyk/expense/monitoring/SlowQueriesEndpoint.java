@@ -0,0 +1,34 @@
+package com.mandyk.expense.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the slowest statements kept, slowest first.
+ * DELETE empties the list, e.g. before a load test run.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private SlowQueryRecorder recorder;
+
+    public SlowQueriesEndpoint(SlowQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public SlowQueriesReport slowQueries() {
+        return new SlowQueriesReport(recorder.threshold().toMillis(), recorder.capacity(), recorder.recorded(),
+                recorder.slowest());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+
+    public record SlowQueriesReport(long thresholdMs, int capacity, long recorded, List<SlowQuery> statements) {}
+}
@@ -0,0 +1,9 @@
+package com.mandyk.expense.monitoring;
+
+import java.time.Instant;
+
+/**
+ * One statement that took longer than the slow-query threshold. {@code sql} is the
+ * statement as prepared, so bind values never appear in it.
+ */
+public record SlowQuery(String sql, double durationMs, Instant executedAt, String thread) {}
@@ -0,0 +1,99 @@
+package com.mandyk.expense.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the pool so every statement execution is timed and handed to the
+ * {@link SlowQueryRecorder}. Only connections and statements are proxied; result sets and
+ * everything else are the driver's own objects, and {@code unwrap} still reaches them.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private Supplier<SlowQueryRecorder> recorderLookup;
+    private volatile SlowQueryRecorder recorder;
+
+    /**
+     * @param recorder looked up on first use, since the pool is created (and used by
+     *                 Flyway) before most other beans
+     */
+    public SlowQueryDataSource(DataSource target, Supplier<SlowQueryRecorder> recorder) {
+        super(target);
+        this.recorderLookup = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    // This replaces the pool's bean, so it closes the pool along with it
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                        // prepareStatement / prepareCall: the SQL is known now
+                        return timed(statement, method.getReturnType(), (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return timed(statement, method.getReturnType(), null);
+                    }
+                    return result;
+                });
+    }
+
+    private Object timed(Statement statement, Class<?> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql : (args != null && args.length > 0 ? (String) args[0] : null);
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                recorder().record(sql, System.nanoTime() - start);
+            }
+        };
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private SlowQueryRecorder recorder() {
+        SlowQueryRecorder current = recorder;
+        if (current == null) {
+            current = recorderLookup.get();
+            recorder = current;
+        }
+        return current;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
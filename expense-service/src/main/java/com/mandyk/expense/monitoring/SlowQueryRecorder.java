@@ -0,0 +1,105 @@
+package com.mandyk.expense.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the {@code capacity} slowest statements over the threshold in a min-heap on
+ * duration, so a full recorder drops its fastest entry for a slower statement. Statements
+ * under the threshold, or no slower than everything kept once it is full, return after
+ * one comparison; only the rest take the lock.
+ */
+public class SlowQueryRecorder {
+
+    private static final int MAX_SQL_LENGTH = 4000;
+
+    private long thresholdNanos;
+    private int capacity;
+    private PriorityQueue<SlowQuery> heap;
+    private Counter slowStatements;
+
+    // once the heap is full, the duration of its fastest statement: nothing at or under it
+    // gets in. -1 while there is room
+    private volatile long floorNanos = -1;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public SlowQueryRecorder(Duration threshold, int capacity, MeterRegistry meterRegistry) {
+        if (threshold.isNegative()) {
+            throw new IllegalArgumentException("slow-queries.threshold must not be negative");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("slow-queries.capacity must be at least 1");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.heap = new PriorityQueue<>(capacity, Comparator.comparingDouble(SlowQuery::durationMs));
+        this.slowStatements = Counter.builder("jdbc.statements.slow")
+                .description("Statements that took longer than slow-queries.threshold")
+                .register(meterRegistry);
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        slowStatements.increment();
+        recorded.incrementAndGet();
+        if (elapsedNanos <= floorNanos) {
+            return;
+        }
+        String statement = sql == null ? "(batch)" : truncate(sql);
+        SlowQuery query = new SlowQuery(statement, elapsedNanos / 1_000_000.0, Instant.now(), Thread.currentThread().getName());
+        synchronized (this) {
+            if (heap.size() == capacity) {
+                if (query.durationMs() <= heap.peek().durationMs()) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(query);
+            if (heap.size() == capacity) {
+                // rounded down, so the unlocked check never drops what this one would keep
+                floorNanos = (long) Math.floor(heap.peek().durationMs() * 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * @return the kept statements, slowest first
+     */
+    public synchronized List<SlowQuery> slowest() {
+        List<SlowQuery> queries = new ArrayList<>(heap);
+        queries.sort(Comparator.comparingDouble(SlowQuery::durationMs).reversed());
+        return queries;
+    }
+
+    // slow statements seen since startup, including those not kept
+    public long recorded() {
+        return recorded.get();
+    }
+
+    public synchronized void clear() {
+        heap.clear();
+        floorNanos = -1;
+    }
+
+    public Duration threshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
@@ -0,0 +1,48 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Appends each message as one JSON line; a local stand-in for a message broker
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private ObjectMapper objectMapper;
+    private Path path;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${outbox.sinks.file.path}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : messages) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to " + path, ex);
+        }
+    }
+}
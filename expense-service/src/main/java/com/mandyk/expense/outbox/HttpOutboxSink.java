@@ -0,0 +1,46 @@
+package com.mandyk.expense.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+// POSTs each batch as a JSON array; any non-2xx response fails the batch
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.http.url")
+public class HttpOutboxSink implements OutboxSink {
+
+    private RestClient restClient;
+
+    public HttpOutboxSink(RestClient.Builder builder,
+                          @Value("${outbox.sinks.http.url}") String url,
+                          @Value("${outbox.sinks.http.timeout:PT5S}") Duration timeout) {
+        // the relay holds its row locks while this call runs, so it must not hang
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder
+                .baseUrl(url)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(messages)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
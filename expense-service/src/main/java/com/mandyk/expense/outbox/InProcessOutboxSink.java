@@ -0,0 +1,32 @@
+package com.mandyk.expense.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Re-publishes each message as an application event. Listeners run on the relay thread,
+// so they must hand anything slow off to their own executor. Only the instance whose relay
+// claimed the batch sees it, so with more than one instance the notify sink replaces this.
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.in-process.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnProperty(name = "outbox.sinks.notify.enabled", havingValue = "false", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        messages.forEach(eventPublisher::publishEvent);
+    }
+}
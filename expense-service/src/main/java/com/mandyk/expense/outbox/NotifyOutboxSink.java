@@ -0,0 +1,46 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Sends each message with pg_notify inside the relay's transaction, so Postgres hands it to
+// the OutboxNotificationListener of every instance once the batch commits, and drops it if
+// the batch rolls back. Postgres caps a notification at 8000 bytes; transaction events are
+// far below that.
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.notify.enabled", havingValue = "true")
+public class NotifyOutboxSink implements OutboxSink {
+
+    static final String CHANNEL = "outbox_events";
+
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
+
+    public NotifyOutboxSink(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "notify";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        String batch;
+        try {
+            batch = objectMapper.writeValueAsString(messages);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException("Could not serialize outbox batch", ex);
+        }
+        // one round trip per batch: a notification per array element, in order
+        jdbcTemplate.queryForList("select pg_notify(?, m::text) from json_array_elements(?::json) m", CHANNEL, batch);
+    }
+}
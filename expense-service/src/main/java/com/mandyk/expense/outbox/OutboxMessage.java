@@ -0,0 +1,25 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.entity.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the sinks receive for one outbox row. Delivery is at least once, so consumers
+ * should ignore ids they have already processed.
+ */
+public record OutboxMessage(Long id,
+                            OutboxEventType type,
+                            Integer userId,
+                            Integer accountId,
+                            Integer transactionId,
+                            LocalDateTime createdAt,
+                            @JsonRawValue String payload) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getUserId(), event.getAccountId(),
+                event.getTransactionId(), event.getCreatedAt(), event.getPayload());
+    }
+}
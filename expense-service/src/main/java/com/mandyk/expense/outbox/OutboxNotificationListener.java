@@ -0,0 +1,158 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.service.OwnershipCache;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Receives what NotifyOutboxSink sends, on every instance including the one whose relay
+ * claimed the batch, and re-publishes each message as an application event the way
+ * InProcessOutboxSink does. That way live-update subscribers see every event whichever
+ * instance they are connected to. On the same connection it hears OwnershipCache's
+ * invalidations and re-publishes them as AccountsChangedEvent or CategoriesChangedEvent,
+ * so every instance drops its cached ownership and account/category lists.
+ * <p>
+ * LISTEN needs a connection for as long as the instance runs, so it opens its own to the
+ * primary instead of taking one from the pool, where it would also hold one of the
+ * server.concurrency permits for good. When it fails the listener reconnects after a pause; messages sent in between are missed, as with a dropped SSE connection, and
+ * clients refetch when they reconnect.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.notify.enabled", havingValue = "true")
+public class OutboxNotificationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxNotificationListener.class);
+
+    private static final int POLL_MILLIS = 1000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private DataSourceProperties dataSourceProperties;
+    private ObjectMapper objectMapper;
+    private ApplicationEventPublisher eventPublisher;
+    // keeps numbers in the payload exactly as written, e.g. an amount of 12.50
+    private ObjectReader treeReader;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public OutboxNotificationListener(DataSourceProperties dataSourceProperties,
+                                      ObjectMapper objectMapper,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.treeReader = objectMapper.reader(JsonNodeFactory.withExactBigDecimals(true))
+                .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "outbox-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(2 * POLL_MILLIS);
+        }
+    }
+
+    private void listen() {
+
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + NotifyOutboxSink.CHANNEL);
+                    statement.execute("LISTEN " + OwnershipCache.CHANNEL);
+                }
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox listener lost its connection, reconnecting in {}: {}", RECONNECT_DELAY, ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications(POLL_MILLIS);
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                if (OwnershipCache.CHANNEL.equals(notification.getName())) {
+                    dispatchOwnershipChange(notification.getParameter());
+                } else {
+                    dispatch(notification.getParameter());
+                }
+            }
+        }
+    }
+
+    void dispatch(String json) {
+        try {
+            ObjectNode node = (ObjectNode) treeReader.readTree(json);
+            // the payload was written as raw JSON (@JsonRawValue); the record holds it as text
+            JsonNode payload = node.get("payload");
+            if (payload != null && !payload.isNull()) {
+                node.put("payload", payload.toString());
+            }
+            eventPublisher.publishEvent(objectMapper.treeToValue(node, OutboxMessage.class));
+        } catch (JsonProcessingException | ClassCastException ex) {
+            log.warn("Ignoring unreadable outbox notification: {}", ex.getMessage());
+        }
+    }
+
+    // "accounts:<userId>" or "categories:<userId>"
+    void dispatchOwnershipChange(String change) {
+        int separator = change.indexOf(':');
+        try {
+            Integer userId = Integer.valueOf(change.substring(separator + 1));
+            switch (change.substring(0, Math.max(separator, 0))) {
+                case OwnershipCache.ACCOUNTS -> eventPublisher.publishEvent(new AccountsChangedEvent(userId));
+                case OwnershipCache.CATEGORIES -> eventPublisher.publishEvent(new CategoriesChangedEvent(userId));
+                default -> log.warn("Ignoring unknown ownership change: {}", change);
+            }
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring unreadable ownership change: {}", change);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.mandyk.expense.outbox;
+
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the outbox and hands unpublished rows to every {@link OutboxSink}, a batch at a
+ * time. Each batch is locked with SKIP LOCKED, so several instances can relay side by
+ * side without delivering the same batch concurrently. A batch is marked published only
+ * after all sinks accepted it; otherwise it rolls back and is retried on the next poll.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private OutboxEventRepository outboxEventRepository;
+    private List<OutboxSink> sinks;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private int batchSize;
+    private int maxBatchesPerPoll;
+    private Duration retention;
+
+    private Timer batchTimer;
+    private volatile LocalDateTime oldestUnpublished;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-poll:50}") int maxBatchesPerPoll,
+                       @Value("${outbox.retention:P7D}") Duration retention) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("outbox.relay.batch-size must be at least 1");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.retention = retention;
+
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, deliver and mark one outbox batch")
+                .register(meterRegistry);
+        // age of the oldest row still waiting; keeps growing while the relay is stuck
+        TimeGauge.builder("outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::lagMillis)
+                .description("Age of the oldest unpublished outbox row")
+                .register(meterRegistry);
+
+        if (sinks.isEmpty()) {
+            log.warn("No outbox sinks configured; outbox rows will accumulate until one is");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:PT1S}")
+    public void relay() {
+
+        if (sinks.isEmpty()) {
+            return;
+        }
+        try {
+            // keep draining while batches come back full, bounded so one poll cannot run forever
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+            oldestUnpublished = outboxEventRepository.findOldestUnpublishedCreatedAt();
+        } catch (DataAccessException ex) {
+            meterRegistry.counter("outbox.relay.failures", "sink", "database").increment();
+            log.warn("Outbox relay failed: {}", ex.getMessage());
+        }
+    }
+
+    // Returns the number of rows delivered; 0 when the outbox is empty or a sink failed
+    int relayBatch() {
+
+        Integer delivered = batchTimer.record(() -> transactionTemplate.execute(status -> {
+
+            List<OutboxEvent> events = outboxEventRepository.lockUnpublished(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            List<OutboxMessage> messages = events.stream().map(OutboxMessage::from).toList();
+
+            for (OutboxSink sink : sinks) {
+                try {
+                    sink.publish(messages);
+                } catch (RuntimeException ex) {
+                    meterRegistry.counter("outbox.relay.failures", "sink", sink.name()).increment();
+                    log.warn("Outbox sink {} failed, {} rows will be retried: {}",
+                            sink.name(), messages.size(), ex.getMessage());
+                    status.setRollbackOnly();
+                    return 0;
+                }
+                meterRegistry.counter("outbox.relay.published", "sink", sink.name()).increment(messages.size());
+            }
+
+            outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+            return events.size();
+        }));
+
+        return delivered == null ? 0 : delivered;
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 15 4 * * *}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.info("Purged {} published outbox rows", deleted);
+    }
+
+    double lagMillis() {
+        LocalDateTime oldest = oldestUnpublished;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+}
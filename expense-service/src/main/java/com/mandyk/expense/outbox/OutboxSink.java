@@ -0,0 +1,20 @@
+package com.mandyk.expense.outbox;
+
+import java.util.List;
+
+/**
+ * A destination for outbox messages. Every sink bean is picked up by OutboxRelay.
+ */
+public interface OutboxSink {
+
+    /**
+     * @return short name used in logs and as the {@code sink} metric tag
+     */
+    String name();
+
+    /**
+     * Delivers one batch, oldest first. Throwing leaves the whole batch unpublished, so it
+     * is offered again (to every sink) on the next poll.
+     */
+    void publish(List<OutboxMessage> messages);
+}
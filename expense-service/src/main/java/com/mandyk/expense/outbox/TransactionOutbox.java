@@ -0,0 +1,65 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records ledger changes in the outbox table. Rows are written in the caller's
+ * transaction, so they commit (or roll back) together with the change itself;
+ * OutboxRelay delivers them afterwards, off the request path.
+ */
+@Component
+public class TransactionOutbox {
+
+    private OutboxEventRepository outboxEventRepository;
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+
+    public TransactionOutbox(OutboxEventRepository outboxEventRepository,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, List<TransactionResponseDTO> transactions) {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(transactions.size());
+        for (TransactionResponseDTO transaction : transactions) {
+            OutboxEvent event = new OutboxEvent();
+            event.setEventType(type);
+            event.setUserId(transaction.getUserId());
+            event.setAccountId(transaction.getAccountId());
+            event.setTransactionId(transaction.getId());
+            event.setPayload(toJson(transaction));
+            event.setCreatedAt(now);
+            events.add(event);
+        }
+
+        outboxEventRepository.saveAll(events);
+        meterRegistry.counter("outbox.events.written", "type", type.name()).increment(events.size());
+    }
+
+    private String toJson(TransactionResponseDTO transaction) {
+        try {
+            return objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize transaction " + transaction.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mandyk.expense.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The configured replicas and what decides between them and the primary for a read: the
+ * lag each replica last reported, and which users wrote recently enough that a replica
+ * may not have replayed their change yet.
+ */
+public class ReadReplicas implements AutoCloseable {
+
+    public enum Route {
+        REPLICA,
+        // the user wrote within the read-your-writes window
+        READ_YOUR_WRITES,
+        // every replica is unreachable or further behind than max-lag
+        NO_REPLICA_AVAILABLE
+    }
+
+    private List<ReplicaNode> nodes;
+    private Duration maxLag;
+
+    // entries expire after the read-your-writes window, which also bounds the size
+    private Cache<Integer, Boolean> recentWriters;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    public ReadReplicas(List<ReplicaNode> nodes, Duration maxLag, Duration readYourWrites, Ticker ticker) {
+        this.nodes = List.copyOf(nodes);
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .ticker(ticker)
+                .build();
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+    }
+
+    /**
+     * Picks the replica for a read by the given user, taking turns among those within
+     * max-lag.
+     *
+     * @param userId the authenticated user, or null when there is none
+     * @param clientWroteRecently whether the client's read-your-writes cookie is within the
+     *                            window, for writes another instance handled
+     * @return the replica to read from, or null when the read belongs on the primary
+     */
+    public ReplicaNode route(Integer userId, boolean clientWroteRecently) {
+        if (clientWroteRecently || userId != null && recentWriters.getIfPresent(userId) != null) {
+            routed.get(Route.READ_YOUR_WRITES).increment();
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaNode node = nodes.get((start + i) % nodes.size());
+            if (node.isWithin(maxLag)) {
+                routed.get(Route.REPLICA).increment();
+                return node;
+            }
+        }
+        routed.get(Route.NO_REPLICA_AVAILABLE).increment();
+        return null;
+    }
+
+    // The user's reads go to the primary until the window has passed since their last write
+    public void recordWrite(Integer userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    // Taken out of rotation until the lag monitor reaches it again
+    public void markUnreachable(ReplicaNode node) {
+        node.setLag(null);
+    }
+
+    public List<ReplicaNode> nodes() {
+        return nodes;
+    }
+
+    public long routed(Route route) {
+        return routed.get(route).sum();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (ReplicaNode node : nodes) {
+            if (node.getDataSource() instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+}
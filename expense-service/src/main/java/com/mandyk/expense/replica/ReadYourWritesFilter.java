@@ -0,0 +1,95 @@
+package com.mandyk.expense.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Carries read-your-writes across instances. ReadReplicas only knows the writes this
+ * instance handled, so each write request also leaves a cookie with its time. While that
+ * time is within the window, the client's reads go to the primary on whichever instance
+ * serves them. Forging the cookie only sends the sender's own reads to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "last_write";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    // set for the request thread while its client's last write is within the window
+    private static final ThreadLocal<Boolean> RECENT_WRITE = new ThreadLocal<>();
+
+    private Duration window;
+    private Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    static boolean currentClientWroteRecently() {
+        return RECENT_WRITE.get() != null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // logins and registrations change nothing the client reads back straight away
+        return !request.getRequestURI().startsWith("/api/") || request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long now = clock.millis();
+        boolean recent = wroteSince(request, now - window.toMillis());
+
+        // set up front, as the response is committed by the time the write returns; a
+        // failed write costs the client a few primary reads at most
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(now))
+                    .path("/api")
+                    .maxAge(window.plusSeconds(1).toSeconds())
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build()
+                    .toString());
+        }
+
+        if (!recent) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RECENT_WRITE.set(Boolean.TRUE);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RECENT_WRITE.remove();
+        }
+    }
+
+    private static boolean wroteSince(HttpServletRequest request, long since) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) >= since;
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mandyk.expense.replica;
+
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.event.TransactionsChangedEvent;
+import com.mandyk.expense.event.UserChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends a user's reads to the primary after they change their data. Recorded straight
+// away and again once the transaction has completed, so the window starts when the write
+// became visible rather than when it was made.
+public class ReadYourWritesListener {
+
+    private ReadReplicas replicas;
+
+    public ReadYourWritesListener(ReadReplicas replicas) {
+        this.replicas = replicas;
+    }
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @EventListener
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @EventListener
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    private void recordWrite(Integer userId) {
+        replicas.recordWrite(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    replicas.recordWrite(userId);
+                }
+            });
+        }
+    }
+}
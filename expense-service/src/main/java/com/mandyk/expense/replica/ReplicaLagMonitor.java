@@ -0,0 +1,110 @@
+package com.mandyk.expense.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each replica's replay lag on a fixed delay. A replica counts as caught up when
+ * it has replayed everything it received, otherwise as far behind as its last replayed
+ * transaction. A server that is not in recovery at all (promoted, or a plain copy) counts
+ * as caught up.
+ *
+ * Runs on its own thread rather than the scheduler, so scheduling.enabled=false does not
+ * leave the replicas unmeasured and therefore unused.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+                   END""";
+
+    private ReadReplicas replicas;
+    private int queryTimeoutSeconds;
+    private ScheduledExecutorService scheduler;
+
+    // logged once when a replica goes away and once when it is back
+    private final Set<String> unreachable = ConcurrentHashMap.newKeySet();
+
+    public ReplicaLagMonitor(ReadReplicas replicas, Duration interval, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.queryTimeoutSeconds = (int) Math.max(1, interval.toSeconds());
+
+        for (ReplicaNode node : replicas.nodes()) {
+            Gauge.builder("db.replica.lag", node, ReplicaLagMonitor::lagSeconds)
+                    .tag("replica", node.getName())
+                    .baseUnit("seconds")
+                    .description("Replay lag last measured; NaN while the replica cannot be reached")
+                    .register(meterRegistry);
+        }
+        for (ReadReplicas.Route route : ReadReplicas.Route.values()) {
+            FunctionCounter.builder("db.replica.routing", replicas, r -> r.routed(route))
+                    .tag("route", route.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .description("Read-only service transactions by where they were sent")
+                    .register(meterRegistry);
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void checkAll() {
+        for (ReplicaNode node : replicas.nodes()) {
+            check(node);
+        }
+    }
+
+    private void check(ReplicaNode node) {
+        try (Connection connection = node.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                BigDecimal seconds = rs.getBigDecimal(1);
+                // null: in recovery but nothing replayed yet
+                node.setLag(seconds == null ? null : Duration.ofNanos(seconds.movePointRight(9).longValue()));
+            }
+            if (unreachable.remove(node.getName())) {
+                log.info("Replica {} is reachable again", node.getName());
+            }
+        } catch (SQLException | RuntimeException ex) {
+            replicas.markUnreachable(node);
+            if (unreachable.add(node.getName())) {
+                log.warn("Replica {} is unreachable, its reads go to the primary: {}", node.getName(), ex.getMessage());
+            }
+        }
+    }
+
+    private static double lagSeconds(ReplicaNode node) {
+        Duration lag = node.getLag();
+        return lag == null ? Double.NaN : lag.toNanos() / 1e9;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
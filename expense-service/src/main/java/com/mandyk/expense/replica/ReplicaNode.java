@@ -0,0 +1,35 @@
+package com.mandyk.expense.replica;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * One read replica: its connection pool and the replay lag last measured by
+ * {@link ReplicaLagMonitor}.
+ */
+public class ReplicaNode {
+
+    private String name;
+    private DataSource dataSource;
+
+    // null until first measured, and while the replica cannot be reached
+    private volatile Duration lag;
+
+    public ReplicaNode(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() { return name; }
+
+    public DataSource getDataSource() { return dataSource; }
+
+    public Duration getLag() { return lag; }
+
+    void setLag(Duration lag) { this.lag = lag; }
+
+    boolean isWithin(Duration maxLag) {
+        Duration current = lag;
+        return current != null && current.compareTo(maxLag) <= 0;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mandyk.expense.replica;
+
+import com.mandyk.expense.security.AuthenticatedUser;
+import com.mandyk.expense.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Takes the place of the primary pool when read replicas are configured. A read-only
+ * transaction started by a service method ({@code @Transactional(readOnly = true)} in
+ * com.mandyk.expense.service) runs on a replica within max-lag, unless its user has just
+ * written, here or through another instance (see ReadYourWritesFilter). Everything else
+ * stays on the primary, including the read-only transactions Spring Data opens around
+ * single repository calls (the login lookup, ownership checks).
+ *
+ * The node is chosen when the transaction runs its first statement, since Spring marks the
+ * transaction read-only only after it has begun; hence the lazy connection proxy.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String SERVICE_PACKAGE = TransactionService.class.getPackageName() + ".";
+
+    private DataSource primary;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        super(new Router(primary, replicas));
+        this.primary = primary;
+        // learned from the primary now: Hibernate asks for auto-commit when it begins a
+        // transaction, and answering from a real connection would pick the node too early
+        checkDefaultConnectionProperties();
+    }
+
+    // This replaces the primary's bean, so it closes the primary pool along with it
+    @Override
+    public void close() throws Exception {
+        if (primary instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private static class Router extends AbstractDataSource {
+
+        private DataSource primary;
+        private ReadReplicas replicas;
+
+        Router(DataSource primary, ReadReplicas replicas) {
+            this.primary = primary;
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            ReplicaNode node = routesToReplica() ? replicas.route(currentUserId(), ReadYourWritesFilter.currentClientWroteRecently()) : null;
+            if (node == null) {
+                return primary.getConnection();
+            }
+            try {
+                return node.getDataSource().getConnection();
+            } catch (SQLException ex) {
+                log.warn("Replica {} is unreachable, reading from the primary: {}", node.getName(), ex.getMessage());
+                replicas.markUnreachable(node);
+                return primary.getConnection();
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+
+        private static boolean routesToReplica() {
+            String name = TransactionSynchronizationManager.getCurrentTransactionName();
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    && name != null && name.startsWith(SERVICE_PACKAGE);
+        }
+
+        private static Integer currentUserId() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                    ? user.getUserId()
+                    : null;
+        }
+    }
+}
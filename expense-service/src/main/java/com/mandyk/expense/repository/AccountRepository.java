@@ -2,8 +2,11 @@ package com.mandyk.expense.repository;
 
 import com.mandyk.expense.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +17,44 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
 
     boolean existsByNameAndUserId(String name, Integer userId);
 
+    boolean existsByIdAndUserId(Integer id, Integer userId);
+
     List<Account> findByUserId(Integer userId);
 
+    // Also proves ownership: empty when the account is not the user's
+    @Query("""
+            select a.balance from Account a
+            where a.id = :accountId
+            and a.userId = :userId
+            """)
+    Optional<BigDecimal> findBalanceByIdAndUserId(Integer accountId, Integer userId);
+
+    // Single-statement increment; the row lock serialises concurrent writers
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :delta where a.id = :accountId")
+    int adjustBalance(Integer accountId, BigDecimal delta);
+
+    // Accounts whose stored balance differs from the ledger, evaluated in one
+    // statement so both sides come from the same snapshot. The ledger includes the
+    // opening balance carried over from archived months.
+    // Columns: account id, stored balance, ledger balance
+    @Query(value = """
+            select a.id, a.balance, coalesce(l.ledger, 0) + coalesce(ab.balance, 0)
+            from account a
+            left join (
+                select t.account_id,
+                       sum(case when t.type = 'INCOME' then t.amount else -t.amount end) as ledger
+                from transactions t
+                group by t.account_id
+            ) l on l.account_id = a.id
+            left join account_archived_balance ab on ab.account_id = a.id
+            where a.balance <> coalesce(l.ledger, 0) + coalesce(ab.balance, 0)
+            order by a.id
+            """, nativeQuery = true)
+    List<Object[]> findBalanceDrift();
+
+    // Held until the surrounding transaction ends; false while another instance holds it
+    @Query(value = "select pg_try_advisory_xact_lock(hashtext('balance-reconciliation'))", nativeQuery = true)
+    boolean tryLockReconciliation();
+
 }
\ No newline at end of file
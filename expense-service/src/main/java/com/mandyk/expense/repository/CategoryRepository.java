@@ -15,6 +15,8 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
     boolean existsByNameAndUserId(String name, Integer userId);
 
+    boolean existsByIdAndUserId(Integer id, Integer userId);
+
     List<Category> findByUserId(Integer userId);
 
     @Query("""
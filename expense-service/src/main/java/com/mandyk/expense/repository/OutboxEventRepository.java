@@ -0,0 +1,45 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Locks the oldest unpublished rows until the caller's transaction ends; rows already
+    // locked by another relay instance are skipped instead of waited on. Ordered by
+    // created_at: ids are drawn in blocks of 50 per instance, so a later write on one
+    // instance can hold a lower id than an earlier one on another. Ties (rows written in
+    // one call) are in id order. A row that commits late is still relayed, after rows
+    // created later than it.
+    @Query(value = """
+            select * from transaction_outbox
+            where published_at is null
+            order by created_at, id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> lockUnpublished(int limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(List<Long> ids, LocalDateTime publishedAt);
+
+    @Query(value = """
+            select created_at from transaction_outbox
+            where published_at is null
+            order by created_at, id
+            limit 1
+            """, nativeQuery = true)
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
@@ -1,86 +1,187 @@
 package com.mandyk.expense.repository;
 
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.TransactionResponseDTO;
 import com.mandyk.expense.entity.Transaction;
-import com.mandyk.expense.entity.TransactionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
+public interface TransactionRepository extends JpaRepository<Transaction, Integer>, TransactionSearchRepository {
+
+    // List endpoints select straight into the response DTO: nothing enters the persistence
+    // context, so there is no dirty checking or snapshot copy per row. The TEXT description
+    // is only read when includeDescription is set (Postgres never detoasts the skipped branch).
+    String RESPONSE_COLUMNS = """
+            select new com.mandyk.expense.dto.TransactionResponseDTO(
+                t.id, t.amount,
+                case when :includeDescription = true then t.description else null end,
+                t.transactionDate, t.transactionType, t.accountId, t.categoryId, t.userId, t.createdAt)
+            from Transaction t
+            """;
 
-    Page<Transaction> findByUserId(Integer userId, Pageable pageable);
+    // Every listing is bounded on transactionDate (see TransactionDateRange), count queries
+    // included, so Postgres only scans the monthly partitions the range covers.
 
+    @Query(value = RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """,
+            countQuery = """
+            select count(t) from Transaction t
+            where t.userId = :userId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """)
+    Page<TransactionResponseDTO> findByUserId(Integer userId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
+
+    // The primary key is (id, transaction_date), so a lookup by id alone would probe every
+    // partition. transaction_ids (migration V8) holds each id's date: the join turns it
+    // into a run-time bound that leaves a single partition to scan.
+    @Query(value = """
+            select t.* from transaction_ids i
+            join transactions t on t.id = i.id and t.transaction_date = i.transaction_date
+            where i.id = :id
+            and t.user_id = :userId
+            """, nativeQuery = true)
     Optional<Transaction> findByIdAndUserId(Integer id, Integer userId);
 
-    Page<Transaction> findByUserIdAndTransactionType(Integer userId, TransactionType transactionType, Pageable pageable);
+    // Deleting through the entity would go by id alone; the date pins the partition
+    @Modifying
+    @Query("delete from Transaction t where t.id = :id and t.transactionDate = :transactionDate")
+    int deleteByIdAndTransactionDate(Integer id, LocalDateTime transactionDate);
 
-    Page<Transaction> findByUserIdAndTransactionDateBetween(Integer userId, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    Page<Transaction> findByUserIdAndAccountId(Integer userId, Integer accountId, Pageable pageable);
+    @Query(value = RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.accountId = :accountId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """,
+            countQuery = """
+            select count(t) from Transaction t
+            where t.userId = :userId
+            and t.accountId = :accountId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """)
+    Page<TransactionResponseDTO> findByUserIdAndAccountId(Integer userId, Integer accountId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
 
-    Page<Transaction> findByUserIdAndCategoryId(Integer userId, Integer categoryId, Pageable pageable);
+    @Query(value = RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.categoryId = :categoryId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """,
+            countQuery = """
+            select count(t) from Transaction t
+            where t.userId = :userId
+            and t.categoryId = :categoryId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            """)
+    Page<TransactionResponseDTO> findByUserIdAndCategoryId(Integer userId, Integer categoryId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
+
+    // Keyset (seek) pagination: newest first on (transactionDate, id). Returning a List
+    // skips the count query, and the row-value predicate lets Postgres start the index
+    // scan at the cursor instead of walking past an OFFSET. Later pages bound
+    // transactionDate by the cursor instead of :to: redundant with the row-value
+    // comparison, but Postgres can only prune partitions from the plain bound.
+    @Query(RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<TransactionResponseDTO> findFirstByUserId(Integer userId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
 
-    // Total income
-    @Query("""
-            select COALESCE(SUM(t.amount), 0)
-            from Transaction t
-            where t.userId=:userId
-            AND t.transactionType='INCOME'
+    @Query(RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.transactionDate >= :from
+            and t.transactionDate <= :transactionDate
+            and (t.transactionDate, t.id) < (:transactionDate, :id)
+            order by t.transactionDate desc, t.id desc
             """)
-    BigDecimal getTotalIncomeByUserId(Integer userId);
+    List<TransactionResponseDTO> findNextByUserId(Integer userId, LocalDateTime from, LocalDateTime transactionDate, Integer id, boolean includeDescription, Pageable pageable);
 
-    // Total expense
-    @Query("""
-            select COALESCE(SUM(t.amount), 0)
-            from Transaction t
+    @Query(RESPONSE_COLUMNS + """
             where t.userId = :userId
-            AND t.transactionType='EXPENSE'
+            and t.accountId = :accountId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            order by t.transactionDate desc, t.id desc
             """)
-    BigDecimal getTotalExpenseByUserId(Integer userId);
+    List<TransactionResponseDTO> findFirstByUserIdAndAccountId(Integer userId, Integer accountId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
 
+    @Query(RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.accountId = :accountId
+            and t.transactionDate >= :from
+            and t.transactionDate <= :transactionDate
+            and (t.transactionDate, t.id) < (:transactionDate, :id)
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<TransactionResponseDTO> findNextByUserIdAndAccountId(Integer userId, Integer accountId, LocalDateTime from, LocalDateTime transactionDate, Integer id, boolean includeDescription, Pageable pageable);
 
+    @Query(RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.categoryId = :categoryId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<TransactionResponseDTO> findFirstByUserIdAndCategoryId(Integer userId, Integer categoryId, LocalDateTime from, LocalDateTime to, boolean includeDescription, Pageable pageable);
 
-    // Monthly aggregation
+    @Query(RESPONSE_COLUMNS + """
+            where t.userId = :userId
+            and t.categoryId = :categoryId
+            and t.transactionDate >= :from
+            and t.transactionDate <= :transactionDate
+            and (t.transactionDate, t.id) < (:transactionDate, :id)
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<TransactionResponseDTO> findNextByUserIdAndCategoryId(Integer userId, Integer categoryId, LocalDateTime from, LocalDateTime transactionDate, Integer id, boolean includeDescription, Pageable pageable);
+
+    // Full-history export, oldest first. Must be consumed inside a transaction: that is
+    // what lets the Postgres driver honour the fetch size and read through a server-side
+    // cursor instead of buffering the whole result.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("""
-            select DATE_TRUNC('month', t.transactionDate),
-            SUM(t.amount)
-            from Transaction t
-            where t.userId=:userId
-            AND t.transactionType='EXPENSE'
-            GROUP BY DATE_TRUNC('month', t.transactionDate)
-            ORDER BY DATE_TRUNC('month', t.transactionDate)
+            select t from Transaction t
+            where t.userId = :userId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            order by t.transactionDate, t.id
             """)
-    List<Object[]> getMonthlyExpenseTrendByUserId(Integer userId);
+    Stream<Transaction> streamByUserIdAndTransactionDateBetween(Integer userId, LocalDateTime from, LocalDateTime to);
 
-    // Expense by categories
+    // Expense by categories, largest first; uncategorised expenses come back with a null id and name
     @Query("""
-            select t.categoryId, SUM(t.amount)
+            select new com.mandyk.expense.dto.CategoryExpenseDTO(t.categoryId, c.name, SUM(t.amount), COUNT(t))
             from Transaction t
+            left join Category c on c.id = t.categoryId and c.userId = t.userId
             where t.userId=:userId
             and t.transactionType='EXPENSE'
-            group by t.categoryId
+            and t.transactionDate >= :from
+            and t.transactionDate < :to
+            group by t.categoryId, c.name
+            order by SUM(t.amount) desc
             """)
-    List<Object[]> getExpenseByCategory(Integer userId);
-
-    @Query("""
-       SELECT COALESCE(SUM(
-           CASE 
-               WHEN t.transactionType = 'INCOME' THEN t.amount
-               WHEN t.transactionType = 'EXPENSE' THEN -t.amount
-           END
-       ), 0)
-       FROM Transaction t
-       WHERE t.userId = :userId
-       AND t.accountId = :accountId
-       """)
-    BigDecimal getAccountBalance(Integer userId, Integer accountId);
+    List<CategoryExpenseDTO> getExpenseByCategory(Integer userId, LocalDateTime from, LocalDateTime to);
 
 }
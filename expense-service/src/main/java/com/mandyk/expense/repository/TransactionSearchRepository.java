@@ -0,0 +1,14 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+// Custom fragment of TransactionRepository: Specification search projected into the
+// response DTO like the other list queries
+public interface TransactionSearchRepository {
+
+    Page<TransactionResponseDTO> search(Specification<Transaction> spec, boolean includeDescription, Pageable pageable);
+}
@@ -0,0 +1,70 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id"));
+
+    private EntityManager entityManager;
+
+    public TransactionSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<TransactionResponseDTO> search(Specification<Transaction> spec, boolean includeDescription, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionResponseDTO> query = cb.createQuery(TransactionResponseDTO.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        Expression<String> description = includeDescription
+                ? root.get("description")
+                : cb.nullLiteral(String.class);
+
+        query.select(cb.construct(TransactionResponseDTO.class,
+                root.get("id"), root.get("amount"), description,
+                root.get("transactionDate"), root.get("transactionType"),
+                root.get("accountId"), root.get("categoryId"), root.get("userId"), root.get("createdAt")));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort().isSorted() ? pageable.getSort() : NEWEST_FIRST, root, cb));
+
+        TypedQuery<TransactionResponseDTO> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<TransactionResponseDTO> content = typedQuery.getResultList();
+
+        // The count only runs when the page is full or not the first one
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Transaction> spec) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        query.select(cb.count(root));
+        query.where(spec.toPredicate(root, query, cb));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,93 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.dto.TransactionSearchCriteria;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.util.TransactionDateRange;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Predicates for transaction search. Only the filters a request actually sets are
+ * combined, so every combination becomes one parameterized statement that always
+ * leads with {@code user_id} and can use the user-scoped composite indexes. The date
+ * window is always set, defaulting like the listings' (TransactionDateRange), so
+ * Postgres prunes the monthly partitions outside it.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {}
+
+    public static Specification<Transaction> matching(Integer userId, TransactionSearchCriteria criteria) {
+
+        List<Specification<Transaction>> specs = new ArrayList<>();
+        specs.add(belongsTo(userId));
+
+        if (criteria.getAccountId() != null) {
+            specs.add(inAccount(criteria.getAccountId()));
+        }
+        if (criteria.getCategoryId() != null) {
+            specs.add(inCategory(criteria.getCategoryId()));
+        }
+        if (criteria.getType() != null) {
+            specs.add(ofType(criteria.getType()));
+        }
+        if (criteria.getMinAmount() != null) {
+            specs.add(amountAtLeast(criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            specs.add(amountAtMost(criteria.getMaxAmount()));
+        }
+        specs.add(within(TransactionDateRange.of(criteria.getFrom(), criteria.getTo())));
+        if (criteria.getQ() != null && !criteria.getQ().isBlank()) {
+            specs.add(descriptionContains(criteria.getQ()));
+        }
+
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Transaction> belongsTo(Integer userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Transaction> inAccount(Integer accountId) {
+        return (root, query, cb) -> cb.equal(root.get("accountId"), accountId);
+    }
+
+    public static Specification<Transaction> inCategory(Integer categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("categoryId"), categoryId);
+    }
+
+    public static Specification<Transaction> ofType(TransactionType type) {
+        return (root, query, cb) -> cb.equal(root.get("transactionType"), type);
+    }
+
+    public static Specification<Transaction> amountAtLeast(BigDecimal amount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), amount);
+    }
+
+    public static Specification<Transaction> amountAtMost(BigDecimal amount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), amount);
+    }
+
+    public static Specification<Transaction> within(TransactionDateRange range) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("transactionDate"), range.getStart()),
+                cb.lessThan(root.get("transactionDate"), range.getEnd()));
+    }
+
+    // Case-insensitive substring match. Applied on top of the user-scoped index rather
+    // than through its own index: a user's history is small next to the whole table.
+    public static Specification<Transaction> descriptionContains(String text) {
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
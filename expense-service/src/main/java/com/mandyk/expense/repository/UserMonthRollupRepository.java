@@ -0,0 +1,62 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.entity.UserMonthRollup;
+import com.mandyk.expense.entity.UserMonthRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UserMonthRollupRepository extends JpaRepository<UserMonthRollup, UserMonthRollupId> {
+
+    // Upsert-and-add in one statement; concurrent writers to the same bucket serialise on the row
+    @Modifying
+    @Query(value = """
+            insert into user_month_rollup (user_id, month_start, type, category_id, total_amount, transaction_count)
+            values (:userId, :monthStart, :type, :categoryId, :amount, :count)
+            on conflict (user_id, month_start, type, category_id) do update
+            set total_amount = user_month_rollup.total_amount + excluded.total_amount,
+                transaction_count = user_month_rollup.transaction_count + excluded.transaction_count
+            """, nativeQuery = true)
+    int increment(Integer userId, LocalDate monthStart, String type, Integer categoryId, BigDecimal amount, long count);
+
+    // Columns: month start, transaction type, total amount, transaction count
+    @Query("""
+            select r.monthStart, r.transactionType, sum(r.totalAmount), sum(r.transactionCount)
+            from UserMonthRollup r
+            where r.userId = :userId
+            and r.monthStart between :from and :to
+            group by r.monthStart, r.transactionType
+            order by r.monthStart
+            """)
+    List<Object[]> sumByMonth(Integer userId, LocalDate from, LocalDate to);
+
+    // Columns: transaction type, total amount, transaction count
+    @Query("""
+            select r.transactionType, sum(r.totalAmount), sum(r.transactionCount)
+            from UserMonthRollup r
+            where r.userId = :userId
+            group by r.transactionType
+            """)
+    List<Object[]> sumByType(Integer userId);
+
+    // Recomputes every bucket from the ledger; callers clear the table first in the same transaction
+    @Modifying
+    @Query(value = """
+            insert into user_month_rollup (user_id, month_start, type, category_id, total_amount, transaction_count)
+            select t.user_id,
+                   cast(date_trunc('month', t.transaction_date) as date),
+                   cast(t.type as varchar),
+                   coalesce(t.category_id, 0),
+                   sum(t.amount),
+                   count(*)
+            from transactions t
+            group by 1, 2, 3, 4
+            """, nativeQuery = true)
+    int rebuildFromTransactions();
+}
@@ -0,0 +1,42 @@
+package com.mandyk.expense.security;
+
+import java.security.Principal;
+import java.util.Objects;
+
+/**
+ * Principal placed in the SecurityContext by JwtAuthFilter once the token has been verified.
+ */
+public final class AuthenticatedUser implements Principal {
+
+    private final Integer userId;
+    private final String email;
+
+    public AuthenticatedUser(Integer userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public Integer getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    @Override
+    public String getName() { return email; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuthenticatedUser that)) return false;
+        return Objects.equals(userId, that.userId) && Objects.equals(email, that.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, email);
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{userId=" + userId + "}";
+    }
+}
@@ -1,32 +1,41 @@
 package com.mandyk.expense.service;
 
+import com.mandyk.expense.config.CacheConfig;
 import com.mandyk.expense.dto.AccountDTO;
 import com.mandyk.expense.entity.Account;
+import com.mandyk.expense.event.AccountsChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.AccountRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class AccountService {
 
     private AccountRepository accountRepository;
+    private OwnershipCache ownershipCache;
+    private ApplicationEventPublisher eventPublisher;
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, OwnershipCache ownershipCache,
+                          ApplicationEventPublisher eventPublisher) {
         this.accountRepository = accountRepository;
+        this.ownershipCache = ownershipCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all accounts for a user
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, key = "#userId")
     public List<AccountDTO> getAccountsByUserId(Integer userId) {
 
         List<Account> accounts = accountRepository.findByUserId(userId);
 
         return accounts.stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     // Get single account
@@ -52,6 +61,8 @@ public class AccountService {
         account.setName(dto.getName());
 
         Account saved = accountRepository.save(account);
+        ownershipCache.invalidateAccounts(saved.getUserId());
+        eventPublisher.publishEvent(new AccountsChangedEvent(saved.getUserId()));
 
         return mapToDTO(saved);
     }
@@ -64,6 +75,8 @@ public class AccountService {
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
 
         accountRepository.delete(account);
+        ownershipCache.invalidateAccounts(userId);
+        eventPublisher.publishEvent(new AccountsChangedEvent(userId));
     }
 
     // Mapper
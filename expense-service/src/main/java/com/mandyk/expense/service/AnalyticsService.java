@@ -0,0 +1,111 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.MonthlyExpenseDTO;
+import com.mandyk.expense.dto.TransactionSummaryDTO;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.repository.TransactionRepository;
+import com.mandyk.expense.repository.UserMonthRollupRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard reads served from user_month_rollup: cost depends on the months requested,
+// not on how many transactions the user has. The category breakdown takes arbitrary
+// day ranges, so it reads the ledger instead and is cached per user and range.
+@Service
+public class AnalyticsService {
+
+    static final int DEFAULT_MONTHS = 12;
+    static final int MAX_MONTHS = 120;
+
+    private UserMonthRollupRepository rollupRepository;
+    private TransactionRepository transactionRepository;
+    private CategoryBreakdownCache categoryBreakdownCache;
+
+    public AnalyticsService(UserMonthRollupRepository rollupRepository,
+                            TransactionRepository transactionRepository,
+                            CategoryBreakdownCache categoryBreakdownCache) {
+        this.rollupRepository = rollupRepository;
+        this.transactionRepository = transactionRepository;
+        this.categoryBreakdownCache = categoryBreakdownCache;
+    }
+
+    // MONTHLY TREND
+    // Every month in [from, to] is returned, with zeros for months without transactions
+    @Transactional(readOnly = true)
+    public List<MonthlyExpenseDTO> getMonthlyTrend(Integer userId, YearMonth from, YearMonth to) {
+
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(DEFAULT_MONTHS - 1);
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusMonths(MAX_MONTHS).isBefore(end)) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_MONTHS + " months");
+        }
+
+        Map<YearMonth, MonthlyExpenseDTO> months = new LinkedHashMap<>();
+        for (YearMonth m = start; !m.isAfter(end); m = m.plusMonths(1)) {
+            months.put(m, new MonthlyExpenseDTO(m));
+        }
+
+        List<Object[]> rows = rollupRepository.sumByMonth(userId, start.atDay(1), end.atDay(1));
+        for (Object[] row : rows) {
+            MonthlyExpenseDTO dto = months.get(YearMonth.from((LocalDate) row[0]));
+            BigDecimal amount = (BigDecimal) row[2];
+            if (row[1] == TransactionType.INCOME) {
+                dto.setTotalIncome(amount);
+            } else {
+                dto.setTotalExpense(amount);
+            }
+            dto.setTransactionCount(dto.getTransactionCount() + ((Number) row[3]).longValue());
+        }
+
+        return new ArrayList<>(months.values());
+    }
+
+    // SUMMARY (all time)
+    @Transactional(readOnly = true)
+    public TransactionSummaryDTO getSummary(Integer userId) {
+
+        TransactionSummaryDTO summary = new TransactionSummaryDTO();
+        for (Object[] row : rollupRepository.sumByType(userId)) {
+            BigDecimal amount = (BigDecimal) row[1];
+            if (row[0] == TransactionType.INCOME) {
+                summary.setTotalIncome(amount);
+            } else {
+                summary.setTotalExpense(amount);
+            }
+            summary.setTransactionCount(summary.getTransactionCount() + ((Number) row[2]).longValue());
+        }
+        return summary;
+    }
+
+    // EXPENSE BY CATEGORY
+    // [from, to] in days, both inclusive; defaults to the current month so far
+    @Transactional(readOnly = true)
+    public List<CategoryExpenseDTO> getExpenseByCategory(Integer userId, LocalDate from, LocalDate to) {
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusMonths(MAX_MONTHS).isBefore(end)) {
+            throw new IllegalArgumentException("Range cannot exceed " + MAX_MONTHS + " months");
+        }
+
+        return categoryBreakdownCache.get(userId, start, end, () -> transactionRepository.getExpenseByCategory(
+                userId, start.atStartOfDay(), end.plusDays(1).atStartOfDay()));
+    }
+}
@@ -5,19 +5,18 @@ import com.mandyk.expense.dto.AuthResponse;
 import com.mandyk.expense.entity.User;
 import com.mandyk.expense.exception.InvalidPasswordException;
 import com.mandyk.expense.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
     private UserRepository userRepository;
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     private JwtService jwtService;
 
-    public AuthService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService, JwtService jwtService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
     }
 
@@ -28,7 +27,7 @@ public class AuthService {
 
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         user = userRepository.save(user);
 
@@ -43,9 +42,14 @@ public class AuthService {
 
     public AuthResponse loginUser(AuthRequest request) {
         User user = userRepository.findByEmail(request.getEmail()).orElseThrow(()-> new InvalidPasswordException("Invalid email or password"));
-        if(!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if(!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidPasswordException("Invalid email or Password");
         }
+        // The raw password is only available here, so this is where older hashes get upgraded
+        if(passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+        }
         String token = jwtService.generateToken(user.getEmail(), user.getId());
         return new AuthResponse(user.getId(), user.getEmail(), token);
     }
@@ -0,0 +1,101 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.BalanceDriftDTO;
+import com.mandyk.expense.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recomputes every account balance from the transaction ledger and compares it
+ * with the materialized value. Drift is logged and published as a gauge; with
+ * repair enabled it is corrected by applying the difference as an increment, so
+ * writes that commit meanwhile are not lost. Every instance runs the schedule, so a
+ * run first takes a Postgres advisory lock and is skipped where another instance
+ * holds it; two runs applying the same increment would over-correct.
+ */
+@Service
+public class BalanceReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceReconciliationService.class);
+
+    private AccountRepository accountRepository;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private boolean repair;
+    private boolean onStartup;
+
+    private final AtomicInteger driftedAccounts = new AtomicInteger();
+
+    public BalanceReconciliationService(AccountRepository accountRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${balance.reconciliation.repair:false}") boolean repair,
+                                        @Value("${balance.reconciliation.on-startup:false}") boolean onStartup) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.repair = repair;
+        this.onStartup = onStartup;
+        meterRegistry.gauge("account.balance.drift.accounts", driftedAccounts);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (onStartup) {
+            reconcile();
+        }
+    }
+
+    // Runs in a TransactionTemplate rather than under @Transactional so the startup
+    // call, which does not go through the proxy, holds the lock for the whole run too
+    @Scheduled(cron = "${balance.reconciliation.cron:0 30 3 * * *}")
+    public List<BalanceDriftDTO> reconcile() {
+        return transactionTemplate.execute(status -> reconcileLocked());
+    }
+
+    private List<BalanceDriftDTO> reconcileLocked() {
+
+        if (!accountRepository.tryLockReconciliation()) {
+            log.info("Balance reconciliation: skipped, another instance is running it");
+            return List.of();
+        }
+
+        List<BalanceDriftDTO> drift = accountRepository.findBalanceDrift().stream()
+                .map(row -> new BalanceDriftDTO(
+                        ((Number) row[0]).intValue(),
+                        (BigDecimal) row[1],
+                        (BigDecimal) row[2]))
+                .toList();
+
+        driftedAccounts.set(drift.size());
+        meterRegistry.counter("account.balance.reconciliation.runs").increment();
+
+        if (drift.isEmpty()) {
+            log.info("Balance reconciliation: all account balances match the ledger");
+            return drift;
+        }
+
+        for (BalanceDriftDTO d : drift) {
+            log.warn("Balance drift on account {}: stored={} ledger={} drift={}",
+                    d.getAccountId(), d.getStoredBalance(), d.getLedgerBalance(), d.getDrift());
+            if (repair) {
+                accountRepository.adjustBalance(d.getAccountId(), d.getDrift());
+            }
+        }
+        meterRegistry.counter("account.balance.drift.detected").increment(drift.size());
+        log.warn("Balance reconciliation: {} account(s) drifted{}", drift.size(), repair ? ", repaired" : "");
+
+        return drift;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mandyk.expense.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.event.TransactionsChangedEvent;
+import com.mandyk.expense.outbox.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches category breakdowns per user and date range; dashboards poll the same range
+ * every few seconds. All of a user's ranges live under one entry, so a change to that
+ * user's transactions drops them together, straight away and again once the write's
+ * transaction has completed. Changes made on other instances arrive as outbox messages
+ * (OutboxNotificationListener). A breakdown computed while the entry was being dropped
+ * lands in the discarded entry and is never served.
+ */
+@Component
+public class CategoryBreakdownCache {
+
+    private Cache<Integer, Map<Range, List<CategoryExpenseDTO>>> users;
+    private int maxRangesPerUser;
+    private Counter hits;
+    private Counter misses;
+
+    public CategoryBreakdownCache(MeterRegistry meterRegistry,
+                                  @Value("${analytics.category-cache.max-users:10000}") long maxUsers,
+                                  @Value("${analytics.category-cache.max-ranges-per-user:16}") int maxRangesPerUser,
+                                  @Value("${analytics.category-cache.ttl:PT5M}") Duration ttl) {
+        this.maxRangesPerUser = maxRangesPerUser;
+        this.hits = meterRegistry.counter("analytics.category.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("analytics.category.cache.requests", "result", "miss");
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public List<CategoryExpenseDTO> get(Integer userId, LocalDate from, LocalDate to,
+                                        Supplier<List<CategoryExpenseDTO>> loader) {
+
+        Map<Range, List<CategoryExpenseDTO>> ranges = users.get(userId, key -> new ConcurrentHashMap<>());
+        Range range = new Range(from, to);
+
+        List<CategoryExpenseDTO> cached = ranges.get(range);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        List<CategoryExpenseDTO> loaded = List.copyOf(loader.get());
+        // unusual ranges beyond the per-user bound are served but not kept
+        if (ranges.size() < maxRangesPerUser) {
+            ranges.put(range, loaded);
+        }
+        return loaded;
+    }
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    // relayed after the change committed, from whichever instance made it
+    @EventListener
+    public void onOutboxMessage(OutboxMessage message) {
+        invalidate(message.userId());
+    }
+
+    // breakdowns carry category names
+    @EventListener
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    // the second invalidation drops anything read from the old (or rolled-back) rows meanwhile
+    private void invalidate(Integer userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private record Range(LocalDate from, LocalDate to) {}
+}
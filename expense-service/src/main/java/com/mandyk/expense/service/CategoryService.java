@@ -1,31 +1,40 @@
 package com.mandyk.expense.service;
 
+import com.mandyk.expense.config.CacheConfig;
 import com.mandyk.expense.dto.CategoryDTO;
 import com.mandyk.expense.entity.Category;
+import com.mandyk.expense.event.CategoriesChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.CategoryRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
 
     private CategoryRepository categoryRepository;
+    private OwnershipCache ownershipCache;
+    private ApplicationEventPublisher eventPublisher;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, OwnershipCache ownershipCache,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.ownershipCache = ownershipCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all categories for a user
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#userId")
     public List<CategoryDTO> getCategoriesByUserId(Integer userId) {
 
         List<Category> categories = categoryRepository.findByUserIdSorted(userId);
 
         return categories.stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     // Create category
@@ -40,6 +49,8 @@ public class CategoryService {
         category.setName(dto.getName());
 
         Category saved = categoryRepository.save(category);
+        ownershipCache.invalidateCategories(saved.getUserId());
+        eventPublisher.publishEvent(new CategoriesChangedEvent(saved.getUserId()));
 
         return mapToDTO(saved);
     }
@@ -51,6 +62,8 @@ public class CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
         categoryRepository.delete(category);
+        ownershipCache.invalidateCategories(userId);
+        eventPublisher.publishEvent(new CategoriesChangedEvent(userId));
     }
 
     // Mapper
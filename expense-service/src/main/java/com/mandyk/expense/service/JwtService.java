@@ -1,23 +1,64 @@
 package com.mandyk.expense.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
     private Long expiration;
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Verified claims keyed by SHA-256 of the token; each entry lives until the token's exp
+    private Cache<String, Claims> claimsCache;
+
+    private Timer verifiedFromCache;
+    private Timer verified;
+    private Timer expired;
+    private Timer invalid;
+
+    public JwtService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.expiration}") Long expiration,
+                      @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        // same tag keys as the Spring-managed caches (CacheConfig): Prometheus rejects
+        // meters that share a name but not the tag set
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims",
+                "cache.manager", "jwtService", "name", "jwt.claims");
+
+        this.verifiedFromCache = verifyTimer("hit", "SUCCESS", meterRegistry);
+        this.verified = verifyTimer("miss", "SUCCESS", meterRegistry);
+        this.expired = verifyTimer("miss", "EXPIRED", meterRegistry);
+        this.invalid = verifyTimer("miss", "INVALID", meterRegistry);
+    }
 
     public String generateToken(String email, Integer userId) {
         return Jwts.builder()
@@ -25,16 +66,17 @@ public class JwtService {
                 .claim("userId", userId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis()+expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, String email) {
-        return extractEmail(token).equals(email) && !isTokenExpired(token);
+        Claims claims = extractClaims(token);
+        return claims.getSubject().equals(email) && !isTokenExpired(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Integer extractUserId(String token) {
@@ -45,18 +87,71 @@ public class JwtService {
         return extractClaims(token).getSubject();
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the token signature and expiry, returning its claims.
+     * Tokens that fail verification are never cached.
+     */
+    public Claims extractClaims(String token) {
+        long start = System.nanoTime();
+        String key = digest(token);
+
+        Claims claims = claimsCache.getIfPresent(key);
+        if (claims != null) {
+            verifiedFromCache.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException ex) {
+            expired.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } catch (RuntimeException ex) {
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        claimsCache.put(key, claims);
+        verified.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    private static Timer verifyTimer(String cache, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("jwt.verify")
+                .description("Time to verify a bearer token, including the claims cache lookup")
+                .tag("cache", cache)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return 0;
+            }
+            long remainingMillis = exp.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
 
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
 
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,263 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.BalanceDTO;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.exception.ServiceBusyException;
+import com.mandyk.expense.outbox.OutboxMessage;
+import com.mandyk.expense.repository.AccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event connections per user, fed by outbox messages published as application
+ * events: by OutboxNotificationListener, which hears every instance's relay, or on a single
+ * instance by the in-process outbox sink.
+ * <p>
+ * Each connection has a bounded queue that one executor task at a time drains, so a
+ * slow client never blocks the outbox relay or other clients; a client whose queue
+ * fills up is disconnected and is expected to reconnect and refetch. Balances are
+ * coalesced: however many transactions touch an account before the next drain, the
+ * client gets one balance event read after they committed.
+ */
+@Service
+public class LiveUpdateRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateRegistry.class);
+
+    private AccountRepository accountRepository;
+    private AsyncTaskExecutor executor;
+    private MeterRegistry meterRegistry;
+    private int maxConnectionsPerUser;
+    private int maxConnections;
+    private int queueCapacity;
+    private Duration timeout;
+
+    // values are replaced, never mutated, so fan-out can read them without locking
+    private final Map<Integer, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public LiveUpdateRegistry(AccountRepository accountRepository,
+                              @Qualifier("liveUpdateExecutor") AsyncTaskExecutor executor,
+                              MeterRegistry meterRegistry,
+                              @Value("${live-updates.max-connections-per-user:4}") int maxConnectionsPerUser,
+                              @Value("${live-updates.max-connections:10000}") int maxConnections,
+                              @Value("${live-updates.queue-capacity:256}") int queueCapacity,
+                              @Value("${live-updates.timeout:PT30M}") Duration timeout) {
+        this.accountRepository = accountRepository;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxConnections = maxConnections;
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+
+        Gauge.builder("live.connections", connections, AtomicInteger::get)
+                .description("Open server-sent event connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Integer userId) {
+
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ServiceBusyException("Too many live update connections");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, queueCapacity);
+        emitter.onCompletion(() -> close(subscriber, "completed"));
+        emitter.onTimeout(() -> close(subscriber, "timeout"));
+        emitter.onError(ex -> close(subscriber, "error"));
+
+        List<Subscriber> current = subscribers.compute(userId, (id, list) -> {
+            List<Subscriber> updated = list == null ? new ArrayList<>() : new ArrayList<>(list);
+            updated.add(subscriber);
+            return List.copyOf(updated);
+        });
+        // the oldest connections make room, e.g. tabs left open in the background
+        for (int i = 0; i < current.size() - maxConnectionsPerUser; i++) {
+            close(current.get(i), "evicted");
+        }
+
+        // sent straight away so the response is committed and proxies see the stream start
+        enqueue(subscriber, LiveEvent.HEARTBEAT);
+        return emitter;
+    }
+
+    @EventListener
+    public void onOutboxMessage(OutboxMessage message) {
+
+        List<Subscriber> targets = subscribers.get(message.userId());
+        if (targets == null) {
+            return;
+        }
+        LiveEvent event = new LiveEvent(String.valueOf(message.id()), eventName(message.type()), message.payload());
+        for (Subscriber subscriber : targets) {
+            subscriber.staleBalances.add(message.accountId());
+            enqueue(subscriber, event);
+        }
+    }
+
+    // Heartbeats keep idle connections open through proxies and surface dead ones,
+    // whose writes fail
+    @Scheduled(fixedRateString = "${live-updates.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> enqueue(subscriber, LiveEvent.HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> close(subscriber, "shutdown")));
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    private void enqueue(Subscriber subscriber, LiveEvent event) {
+
+        if (!subscriber.events.offer(event)) {
+            close(subscriber, "slow");
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    // At most one drain per connection is queued or running; it picks up whatever
+    // arrived in the meantime
+    private void schedule(Subscriber subscriber) {
+
+        if (subscriber.closed.get() || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(subscriber));
+        } catch (TaskRejectedException ex) {
+            subscriber.draining.set(false);
+            close(subscriber, "rejected");
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+
+        try {
+            LiveEvent event;
+            while ((event = subscriber.events.poll()) != null) {
+                send(subscriber, event);
+            }
+            for (Integer accountId : subscriber.staleBalances) {
+                subscriber.staleBalances.remove(accountId);
+                Optional<BigDecimal> balance = accountRepository.findBalanceByIdAndUserId(accountId, subscriber.userId);
+                if (balance.isPresent()) {
+                    send(subscriber, new LiveEvent(null, "balance", toBalance(accountId, balance.get())));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // the client went away; the container reports it through onError as well
+            close(subscriber, "disconnected");
+            return;
+        } catch (RuntimeException ex) {
+            log.warn("Live update for user {} failed: {}", subscriber.userId, ex.getMessage());
+            close(subscriber, "failed");
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        if (!subscriber.events.isEmpty() || !subscriber.staleBalances.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, LiveEvent event) throws IOException {
+
+        if (event == LiveEvent.HEARTBEAT) {
+            subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name());
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        subscriber.emitter.send(builder.data(event.data(), MediaType.APPLICATION_JSON));
+        meterRegistry.counter("live.events.sent", "event", event.name()).increment();
+    }
+
+    private void close(Subscriber subscriber, String reason) {
+
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, list) -> {
+            List<Subscriber> rest = list.stream().filter(s -> s != subscriber).toList();
+            return rest.isEmpty() ? null : rest;
+        });
+        connections.decrementAndGet();
+        meterRegistry.counter("live.disconnects", "reason", reason).increment();
+
+        // completed, error and disconnected connections are already finished by the container
+        if (Set.of("evicted", "slow", "timeout", "rejected", "failed", "shutdown").contains(reason)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static String eventName(OutboxEventType type) {
+        return switch (type) {
+            case TRANSACTION_CREATED -> "transaction.created";
+            case TRANSACTION_DELETED -> "transaction.deleted";
+        };
+    }
+
+    private static BalanceDTO toBalance(Integer accountId, BigDecimal balance) {
+        BalanceDTO dto = new BalanceDTO();
+        dto.setAccountId(accountId);
+        dto.setBalance(balance);
+        return dto;
+    }
+
+    private record LiveEvent(String id, String name, Object data) {
+        static final LiveEvent HEARTBEAT = new LiveEvent(null, "heartbeat", null);
+    }
+
+    private static final class Subscriber {
+
+        private final Integer userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> events;
+        private final Set<Integer> staleBalances = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Integer userId, SseEmitter emitter, int queueCapacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.events = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.entity.UserMonthRollup;
+import com.mandyk.expense.repository.UserMonthRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps user_month_rollup in step with the transactions table. Called from inside the
+ * TransactionService write transactions, so a rollup change commits or rolls back with
+ * the rows it describes.
+ */
+@Service
+public class MonthlyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyRollupService.class);
+
+    // Buckets are written in key order so concurrent batches lock rollup rows consistently
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator
+            .comparing(Bucket::userId)
+            .thenComparing(Bucket::monthStart)
+            .thenComparing(Bucket::type)
+            .thenComparing(Bucket::categoryId);
+
+    private UserMonthRollupRepository rollupRepository;
+    private boolean rebuildOnStartup;
+
+    public MonthlyRollupService(UserMonthRollupRepository rollupRepository,
+                                @Value("${analytics.rollup.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.rollupRepository = rollupRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public void recordCreated(Collection<Transaction> transactions) {
+        apply(transactions, 1);
+    }
+
+    public void recordDeleted(Collection<Transaction> transactions) {
+        apply(transactions, -1);
+    }
+
+    public static LocalDate monthStart(Transaction t) {
+        return t.getTransactionDate().toLocalDate().withDayOfMonth(1);
+    }
+
+    private void apply(Collection<Transaction> transactions, int sign) {
+        Map<Bucket, Delta> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (Transaction t : transactions) {
+            Bucket bucket = new Bucket(
+                    t.getUserId(),
+                    monthStart(t),
+                    t.getTransactionType(),
+                    t.getCategoryId() != null ? t.getCategoryId() : UserMonthRollup.NO_CATEGORY);
+            deltas.computeIfAbsent(bucket, b -> new Delta()).add(t.getAmount());
+        }
+        deltas.forEach((b, d) -> rollupRepository.increment(
+                b.userId(), b.monthStart(), b.type().name(), b.categoryId(),
+                sign > 0 ? d.amount : d.amount.negate(), sign * d.count));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // Full recompute, for backfilling a database that predates the rollup table
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllInBatch();
+        int buckets = rollupRepository.rebuildFromTransactions();
+        log.info("Monthly rollup rebuilt: {} bucket(s)", buckets);
+        return buckets;
+    }
+
+    private record Bucket(Integer userId, LocalDate monthStart, TransactionType type, Integer categoryId) {}
+
+    private static class Delta {
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long count;
+
+        void add(BigDecimal value) {
+            amount = amount.add(value);
+            count++;
+        }
+    }
+}
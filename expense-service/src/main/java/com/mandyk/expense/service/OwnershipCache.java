@@ -0,0 +1,146 @@
+package com.mandyk.expense.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.repository.AccountRepository;
+import com.mandyk.expense.repository.CategoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Remembers which account and category ids each user owns, so ownership checks on the
+ * transaction paths skip the database. Only confirmed ownership is cached: a miss runs an
+ * existsBy query and records the id when it belongs to the user.
+ *
+ * AccountService and CategoryService invalidate a user's entry when they create or delete,
+ * and the invalidation is sent on the {@value #CHANNEL} channel; OutboxNotificationListener
+ * turns it back into an AccountsChangedEvent or CategoriesChangedEvent on every instance.
+ * The TTL only bounds staleness when no instance listens (outbox.sinks.notify disabled).
+ */
+@Component
+public class OwnershipCache {
+
+    public static final String CHANNEL = "ownership_changes";
+    public static final String ACCOUNTS = "accounts";
+    public static final String CATEGORIES = "categories";
+
+    private JdbcTemplate jdbcTemplate;
+    private Owned accounts;
+    private Owned categories;
+
+    public OwnershipCache(AccountRepository accountRepository,
+                          CategoryRepository categoryRepository,
+                          JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${ownership.cache.max-users:10000}") long maxUsers,
+                          @Value("${ownership.cache.ttl:PT10M}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accounts = new Owned("account", accountRepository::existsByIdAndUserId, maxUsers, ttl, meterRegistry);
+        this.categories = new Owned("category", categoryRepository::existsByIdAndUserId, maxUsers, ttl, meterRegistry);
+    }
+
+    public boolean ownsAccount(Integer userId, Integer accountId) {
+        return accounts.owns(userId, accountId);
+    }
+
+    public boolean ownsCategory(Integer userId, Integer categoryId) {
+        return categories.owns(userId, categoryId);
+    }
+
+    public void requireAccount(Integer userId, Integer accountId) {
+        if (!ownsAccount(userId, accountId)) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+    }
+
+    public void requireCategory(Integer userId, Integer categoryId) {
+        if (!ownsCategory(userId, categoryId)) {
+            throw new ResourceNotFoundException("Category not found");
+        }
+    }
+
+    public void invalidateAccounts(Integer userId) {
+        accounts.ids.invalidate(userId);
+        notifyInstances(ACCOUNTS, userId);
+    }
+
+    public void invalidateCategories(Integer userId) {
+        categories.ids.invalidate(userId);
+        notifyInstances(CATEGORIES, userId);
+    }
+
+    // Also how invalidations from other instances arrive
+    @EventListener
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        accounts.ids.invalidate(event.userId());
+    }
+
+    @EventListener
+    public void onCategoriesChanged(CategoriesChangedEvent event) {
+        categories.ids.invalidate(event.userId());
+    }
+
+    // Inside a transaction Postgres delivers it on commit, so no instance re-caches from the old rows after it
+    private void notifyInstances(String type, Integer userId) {
+        jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, type + ":" + userId);
+    }
+
+    private static class Owned {
+
+        private final Cache<Integer, Set<Integer>> ids;
+        private final BiPredicate<Integer, Integer> existsByIdAndUserId;
+        private final Counter hits;
+        private final Counter misses;
+
+        Owned(String type, BiPredicate<Integer, Integer> existsByIdAndUserId, long maxUsers, Duration ttl,
+              MeterRegistry meterRegistry) {
+            this.existsByIdAndUserId = existsByIdAndUserId;
+            this.hits = meterRegistry.counter("ownership.cache.requests", "type", type, "result", "hit");
+            this.misses = meterRegistry.counter("ownership.cache.requests", "type", type, "result", "miss");
+            Counter evictions = meterRegistry.counter("ownership.cache.evictions", "type", type);
+            this.ids = Caffeine.newBuilder()
+                    .maximumSize(maxUsers)
+                    .expireAfterWrite(ttl)
+                    .removalListener((Integer userId, Set<Integer> owned, RemovalCause cause) -> {
+                        if (cause.wasEvicted()) {
+                            evictions.increment();
+                        }
+                    })
+                    .build();
+        }
+
+        boolean owns(Integer userId, Integer id) {
+            Set<Integer> owned = ids.get(userId, key -> ConcurrentHashMap.newKeySet());
+            if (owned.contains(id)) {
+                hits.increment();
+                return true;
+            }
+            misses.increment();
+            if (!existsByIdAndUserId.test(id, userId)) {
+                return false;
+            }
+            // Only into the entry the query started with: if it was invalidated meanwhile, the
+            // answer may predate the change and caching it would outlive the invalidation
+            ids.asMap().computeIfPresent(userId, (key, current) -> {
+                if (current == owned) {
+                    current.add(id);
+                }
+                return current;
+            });
+            return true;
+        }
+    }
+}
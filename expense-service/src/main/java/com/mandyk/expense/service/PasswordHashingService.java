@@ -0,0 +1,113 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs BCrypt on the bounded passwordHashingExecutor so a login storm saturates only that pool.
+ * When the pool and its queue are full, callers get a ServiceBusyException (429) straight away.
+ */
+@Service
+public class PasswordHashingService {
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private ThreadPoolTaskExecutor executor;
+    private Timer encoded;
+    private Timer encodeFailed;
+    private Timer matched;
+    private Timer mismatched;
+    private Timer matchFailed;
+    private Counter rejected;
+
+    public PasswordHashingService(BCryptPasswordEncoder passwordEncoder,
+                                  @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.encoded = hashingTimer("encode", "SUCCESS", meterRegistry);
+        this.encodeFailed = hashingTimer("encode", "ERROR", meterRegistry);
+        this.matched = hashingTimer("matches", "SUCCESS", meterRegistry);
+        this.mismatched = hashingTimer("matches", "MISMATCH", meterRegistry);
+        this.matchFailed = hashingTimer("matches", "ERROR", meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Hashing requests rejected because the executor queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("password.hashing.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("password.hashing.active", executor, ThreadPoolTaskExecutor::getActiveCount);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> {
+            long start = System.nanoTime();
+            try {
+                String hash = passwordEncoder.encode(rawPassword);
+                encoded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return hash;
+            } catch (RuntimeException ex) {
+                encodeFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        });
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> {
+            long start = System.nanoTime();
+            try {
+                boolean matches = passwordEncoder.matches(rawPassword, encodedPassword);
+                (matches ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return matches;
+            } catch (RuntimeException ex) {
+                matchFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        });
+    }
+
+    // True when the stored hash uses a lower cost factor than the one configured now
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException ex) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many authentication requests, retry later");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private static Timer hashingTimer(String operation, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("password.hashing.duration")
+                .description("Time spent in BCrypt, excluding queue wait")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.mandyk.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.exporter.ExportFormat;
+import com.mandyk.expense.exporter.TransactionExportWriter;
+import com.mandyk.expense.exporter.TransactionExportWriters;
+import com.mandyk.expense.repository.TransactionRepository;
+import com.mandyk.expense.util.TransactionDateRange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class TransactionExportService {
+
+    private TransactionRepository transactionRepository;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Both bounds are inclusive dates. Called before the response is committed so a bad
+    // range is still reported as a 400.
+    public void checkRange(LocalDate from, LocalDate to) {
+        TransactionDateRange.of(from, to);
+    }
+
+    // EXPORT
+    // Runs on the MVC async thread once the controller has returned. The read-only
+    // transaction keeps the JDBC cursor open while rows are written, and every entity
+    // is detached once written, so memory stays flat however long the history is.
+    @Transactional(readOnly = true)
+    public long exportTransactions(Integer userId, ExportFormat format, LocalDate from, LocalDate to,
+                                   OutputStream out) throws IOException {
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long rows = 0;
+        String outcome = "aborted";
+
+        try (Stream<Transaction> stream = transactionRepository.streamByUserIdAndTransactionDateBetween(userId, range.getStart(), range.getEnd())) {
+            TransactionExportWriter writer = TransactionExportWriters.open(format, out, objectMapper);
+            Iterator<Transaction> iterator = stream.iterator();
+
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.write(TransactionService.mapToResponse(transaction));
+                entityManager.detach(transaction);
+                rows++;
+            }
+
+            writer.flush();
+            outcome = "completed";
+            return rows;
+        } finally {
+            sample.stop(meterRegistry.timer("transactions.export.duration",
+                    "format", format.name(), "outcome", outcome));
+            meterRegistry.counter("transactions.export.rows", "format", format.name()).increment(rows);
+        }
+    }
+}
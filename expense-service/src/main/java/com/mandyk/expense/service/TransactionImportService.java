@@ -0,0 +1,241 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.ImportJobDTO;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.importer.ImportJob;
+import com.mandyk.expense.importer.ImportJobRegistry;
+import com.mandyk.expense.importer.StatementFormat;
+import com.mandyk.expense.importer.StatementParser;
+import com.mandyk.expense.importer.StatementParsers;
+import com.mandyk.expense.importer.StatementRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TransactionImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    // TransactionCreateRequestDTO's @Digits(integer = 13, fraction = 2), i.e. NUMERIC(15,2)
+    private static final int MAX_INTEGER_DIGITS = 13;
+    private static final int MAX_FRACTION_DIGITS = 2;
+
+    private TransactionService transactionService;
+    private OwnershipCache ownershipCache;
+    private ImportJobRegistry jobRegistry;
+    private TaskExecutor importExecutor;
+    private int chunkSize;
+    private int maxErrors;
+    private int maxRecordLength;
+
+    public TransactionImportService(TransactionService transactionService,
+                                    OwnershipCache ownershipCache,
+                                    ImportJobRegistry jobRegistry,
+                                    @Qualifier("importExecutor") TaskExecutor importExecutor,
+                                    @Value("${import.chunk-size:500}") int chunkSize,
+                                    @Value("${import.max-errors:1000}") int maxErrors,
+                                    @Value("${import.max-record-length:65536}") int maxRecordLength) {
+        this.transactionService = transactionService;
+        this.ownershipCache = ownershipCache;
+        this.jobRegistry = jobRegistry;
+        this.importExecutor = importExecutor;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // START IMPORT
+    // The upload is spooled to a temp file and parsed in the background, so the
+    // request returns as soon as the file is on disk.
+    public ImportJobDTO startImport(MultipartFile file, String format, Integer accountId, Integer userId) {
+
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Statement file is empty");
+        }
+
+        StatementFormat statementFormat = StatementFormat.resolve(format, file.getOriginalFilename());
+
+        ownershipCache.requireAccount(userId, accountId);
+
+        Path spool;
+        try {
+            spool = Files.createTempFile("statement-", ".import");
+            file.transferTo(spool);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not store uploaded statement", ex);
+        }
+
+        ImportJob job = new ImportJob(userId, accountId, statementFormat, file.getOriginalFilename(), maxErrors);
+        jobRegistry.register(job);
+
+        try {
+            importExecutor.execute(() -> runImport(job, spool));
+        } catch (TaskRejectedException ex) {
+            deleteQuietly(spool);
+            job.markFailed("Too many imports in progress, try again later");
+            jobRegistry.save(job);
+        }
+
+        return ImportJobDTO.from(job);
+    }
+
+    // GET JOB STATUS
+    public ImportJobDTO getJob(String jobId, Integer userId) {
+
+        return jobRegistry.find(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+    }
+
+    void runImport(ImportJob job, Path spool) {
+
+        job.markRunning();
+        saveQuietly(job);
+
+        Map<Integer, Boolean> ownedCategories = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        try (InputStream in = Files.newInputStream(spool);
+             StatementParser parser = StatementParsers.open(job.getFormat(), in, maxRecordLength)) {
+
+            StatementRow row;
+            while ((row = parser.next()) != null) {
+                job.rowRead();
+
+                String error = validate(row, job.getUserId(), now, ownedCategories);
+                if (error != null) {
+                    job.reject(row.getRowNumber(), error);
+                    continue;
+                }
+
+                chunk.add(toEntity(row, job));
+                chunkRows.add(row.getRowNumber());
+
+                if (chunk.size() >= chunkSize) {
+                    flushChunk(job, chunk, chunkRows);
+                }
+            }
+            flushChunk(job, chunk, chunkRows);
+
+            job.markCompleted();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Statement import {} failed", job.getId(), ex);
+            job.markFailed(ex.getMessage());
+        } finally {
+            deleteQuietly(spool);
+        }
+        saveQuietly(job);
+    }
+
+    private String validate(StatementRow row, Integer userId, LocalDateTime now, Map<Integer, Boolean> ownedCategories) {
+
+        if (!row.isValid()) {
+            return row.getError();
+        }
+        if (row.getAmount().signum() == 0) {
+            return "Amount must be greater than zero";
+        }
+        if (!fitsAmountColumn(row.getAmount())) {
+            return "Invalid amount format";
+        }
+        if (row.getTransactionDate().isAfter(now)) {
+            return "Transaction date cannot be in future";
+        }
+        if (row.getCategoryId() != null) {
+            boolean owned = ownedCategories.computeIfAbsent(row.getCategoryId(),
+                    id -> ownershipCache.ownsCategory(userId, id));
+            if (!owned) {
+                return "Category not found";
+            }
+        }
+        return null;
+    }
+
+    // Same rule as the @Digits check on the API path, so an out-of-range amount is rejected
+    // on its own row instead of failing the insert of its whole chunk
+    private static boolean fitsAmountColumn(BigDecimal amount) {
+
+        BigDecimal stripped = amount.stripTrailingZeros();
+        int fractionDigits = Math.max(stripped.scale(), 0);
+        int integerDigits = stripped.precision() - stripped.scale();
+        return fractionDigits <= MAX_FRACTION_DIGITS && integerDigits <= MAX_INTEGER_DIGITS;
+    }
+
+    private void flushChunk(ImportJob job, List<Transaction> chunk, List<Long> chunkRows) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionService.persistTransactions(chunk);
+            job.rowsImported(chunk.size());
+        } catch (DataAccessException ex) {
+            log.warn("Import {} could not save rows {}-{}", job.getId(), chunkRows.get(0), chunkRows.get(chunkRows.size() - 1), ex);
+            for (Long rowNumber : chunkRows) {
+                job.reject(rowNumber, "Could not be saved");
+            }
+        }
+        // entities are detached once persistTransactions commits, so dropping the
+        // references keeps memory bounded by the chunk size
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private Transaction toEntity(StatementRow row, ImportJob job) {
+
+        String description = row.getDescription();
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setUserId(job.getUserId());
+        transaction.setAccountId(job.getAccountId());
+        transaction.setCategoryId(row.getCategoryId());
+        transaction.setAmount(row.getAmount());
+        transaction.setDescription(description);
+        transaction.setTransactionType(row.getTransactionType());
+        transaction.setTransactionDate(row.getTransactionDate());
+
+        return transaction;
+    }
+
+    // A failed status write only delays it: ImportJobRegistry.saveProgress writes the job again
+    private void saveQuietly(ImportJob job) {
+        try {
+            jobRegistry.save(job);
+        } catch (DataAccessException ex) {
+            log.warn("Could not save progress of import {}", job.getId(), ex);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Could not delete import spool file {}", path, ex);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mandyk.expense.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the transactions table (migration V3).
+ * Partitions are created {@code months-ahead} in advance so new rows never land in the
+ * default partition. With a retention set, months that have aged out are detached and
+ * moved to the archive schema, where they can be dumped or dropped by hand. Their per-account
+ * totals are carried into account_archived_balance, so balances still reconcile.
+ */
+@Service
+public class TransactionPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionService.class);
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("transactions_p(\\d{6})");
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private int monthsAhead;
+    private int retentionMonths;
+    private String archiveSchema;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${partitions.retention-months:0}") int retentionMonths,
+                                       @Value("${partitions.archive-schema:archive}") String archiveSchema) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("partitions.months-ahead must be at least 1");
+        }
+        if (retentionMonths < 0) {
+            throw new IllegalArgumentException("partitions.retention-months must not be negative");
+        }
+        if (!archiveSchema.isBlank() && !SCHEMA_NAME.matcher(archiveSchema).matches()) {
+            throw new IllegalArgumentException("Invalid partitions.archive-schema: " + archiveSchema);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        try {
+            maintain();
+        } catch (DataAccessException ex) {
+            // rows still go to the default partition; the scheduled run retries
+            log.warn("Partition maintenance failed on startup: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${partitions.cron:0 0 4 * * *}")
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    public void maintain(YearMonth current) {
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (YearMonth month : existingPartitions()) {
+                if (month.isBefore(oldestKept)) {
+                    detachPartition(month);
+                }
+            }
+        }
+    }
+
+    // Partitions are created one statement each, outside any transaction, so one failure
+    // (typically: the default partition already holds rows for that month) skips only that month
+    void createPartition(YearMonth month) {
+        String sql = String.format(
+                "create table if not exists %s partition of transactions for values from ('%s') to ('%s')",
+                partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException ex) {
+            meterRegistry.counter("transactions.partitions.failures", "operation", "create").increment();
+            log.warn("Could not create partition {}: {}", partitionName(month), ex.getMessage());
+        }
+    }
+
+    void detachPartition(YearMonth month) {
+        String partition = partitionName(month);
+        try {
+            // One transaction, so the month leaves the ledger and enters the opening balances
+            // together. Summed after the detach, when no insert can reach the partition any more
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("alter table transactions detach partition " + partition);
+                jdbcTemplate.execute("""
+                        insert into account_archived_balance (account_id, balance)
+                        select account_id, sum(case when type = 'INCOME' then amount else -amount end)
+                        from %s
+                        group by account_id
+                        on conflict (account_id) do update
+                        set balance = account_archived_balance.balance + excluded.balance
+                        """.formatted(partition));
+                if (!archiveSchema.isBlank()) {
+                    jdbcTemplate.execute("create schema if not exists " + archiveSchema);
+                    jdbcTemplate.execute("alter table " + partition + " set schema " + archiveSchema);
+                }
+            });
+            meterRegistry.counter("transactions.partitions.detached").increment();
+            log.info("Detached partition {}{}", partition, archiveSchema.isBlank() ? "" : " into " + archiveSchema);
+        } catch (DataAccessException ex) {
+            meterRegistry.counter("transactions.partitions.failures", "operation", "detach").increment();
+            log.warn("Could not detach partition {}: {}", partition, ex.getMessage());
+        }
+    }
+
+    List<YearMonth> existingPartitions() {
+        List<String> names = jdbcTemplate.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                join pg_class p on p.oid = i.inhparent
+                where p.relname = 'transactions'
+                and p.relnamespace = to_regnamespace(current_schema())
+                order by c.relname
+                """, String.class);
+
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    static String partitionName(YearMonth month) {
+        return "transactions_p" + month.format(SUFFIX);
+    }
+}
@@ -1,103 +1,333 @@
 package com.mandyk.expense.service;
 
+import com.mandyk.expense.dto.CursorPageDTO;
+import com.mandyk.expense.dto.TransactionBatchResponseDTO;
+import com.mandyk.expense.dto.TransactionBatchResultDTO;
 import com.mandyk.expense.dto.TransactionCreateRequestDTO;
 import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.dto.TransactionSearchCriteria;
+import com.mandyk.expense.entity.OutboxEventType;
 import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.event.TransactionsChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.outbox.TransactionOutbox;
 import com.mandyk.expense.repository.AccountRepository;
-import com.mandyk.expense.repository.CategoryRepository;
 import com.mandyk.expense.repository.TransactionRepository;
+import com.mandyk.expense.repository.TransactionSpecifications;
+import com.mandyk.expense.util.TransactionCursor;
+import com.mandyk.expense.util.TransactionDateRange;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TransactionService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final Set<String> RESPONSE_FIELDS = Set.of(
+            "id", "amount", "description", "transactionDate", "transactionType",
+            "accountId", "categoryId", "userId", "createdAt");
+
     private TransactionRepository transactionRepository;
     private AccountRepository accountRepository;
-    private CategoryRepository categoryRepository;
+    private OwnershipCache ownershipCache;
+    private MonthlyRollupService monthlyRollupService;
+    private TransactionOutbox transactionOutbox;
+    private MeterRegistry meterRegistry;
+    private ApplicationEventPublisher eventPublisher;
 
     public TransactionService(TransactionRepository transactionRepository,
                               AccountRepository accountRepository,
-                              CategoryRepository categoryRepository) {
+                              OwnershipCache ownershipCache,
+                              MonthlyRollupService monthlyRollupService,
+                              TransactionOutbox transactionOutbox,
+                              MeterRegistry meterRegistry,
+                              ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
-        this.categoryRepository = categoryRepository;
+        this.ownershipCache = ownershipCache;
+        this.monthlyRollupService = monthlyRollupService;
+        this.transactionOutbox = transactionOutbox;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
     }
 
     // CREATE
+    @Transactional
     public TransactionResponseDTO createTransaction(TransactionCreateRequestDTO request, Integer userId) {
 
-        accountRepository.findByIdAndUserId(request.getAccountId(), userId)
-                .orElseThrow(()-> new ResourceNotFoundException("Account not found"));
+        ownershipCache.requireAccount(userId, request.getAccountId());
 
         if(request.getCategoryId() != null) {
-            categoryRepository.findByIdAndUserId(request.getCategoryId(), userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
+            ownershipCache.requireCategory(userId, request.getCategoryId());
         }
 
         if(request.getTransactionDate().isAfter(LocalDateTime.now())) {
             throw new IllegalArgumentException("Transaction date cannot be in future");
         }
 
-        Transaction transaction = new Transaction();
-        transaction.setUserId(userId);
-        transaction.setAccountId(request.getAccountId());
-        transaction.setCategoryId(request.getCategoryId());
-        transaction.setAmount(request.getAmount());
-        transaction.setDescription(request.getDescription());
-        transaction.setTransactionType(request.getTransactionType());
-        transaction.setTransactionDate(request.getTransactionDate());
+        Transaction saved = transactionRepository.save(toEntity(request, userId));
+        accountRepository.adjustBalance(saved.getAccountId(), signedAmount(saved));
+        monthlyRollupService.recordCreated(List.of(saved));
+
+        TransactionResponseDTO response = mapToResponse(saved);
+        transactionOutbox.record(OutboxEventType.TRANSACTION_CREATED, List.of(response));
+        eventPublisher.publishEvent(new TransactionsChangedEvent(userId));
+
+        return response;
+    }
+
+
+    // CREATE BATCH
+    // Ownership is checked once per distinct account/category id; accepted rows are
+    // written with saveAll + flush so Hibernate sends them as JDBC batches.
+    @Transactional
+    public TransactionBatchResponseDTO createTransactions(List<TransactionCreateRequestDTO> requests, Integer userId) {
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Integer, Boolean> ownedAccounts = new HashMap<>();
+        Map<Integer, Boolean> ownedCategories = new HashMap<>();
+
+        TransactionBatchResultDTO[] results = new TransactionBatchResultDTO[requests.size()];
+        List<Transaction> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionCreateRequestDTO request = requests.get(i);
+
+            boolean accountOwned = ownedAccounts.computeIfAbsent(request.getAccountId(),
+                    id -> ownershipCache.ownsAccount(userId, id));
+            if (!accountOwned) {
+                results[i] = TransactionBatchResultDTO.rejected(i, "Account not found");
+                continue;
+            }
+
+            if (request.getCategoryId() != null) {
+                boolean categoryOwned = ownedCategories.computeIfAbsent(request.getCategoryId(),
+                        id -> ownershipCache.ownsCategory(userId, id));
+                if (!categoryOwned) {
+                    results[i] = TransactionBatchResultDTO.rejected(i, "Category not found");
+                    continue;
+                }
+            }
+
+            if (request.getTransactionDate().isAfter(now)) {
+                results[i] = TransactionBatchResultDTO.rejected(i, "Transaction date cannot be in future");
+                continue;
+            }
+
+            accepted.add(toEntity(request, userId));
+            acceptedIndexes.add(i);
+        }
+
+        if (!accepted.isEmpty()) {
+            List<Transaction> saved = persistTransactions(accepted);
+
+            for (int j = 0; j < saved.size(); j++) {
+                int index = acceptedIndexes.get(j);
+                results[index] = TransactionBatchResultDTO.created(index, saved.get(j).getId());
+            }
+        }
+
+        int created = accepted.size();
+        int rejected = requests.size() - created;
+        recordBatchMetrics(created, rejected, System.nanoTime() - start);
+
+        return new TransactionBatchResponseDTO(created, rejected, Arrays.asList(results));
+    }
 
-        Transaction saved = transactionRepository.save(transaction);
 
-        return mapToResponse(saved);
+    // Writes already-validated rows in one DB transaction; callers outside this class
+    // (e.g. statement imports) use it to flush fixed-size chunks.
+    @Transactional
+    public List<Transaction> persistTransactions(List<Transaction> transactions) {
+
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        transactionRepository.flush();
+
+        // one increment per account, in id order so concurrent batches lock rows consistently
+        Map<Integer, BigDecimal> deltas = new TreeMap<>();
+        for (Transaction t : saved) {
+            deltas.merge(t.getAccountId(), signedAmount(t), BigDecimal::add);
+        }
+        deltas.forEach(accountRepository::adjustBalance);
+        monthlyRollupService.recordCreated(saved);
+        transactionOutbox.record(OutboxEventType.TRANSACTION_CREATED,
+                saved.stream().map(TransactionService::mapToResponse).toList());
+        saved.stream().map(Transaction::getUserId).distinct()
+                .forEach(userId -> eventPublisher.publishEvent(new TransactionsChangedEvent(userId)));
+
+        return saved;
     }
 
 
     // GET ALL BY USER (paginated)
+    @Transactional(readOnly = true)
     public Page<TransactionResponseDTO> getTransactionsByUserId(
             Integer userId,
-            Pageable pageable) {
-
-        return transactionRepository
-                .findByUserId(userId, pageable)
-                .map(this::mapToResponse);
+            LocalDate from,
+            LocalDate to,
+            Pageable pageable,
+            String fields) {
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        return transactionRepository.findByUserId(
+                userId, range.getStart(), range.getEnd(), includesDescription(fields), pageable);
     }
 
 
     // GET BY ACCOUNT (paginated)
+    @Transactional(readOnly = true)
     public Page<TransactionResponseDTO> getTransactionsByAccountId(
             Integer userId,
             Integer accountId,
-            Pageable pageable) {
+            LocalDate from,
+            LocalDate to,
+            Pageable pageable,
+            String fields) {
 
-        accountRepository.findByIdAndUserId(accountId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        ownershipCache.requireAccount(userId, accountId);
 
-        return transactionRepository
-                .findByUserIdAndAccountId(userId, accountId, pageable)
-                .map(this::mapToResponse);
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        return transactionRepository.findByUserIdAndAccountId(
+                userId, accountId, range.getStart(), range.getEnd(), includesDescription(fields), pageable);
     }
 
 
     // GET BY CATEGORY (paginated)
+    @Transactional(readOnly = true)
     public Page<TransactionResponseDTO> getTransactionsByCategoryId(
             Integer userId,
             Integer categoryId,
-            Pageable pageable) {
+            LocalDate from,
+            LocalDate to,
+            Pageable pageable,
+            String fields) {
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        return transactionRepository.findByUserIdAndCategoryId(
+                userId, categoryId, range.getStart(), range.getEnd(), includesDescription(fields), pageable);
+    }
+
+
+    // SEARCH (any combination of filters, one query)
+    @Transactional(readOnly = true)
+    public Page<TransactionResponseDTO> searchTransactions(
+            Integer userId,
+            TransactionSearchCriteria criteria,
+            Pageable pageable,
+            String fields) {
+
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        return transactionRepository.search(
+                TransactionSpecifications.matching(userId, criteria), includesDescription(fields), pageable);
+    }
 
-        return transactionRepository
-                .findByUserIdAndCategoryId(userId, categoryId, pageable)
-                .map(this::mapToResponse);
+
+    // GET ALL BY USER (keyset)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByUserIdAfter(
+            Integer userId,
+            LocalDate from,
+            LocalDate to,
+            String cursor,
+            int size,
+            String fields) {
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        Pageable limit = cursorLimit(size);
+        boolean description = includesDescription(fields);
+        if (cursor == null) {
+            return toCursorPage(transactionRepository.findFirstByUserId(
+                    userId, range.getStart(), range.getEnd(), description, limit), limit);
+        }
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        return toCursorPage(transactionRepository.findNextByUserId(
+                userId, range.getStart(), position.getTransactionDate(), position.getId(), description, limit), limit);
+    }
+
+
+    // GET BY ACCOUNT (keyset)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByAccountIdAfter(
+            Integer userId,
+            Integer accountId,
+            LocalDate from,
+            LocalDate to,
+            String cursor,
+            int size,
+            String fields) {
+
+        ownershipCache.requireAccount(userId, accountId);
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        Pageable limit = cursorLimit(size);
+        boolean description = includesDescription(fields);
+        if (cursor == null) {
+            return toCursorPage(transactionRepository.findFirstByUserIdAndAccountId(
+                    userId, accountId, range.getStart(), range.getEnd(), description, limit), limit);
+        }
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        return toCursorPage(transactionRepository.findNextByUserIdAndAccountId(
+                userId, accountId, range.getStart(), position.getTransactionDate(), position.getId(), description, limit), limit);
+    }
+
+
+    // GET BY CATEGORY (keyset)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionResponseDTO> getTransactionsByCategoryIdAfter(
+            Integer userId,
+            Integer categoryId,
+            LocalDate from,
+            LocalDate to,
+            String cursor,
+            int size,
+            String fields) {
+
+        TransactionDateRange range = TransactionDateRange.of(from, to);
+        Pageable limit = cursorLimit(size);
+        boolean description = includesDescription(fields);
+        if (cursor == null) {
+            return toCursorPage(transactionRepository.findFirstByUserIdAndCategoryId(
+                    userId, categoryId, range.getStart(), range.getEnd(), description, limit), limit);
+        }
+        TransactionCursor position = TransactionCursor.decode(cursor);
+        return toCursorPage(transactionRepository.findNextByUserIdAndCategoryId(
+                userId, categoryId, range.getStart(), position.getTransactionDate(), position.getId(), description, limit), limit);
     }
 
 
     // GET SINGLE
+    @Transactional(readOnly = true)
     public TransactionResponseDTO getTransaction(
             Integer txnId,
             Integer userId) {
@@ -112,6 +342,7 @@ public class TransactionService {
 
 
     // DELETE
+    @Transactional
     public void deleteTransaction(
             Integer txnId,
             Integer userId) {
@@ -121,19 +352,107 @@ public class TransactionService {
                 .orElseThrow(() ->
                         new ResourceNotFoundException("Transaction not found"));
 
-        transactionRepository.delete(transaction);
+        // The lookup takes no lock: a concurrent delete of the same row that committed first
+        // leaves nothing to delete here, and the balance, rollup and outbox must not see it twice
+        if (transactionRepository.deleteByIdAndTransactionDate(transaction.getId(), transaction.getTransactionDate()) == 0) {
+            throw new ResourceNotFoundException("Transaction not found");
+        }
+        accountRepository.adjustBalance(transaction.getAccountId(), signedAmount(transaction).negate());
+        monthlyRollupService.recordDeleted(List.of(transaction));
+        transactionOutbox.record(OutboxEventType.TRANSACTION_DELETED, List.of(mapToResponse(transaction)));
+        eventPublisher.publishEvent(new TransactionsChangedEvent(userId));
     }
 
     // GET BALANCE
+    // Reads the materialized balance; the ledger sum is only used for reconciliation
     public BigDecimal getAccountBalance(Integer accountId, Integer userId) {
 
-        accountRepository.findByIdAndUserId(accountId, userId)
+        return accountRepository.findBalanceByIdAndUserId(accountId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+    }
+
+    private BigDecimal signedAmount(Transaction t) {
+
+        return t.getTransactionType() == TransactionType.INCOME ? t.getAmount() : t.getAmount().negate();
+    }
+
+    // One extra row is fetched to learn whether another page exists without counting
+    private Pageable cursorLimit(int size) {
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPageDTO<TransactionResponseDTO> toCursorPage(List<TransactionResponseDTO> rows, Pageable limit) {
+
+        int size = limit.getPageSize() - 1;
+        boolean hasNext = rows.size() > size;
+        List<TransactionResponseDTO> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionResponseDTO last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getTransactionDate(), last.getId()).encode();
+        }
+
+        return new CursorPageDTO<>(page, nextCursor);
+    }
 
-        return transactionRepository.getAccountBalance(userId, accountId);
+    // ?fields= is a comma-separated list of response properties. Only description is
+    // expensive to read (TEXT), so it is the one actually dropped from the query when
+    // it is not listed; the other columns are always returned.
+    static boolean includesDescription(String fields) {
+
+        if (fields == null || fields.isBlank()) {
+            return true;
+        }
+        boolean description = false;
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!RESPONSE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            description |= name.equals("description");
+        }
+        return description;
+    }
+
+    private Transaction toEntity(TransactionCreateRequestDTO request, Integer userId) {
+
+        Transaction transaction = new Transaction();
+        transaction.setUserId(userId);
+        transaction.setAccountId(request.getAccountId());
+        transaction.setCategoryId(request.getCategoryId());
+        transaction.setAmount(request.getAmount());
+        transaction.setDescription(request.getDescription());
+        transaction.setTransactionType(request.getTransactionType());
+        transaction.setTransactionDate(request.getTransactionDate());
+
+        return transaction;
+    }
+
+    private void recordBatchMetrics(int created, int rejected, long elapsedNanos) {
+
+        meterRegistry.counter("transactions.batch.rows", "outcome", "created").increment(created);
+        meterRegistry.counter("transactions.batch.rows", "outcome", "rejected").increment(rejected);
+
+        Timer.builder("transactions.batch.duration")
+                .description("Time to validate and insert one transaction batch")
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (created > 0 && elapsedNanos > 0) {
+            DistributionSummary.builder("transactions.batch.throughput")
+                    .description("Rows inserted per second for each batch")
+                    .baseUnit("rows/s")
+                    .register(meterRegistry)
+                    .record(created * 1_000_000_000d / elapsedNanos);
+        }
     }
 
-    private TransactionResponseDTO mapToResponse(Transaction t) {
+    static TransactionResponseDTO mapToResponse(Transaction t) {
 
         TransactionResponseDTO dto = new TransactionResponseDTO();
 
@@ -1,13 +1,16 @@
 package com.mandyk.expense.service;
 
+import com.mandyk.expense.config.CacheConfig;
 import com.mandyk.expense.dto.ChangePasswordDTO;
 import com.mandyk.expense.dto.UpdateProfileDTO;
 import com.mandyk.expense.dto.UserDTO;
 import com.mandyk.expense.entity.User;
+import com.mandyk.expense.event.UserChangedEvent;
 import com.mandyk.expense.exception.InvalidPasswordException;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,14 +18,19 @@ public class UserService {
 
     private UserRepository userRepository;
 
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    private ApplicationEventPublisher eventPublisher;
+
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.eventPublisher = eventPublisher;
     }
 
     // GET PROFILE
+    @Cacheable(cacheNames = CacheConfig.USER_PROFILES, key = "#userId")
     public UserDTO getProfile(Integer userId) {
 
         User user = userRepository.findById(userId)
@@ -45,6 +53,7 @@ public class UserService {
         user.setEmail(dto.getEmail());
 
         User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
 
         return mapToDTO(saved);
     }
@@ -55,15 +64,16 @@ public class UserService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(dto.getOldPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(dto.getOldPassword(), user.getPassword())) {
             throw new InvalidPasswordException("Old password is incorrect");
         }
 
-        if(passwordEncoder.matches(dto.getNewPassword(), user.getPassword())) {
+        // The old password was just verified, so comparing the plain values is enough
+        if(dto.getNewPassword().equals(dto.getOldPassword())) {
             throw new IllegalArgumentException("New password must be different from old password");
         }
 
-        user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(dto.getNewPassword()));
 
         userRepository.save(user);
     }
@@ -74,6 +84,7 @@ public class UserService {
             throw new ResourceNotFoundException("User not found");
         }
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, true));
     }
 
     // MAPPER
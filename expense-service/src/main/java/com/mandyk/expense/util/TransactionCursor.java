@@ -0,0 +1,46 @@
+package com.mandyk.expense.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a transaction listing ordered by (transactionDate desc, id desc).
+ * Clients only ever see the opaque, URL-safe encoded form.
+ */
+public class TransactionCursor {
+
+    private final LocalDateTime transactionDate;
+    private final Integer id;
+
+    public TransactionCursor(LocalDateTime transactionDate, Integer id) {
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = transactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TransactionCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
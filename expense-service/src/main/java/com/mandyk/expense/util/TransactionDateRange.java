@@ -0,0 +1,41 @@
+package com.mandyk.expense.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A [start, end) range on transactionDate built from optional, inclusive client dates.
+ * Every listing and search query takes one, so Postgres only scans the monthly
+ * partitions it covers. Without dates it runs from EARLIEST through today: write paths
+ * reject future-dated transactions, so that still holds every row.
+ */
+public class TransactionDateRange {
+
+    // Lower bound when the client does not pass one; well before any real statement
+    public static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    private TransactionDateRange(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public static TransactionDateRange of(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        return new TransactionDateRange(
+                (from != null ? from : EARLIEST).atStartOfDay(),
+                (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay());
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,7 @@
+-- The relay reads unpublished rows in created_at order (ties by id): ids come from
+-- per-instance blocks of transaction_outbox_seq, so they do not follow insertion order
+-- across instances.
+
+DROP INDEX idx_outbox_unpublished;
+
+CREATE INDEX idx_outbox_unpublished ON transaction_outbox (created_at, id) WHERE published_at IS NULL;
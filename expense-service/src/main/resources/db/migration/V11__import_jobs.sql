@@ -0,0 +1,24 @@
+-- Progress and row errors of statement imports, so a status poll answers on any instance
+-- and after a restart. ImportJobRegistry inserts the row when the upload is accepted and
+-- the worker's instance rewrites it every import.progress-interval and when the job
+-- finishes; errors holds the kept row errors as a JSON array.
+
+CREATE TABLE import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    account_id INTEGER NOT NULL,
+    format VARCHAR(8) NOT NULL,
+    filename TEXT,
+    status VARCHAR(16) NOT NULL CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    rows_read BIGINT NOT NULL,
+    rows_imported BIGINT NOT NULL,
+    rows_rejected BIGINT NOT NULL,
+    failure_message TEXT,
+    errors TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6)
+);
+
+-- retention cleanup; an unfinished job expires from its last update
+CREATE INDEX idx_import_jobs_expiry ON import_jobs ((coalesce(finished_at, updated_at)));
@@ -0,0 +1,42 @@
+-- Baseline: exactly the schema Hibernate (ddl-auto: update) had been maintaining until
+-- Flyway took over. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only run the migrations that follow, so
+-- anything added since belongs in a later version, never here.
+
+CREATE TABLE IF NOT EXISTS users (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS account (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    user_id INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS category (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    user_id INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount NUMERIC(15, 2) NOT NULL,
+    description TEXT,
+    transaction_date TIMESTAMP(6),
+    type VARCHAR(255) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    account_id INTEGER NOT NULL,
+    category_id INTEGER,
+    user_id INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- as declared on the entity at the time; V2 replaces them
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date ON transactions (user_id);
+CREATE INDEX IF NOT EXISTS idx_transactions_account ON transactions (account_id);
@@ -0,0 +1,36 @@
+-- Secondary indexes, one per repository access path. Names match the @Index
+-- declarations on the entities, which SchemaIndexVerifier checks at startup.
+--
+-- Transaction indexes are dropped and recreated rather than created IF NOT EXISTS:
+-- databases that ran under ddl-auto: update can hold an older idx_transactions_user_date
+-- on user_id alone, and Hibernate never redefines an index whose name already exists.
+
+-- user lists, keyset pages and exports: user_id = ? order by transaction_date, id
+DROP INDEX IF EXISTS idx_transactions_user_date;
+CREATE INDEX idx_transactions_user_date
+    ON transactions (user_id, transaction_date DESC, id DESC);
+
+-- account lists and keyset pages, ledger balance per account
+DROP INDEX IF EXISTS idx_transactions_account_date;
+CREATE INDEX idx_transactions_account_date
+    ON transactions (account_id, transaction_date DESC, id DESC);
+
+-- category lists and keyset pages
+DROP INDEX IF EXISTS idx_transactions_category_date;
+CREATE INDEX idx_transactions_category_date
+    ON transactions (category_id, transaction_date DESC, id DESC);
+
+-- search by type (+ date range); amount is included so income/expense totals and the
+-- monthly rollup rebuild are answered from the index alone
+DROP INDEX IF EXISTS idx_transactions_user_type_date;
+CREATE INDEX idx_transactions_user_type_date
+    ON transactions (user_id, type, transaction_date DESC, id DESC) INCLUDE (amount);
+
+-- search by amount range
+DROP INDEX IF EXISTS idx_transactions_user_amount;
+CREATE INDEX idx_transactions_user_amount
+    ON transactions (user_id, amount);
+
+-- account and category lists per user
+CREATE INDEX IF NOT EXISTS idx_account_user ON account (user_id);
+CREATE INDEX IF NOT EXISTS idx_category_user ON category (user_id);
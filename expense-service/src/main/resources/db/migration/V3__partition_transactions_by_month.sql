@@ -0,0 +1,72 @@
+-- Monthly range partitions on transaction_date. Date-bounded queries (keyset pages,
+-- exports, searches with a date range, analytics) only touch the months they cover, and
+-- old months can be detached as a whole instead of deleted row by row.
+-- TransactionPartitionService creates the months ahead and applies the retention.
+--
+-- Postgres cannot partition a table in place: the rows are copied into a new
+-- partitioned table, which then takes over the name. This rewrites the table once.
+
+-- The partition key must be part of the primary key, and cannot be null
+CREATE TABLE transactions_partitioned (
+    id INTEGER NOT NULL,
+    amount NUMERIC(15, 2) NOT NULL,
+    description TEXT,
+    transaction_date TIMESTAMP(6) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    account_id INTEGER NOT NULL,
+    category_id INTEGER,
+    user_id INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT transactions_type_check CHECK (type IN ('INCOME', 'EXPENSE')),
+    CONSTRAINT transactions_partitioned_pkey PRIMARY KEY (id, transaction_date)
+) PARTITION BY RANGE (transaction_date);
+
+-- Catches rows outside every monthly partition (very old or far-future dates)
+CREATE TABLE transactions_default PARTITION OF transactions_partitioned DEFAULT;
+
+-- One partition per month, from the oldest existing row (at most ten years back)
+-- through three months ahead; partitions.months-ahead keeps extending it
+DO $$
+DECLARE
+    month_start DATE := greatest(
+        date_trunc('month', coalesce((SELECT min(transaction_date) FROM transactions), now())),
+        date_trunc('month', now()) - INTERVAL '10 years')::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_p' || to_char(month_start, 'YYYYMM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- rows written before transaction_date was defaulted fall back to their creation time
+INSERT INTO transactions_partitioned
+    (id, amount, description, transaction_date, type, account_id, category_id, user_id, created_at)
+SELECT id, amount, description, coalesce(transaction_date, created_at), type, account_id, category_id, user_id, created_at
+FROM transactions;
+
+DROP TABLE transactions;
+ALTER TABLE transactions_partitioned RENAME TO transactions;
+ALTER TABLE transactions RENAME CONSTRAINT transactions_partitioned_pkey TO transactions_pkey;
+
+-- Same indexes as V2, now partitioned: each is created on every partition, including
+-- the ones TransactionPartitionService adds later
+CREATE INDEX idx_transactions_user_date
+    ON transactions (user_id, transaction_date DESC, id DESC);
+
+CREATE INDEX idx_transactions_account_date
+    ON transactions (account_id, transaction_date DESC, id DESC);
+
+CREATE INDEX idx_transactions_category_date
+    ON transactions (category_id, transaction_date DESC, id DESC);
+
+CREATE INDEX idx_transactions_user_type_date
+    ON transactions (user_id, type, transaction_date DESC, id DESC) INCLUDE (amount);
+
+CREATE INDEX idx_transactions_user_amount
+    ON transactions (user_id, amount);
+
+ANALYZE transactions;
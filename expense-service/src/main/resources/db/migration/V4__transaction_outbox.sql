@@ -0,0 +1,21 @@
+-- Transactional outbox: one row per ledger change, written in the same transaction as
+-- the change itself. OutboxRelay publishes unpublished rows to the configured sinks.
+
+CREATE SEQUENCE IF NOT EXISTS transaction_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE transaction_outbox (
+    id BIGINT PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL CHECK (event_type IN ('TRANSACTION_CREATED', 'TRANSACTION_DELETED')),
+    user_id INTEGER NOT NULL,
+    account_id INTEGER NOT NULL,
+    transaction_id INTEGER NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6)
+);
+
+-- the relay's poll: unpublished rows in id order; stays small however large the table grows
+CREATE INDEX idx_outbox_unpublished ON transaction_outbox (id) WHERE published_at IS NULL;
+
+-- retention cleanup of published rows
+CREATE INDEX idx_outbox_published_at ON transaction_outbox (published_at);
@@ -0,0 +1,9 @@
+-- transactions_seq replaces the IDENTITY column V1 gave transactions (dropped with the
+-- table in V3). The rows V3 copied keep their identity ids, so the sequence has to start
+-- above every one of them. Safe to run on any database: it only ever advances the
+-- sequence to max(id) + 1.
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('transactions_seq',
+              greatest((SELECT COALESCE(MAX(id), 0) FROM transactions) + 1,
+                       (SELECT last_value FROM transactions_seq)));
@@ -0,0 +1,15 @@
+-- Materialized running balance per account, kept current by TransactionService with
+-- atomic increments and checked nightly by BalanceReconciliationService.
+-- Existing accounts start from their ledger: income minus expenses.
+
+ALTER TABLE account ADD COLUMN balance NUMERIC(15, 2) NOT NULL DEFAULT 0;
+
+UPDATE account a
+SET balance = l.ledger
+FROM (
+    SELECT t.account_id,
+           sum(CASE WHEN t.type = 'INCOME' THEN t.amount ELSE -t.amount END) AS ledger
+    FROM transactions t
+    GROUP BY t.account_id
+) l
+WHERE l.account_id = a.id;
@@ -0,0 +1,23 @@
+-- Per user/month/type/category totals kept current by MonthlyRollupService on every
+-- transaction insert and delete; category_id 0 stands for "no category".
+-- Built here from the existing ledger, the same way MonthlyRollupService.rebuild does.
+
+CREATE TABLE user_month_rollup (
+    user_id INTEGER NOT NULL,
+    month_start DATE NOT NULL,
+    type VARCHAR(10) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    category_id INTEGER NOT NULL,
+    total_amount NUMERIC(17, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, month_start, type, category_id)
+);
+
+INSERT INTO user_month_rollup (user_id, month_start, type, category_id, total_amount, transaction_count)
+SELECT t.user_id,
+       date_trunc('month', t.transaction_date)::date,
+       t.type,
+       coalesce(t.category_id, 0),
+       sum(t.amount),
+       count(*)
+FROM transactions t
+GROUP BY 1, 2, 3, 4;
@@ -0,0 +1,34 @@
+-- Every transaction id with the date that places its row in a partition. The partitioned
+-- table's primary key has to be (id, transaction_date), so Postgres can neither find a
+-- row by id alone without probing every partition, nor stop an id being used twice.
+-- This table's primary key does both: lookups by id read the date here first (see
+-- TransactionRepository.findByIdAndUserId), and a reused id fails its insert.
+--
+-- Maintained by triggers, so every write path keeps it current, batched JDBC inserts and
+-- SQL run by hand included. Rows are never updated (transaction_date is not updatable).
+-- Ids of partitions detached by the retention job stay here, still reserved.
+
+CREATE TABLE transaction_ids (
+    id INTEGER PRIMARY KEY,
+    transaction_date TIMESTAMP(6) NOT NULL
+);
+
+-- Fails the migration, naming the id, if one is already used by two rows
+INSERT INTO transaction_ids (id, transaction_date)
+SELECT id, transaction_date FROM transactions;
+
+CREATE FUNCTION transaction_ids_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO transaction_ids (id, transaction_date) VALUES (NEW.id, NEW.transaction_date);
+    ELSE
+        DELETE FROM transaction_ids WHERE id = OLD.id;
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER transactions_ids_insert AFTER INSERT ON transactions
+    FOR EACH ROW EXECUTE FUNCTION transaction_ids_sync();
+
+CREATE TRIGGER transactions_ids_delete AFTER DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION transaction_ids_sync();
@@ -0,0 +1,9 @@
+-- What each account's transactions in detached (archived) months add up to, written by
+-- TransactionPartitionService in the same transaction as the detach. Balance
+-- reconciliation adds it to the live ledger, so a retention setting does not make
+-- every balance look drifted.
+
+CREATE TABLE account_archived_balance (
+    account_id INTEGER PRIMARY KEY,
+    balance NUMERIC(17, 2) NOT NULL
+);
@@ -0,0 +1,112 @@
+package com.mandyk.expense.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.mandyk.expense.entity.Account;
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.UserChangedEvent;
+import com.mandyk.expense.repository.AccountRepository;
+import com.mandyk.expense.service.AccountService;
+import com.mandyk.expense.service.OwnershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+// Wires the real cache proxy and eviction listener around AccountService
+@SpringBootTest(classes = {CacheConfig.class, CacheEvictionListener.class, AccountService.class},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class CacheConfigTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockitoBean
+    private AccountRepository accountRepository;
+
+    @MockitoBean
+    private OwnershipCache ownershipCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ACCOUNTS).clear();
+        Account account = new Account();
+        account.setId(1);
+        account.setUserId(1);
+        account.setName("Main");
+        when(accountRepository.findByUserId(1)).thenReturn(List.of(account));
+    }
+
+    @Test
+    void accountsShouldBeServedFromCacheUntilChanged() {
+        accountService.getAccountsByUserId(1);
+        accountService.getAccountsByUserId(1);
+        verify(accountRepository, times(1)).findByUserId(1);
+
+        eventPublisher.publishEvent(new AccountsChangedEvent(1));
+        accountService.getAccountsByUserId(1);
+
+        verify(accountRepository, times(2)).findByUserId(1);
+    }
+
+    @Test
+    void userDeletionShouldEvictTheirAccounts() {
+        accountService.getAccountsByUserId(1);
+
+        eventPublisher.publishEvent(new UserChangedEvent(1, true));
+        accountService.getAccountsByUserId(1);
+
+        verify(accountRepository, times(2)).findByUserId(1);
+    }
+
+    @Test
+    void changesInsideATransactionShouldEvictNowAndAgainOnCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            accountService.getAccountsByUserId(1);
+
+            eventPublisher.publishEvent(new AccountsChangedEvent(1));
+            // a read later in the same transaction goes to the database
+            accountService.getAccountsByUserId(1);
+            verify(accountRepository, times(2)).findByUserId(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // what that read cached is dropped with the transaction
+        accountService.getAccountsByUserId(1);
+        verify(accountRepository, times(3)).findByUserId(1);
+    }
+
+    @Test
+    void cachesShouldRecordStatisticsForMetrics() {
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache(CacheConfig.ACCOUNTS)).getNativeCache();
+        long hits = nativeCache.stats().hitCount();
+
+        accountService.getAccountsByUserId(1);
+        accountService.getAccountsByUserId(1);
+
+        assertThat(nativeCache.stats().hitCount()).isEqualTo(hits + 1);
+        assertThat(cacheManager.getCacheNames())
+                .containsExactlyInAnyOrder(CacheConfig.ACCOUNTS, CacheConfig.CATEGORIES, CacheConfig.USER_PROFILES);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mandyk.expense.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldPassRequestAndReleasePermit() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimit(1), Duration.ofMillis(50), meterRegistry);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts/users"), response, chain);
+
+            assertThat(chain.getRequest()).isNotNull();
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.get("http.server.requests.permits.available").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReturn503WhenNoPermitBecomesAvailable() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimit(0), Duration.ofMillis(10), meterRegistry);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts/users"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).isEqualTo("Server is busy, retry later");
+        // no sendError, which would forward the request to /error
+        assertThat(response.getErrorMessage()).isNull();
+        assertThat(meterRegistry.get("http.server.requests.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldShareItsPermitsWithBackgroundTasks() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limit, Duration.ofMillis(10), meterRegistry);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // a background task holding the only permit, as an import or export would
+        limit.decorate(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/accounts/users"), response, new MockFilterChain());
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }).run();
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(limit.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotLimitActuatorRequests() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(new ConcurrencyLimit(0), Duration.ofMillis(10), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.mandyk.expense.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimedJacksonHttpMessageConverterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TimedJacksonHttpMessageConverter converter =
+            new TimedJacksonHttpMessageConverter(new ObjectMapper(), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldTimeSerializationUnderTheMatchedUri() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/7/balance");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/transactions/{accountId}/balance");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(Map.of("balance", 12.5), MediaType.APPLICATION_JSON, message);
+
+        assertThat(message.getBodyAsString()).isEqualTo("{\"balance\":12.5}");
+        assertThat(meterRegistry.get("http.server.response.serialization")
+                .tag("uri", "/api/transactions/{accountId}/balance").tag("outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordFailedWritesOutsideARequest() {
+        MockHttpOutputMessage message = new MockHttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+
+        assertThatThrownBy(() -> converter.write(Map.of("balance", 12.5), MediaType.APPLICATION_JSON, message))
+                .isInstanceOf(IOException.class);
+        assertThat(meterRegistry.get("http.server.response.serialization")
+                .tag("uri", "UNKNOWN").tag("outcome", "ERROR")
+                .timer().count()).isEqualTo(1);
+    }
+}
@@ -4,11 +4,10 @@ import com.mandyk.expense.dto.AccountDTO;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.service.AccountService;
 import com.mandyk.expense.service.JwtService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
 import static org.mockito.ArgumentMatchers.any;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,9 +39,6 @@ public class AccountControllerTest {
     @MockitoBean
     private JwtService jwtService;
 
-    @MockitoBean
-    private JwtUtil jwtUtil;
-
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -57,8 +53,7 @@ public class AccountControllerTest {
     void getAccountShouldReturnListOfAccounts() throws Exception {
 
         when(accountService.getAccountsByUserId(1)).thenReturn(List.of(account));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/accounts/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
@@ -69,8 +64,7 @@ public class AccountControllerTest {
     @Test
     void getAccountShouldReturnEmptyListWhenNoAccounts() throws Exception {
         when(accountService.getAccountsByUserId(1)).thenReturn(List.of());
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/accounts/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isEmpty());
@@ -98,8 +92,7 @@ public class AccountControllerTest {
     @Test
     void shouldReturnAccountById() throws Exception {
         when(accountService.getAccountById(1, 1)).thenReturn(account);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/accounts/1").param("userId", "1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
@@ -109,8 +102,7 @@ public class AccountControllerTest {
     @Test
     void getAccountByIdShouldReturn404WhenNotFound() throws Exception {
         when(accountService.getAccountById(99, 1)).thenThrow(new ResourceNotFoundException("Account Not Found"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/accounts/99").param("userId", "1"))
                 .andExpect(status().isNotFound());
     }
@@ -125,8 +117,7 @@ public class AccountControllerTest {
     @Test
     void deleteAccountShouldReturn404WhenAccountNotFound() throws Exception {
         doThrow(new ResourceNotFoundException("Account Not Found")).when(accountService).deleteAccount(99, 1);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(delete("/api/accounts/99").param("userId", "1"))
                 .andExpect(status().isNotFound());
     }
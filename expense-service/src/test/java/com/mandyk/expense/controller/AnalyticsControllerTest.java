@@ -0,0 +1,97 @@
+package com.mandyk.expense.controller;
+
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.MonthlyExpenseDTO;
+import com.mandyk.expense.dto.TransactionSummaryDTO;
+import com.mandyk.expense.service.AnalyticsService;
+import com.mandyk.expense.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Test
+    void getMonthlyTrendShouldReturnMonths() throws Exception {
+        MonthlyExpenseDTO january = new MonthlyExpenseDTO(YearMonth.of(2025, 1));
+        january.setTotalExpense(new BigDecimal("40.00"));
+        january.setTotalIncome(new BigDecimal("100.00"));
+        january.setTransactionCount(4);
+        when(analyticsService.getMonthlyTrend(1, YearMonth.of(2025, 1), YearMonth.of(2025, 1))).thenReturn(List.of(january));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/analytics/monthly").param("from", "2025-01").param("to", "2025-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].month").value("2025-01"))
+                .andExpect(jsonPath("$[0].totalExpense").value(40.00))
+                .andExpect(jsonPath("$[0].net").value(60.00))
+                .andExpect(jsonPath("$[0].transactionCount").value(4));
+    }
+
+    @Test
+    void getMonthlyTrendShouldReturn400ForInvalidRange() throws Exception {
+        when(analyticsService.getMonthlyTrend(1, YearMonth.of(2025, 5), YearMonth.of(2025, 1)))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/analytics/monthly").param("from", "2025-05").param("to", "2025-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getExpenseByCategoryShouldReturnNamedCategories() throws Exception {
+        when(analyticsService.getExpenseByCategory(1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))).thenReturn(List.of(
+                new CategoryExpenseDTO(4, "Food", new BigDecimal("80.00"), 5L),
+                new CategoryExpenseDTO(null, null, new BigDecimal("12.50"), 1L)));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/analytics/categories").param("from", "2025-01-01").param("to", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoryId").value(4))
+                .andExpect(jsonPath("$[0].categoryName").value("Food"))
+                .andExpect(jsonPath("$[0].totalExpense").value(80.00))
+                .andExpect(jsonPath("$[0].transactionCount").value(5))
+                .andExpect(jsonPath("$[1].categoryId").doesNotExist());
+    }
+
+    @Test
+    void getSummaryShouldReturnTotals() throws Exception {
+        TransactionSummaryDTO summary = new TransactionSummaryDTO();
+        summary.setTotalIncome(new BigDecimal("500.00"));
+        summary.setTotalExpense(new BigDecimal("120.00"));
+        summary.setTransactionCount(9);
+        when(analyticsService.getSummary(1)).thenReturn(summary);
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/analytics/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalIncome").value(500.00))
+                .andExpect(jsonPath("$.net").value(380.00))
+                .andExpect(jsonPath("$.transactionCount").value(9));
+    }
+}
@@ -5,6 +5,7 @@ import com.mandyk.expense.dto.AuthRequest;
 import com.mandyk.expense.dto.AuthResponse;
 import com.mandyk.expense.exception.GlobalExceptionHandler;
 import com.mandyk.expense.exception.InvalidPasswordException;
+import com.mandyk.expense.exception.ServiceBusyException;
 import com.mandyk.expense.service.AuthService;
 import com.mandyk.expense.service.JwtService;
 import org.junit.jupiter.api.BeforeEach;
@@ -123,6 +124,18 @@ public class AuthControllerTest {
                 .andExpect(jsonPath("$.email").value("mandeep@email.com"));
     }
 
+    @Test
+    void loginShouldReturn429WhenPasswordHashingIsSaturated() throws Exception {
+        when(authService.loginUser(any(AuthRequest.class)))
+                .thenThrow(new ServiceBusyException("Too many authentication requests, retry later"));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void loginShouldReturn400WhenEmailIsBlank() throws Exception {
         request.setEmail("");
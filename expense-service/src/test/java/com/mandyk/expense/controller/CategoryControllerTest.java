@@ -4,8 +4,6 @@ import com.mandyk.expense.dto.CategoryDTO;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.service.CategoryService;
 import com.mandyk.expense.service.JwtService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +17,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 
 
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -38,9 +37,6 @@ public class CategoryControllerTest {
     @MockitoBean
     private JwtService jwtService;
 
-    @MockitoBean
-    private JwtUtil jwtUtil;
-
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -54,8 +50,7 @@ public class CategoryControllerTest {
     @Test
     public void shouldGetAllCategoriesForUserId() throws Exception {
         when(categoryService.getCategoriesByUserId(1)).thenReturn(List.of(category));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/categories/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1))
@@ -74,8 +69,7 @@ public class CategoryControllerTest {
     @Test
     void getCategoriesShouldReturn404WhenUserNotFound() throws Exception {
         when(categoryService.getCategoriesByUserId(1)).thenThrow(new ResourceNotFoundException("User Not Found"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/categories/users"))
                 .andExpect(status().isNotFound());
     }
@@ -120,8 +114,7 @@ public class CategoryControllerTest {
     void deleteCategoryShouldReturn404WhenCategoryNotFound() throws Exception {
         doThrow(new ResourceNotFoundException("Category not found"))
                 .when(categoryService).deleteCategory(99, 1);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(delete("/api/categories/99").param("userId", "1"))
                 .andExpect(status().isNotFound());
     }
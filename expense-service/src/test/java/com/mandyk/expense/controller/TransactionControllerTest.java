@@ -3,14 +3,21 @@ package com.mandyk.expense.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mandyk.expense.dto.BalanceDTO;
+import com.mandyk.expense.dto.CursorPageDTO;
+import com.mandyk.expense.dto.TransactionBatchRequestDTO;
+import com.mandyk.expense.dto.TransactionBatchResponseDTO;
+import com.mandyk.expense.dto.TransactionBatchResultDTO;
 import com.mandyk.expense.dto.TransactionCreateRequestDTO;
 import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.dto.TransactionSearchCriteria;
 import com.mandyk.expense.entity.TransactionType;
 import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.exporter.ExportFormat;
+import com.mandyk.expense.exception.ServiceBusyException;
 import com.mandyk.expense.service.JwtService;
+import com.mandyk.expense.service.LiveUpdateRegistry;
+import com.mandyk.expense.service.TransactionExportService;
 import com.mandyk.expense.service.TransactionService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,16 +29,28 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -45,10 +64,13 @@ public class TransactionControllerTest {
     private TransactionService transactionService;
 
     @MockitoBean
-    private JwtService jwtService;
+    private TransactionExportService transactionExportService;
 
     @MockitoBean
-    private JwtUtil jwtUtil;
+    private LiveUpdateRegistry liveUpdateRegistry;
+
+    @MockitoBean
+    private JwtService jwtService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -89,8 +111,7 @@ public class TransactionControllerTest {
     void createTransactionShouldReturnCreatedTransaction() throws Exception {
         when(transactionService.createTransaction(any(TransactionCreateRequestDTO.class), eq(1)))
                 .thenReturn(response);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(post("/api/transactions")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
@@ -117,13 +138,41 @@ public class TransactionControllerTest {
     }
 
 
+    @Test
+    void createTransactionsShouldReturnPerRowResults() throws Exception {
+        TransactionBatchResponseDTO batchResponse = new TransactionBatchResponseDTO(1, 1, List.of(
+                TransactionBatchResultDTO.created(0, 10),
+                TransactionBatchResultDTO.rejected(1, "Account not found")));
+        when(transactionService.createTransactions(anyList(), eq(1))).thenReturn(batchResponse);
+        authenticateAs(1);
+
+        TransactionBatchRequestDTO batch = new TransactionBatchRequestDTO();
+        batch.setTransactions(List.of(request, request));
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].transactionId").value(10))
+                .andExpect(jsonPath("$.results[1].error").value("Account not found"));
+    }
+
+    @Test
+    void createTransactionsShouldReturn400WhenBatchIsEmpty() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transactions\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getTransactionsByUserShouldReturnPageOfTransactions() throws Exception {
         Page<TransactionResponseDTO> page = new PageImpl<>(List.of(response));
-        when(transactionService.getTransactionsByUserId(eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByUserId(eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(page);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/user"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(1))
@@ -134,10 +183,9 @@ public class TransactionControllerTest {
     @Test
     void getTransactionsByUserShouldReturnEmptyPageWhenNoTransactions() throws Exception {
         Page<TransactionResponseDTO> emptyPage = new PageImpl<>(List.of());
-        when(transactionService.getTransactionsByUserId(eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByUserId(eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(emptyPage);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/user"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty())
@@ -147,7 +195,7 @@ public class TransactionControllerTest {
     @Test
     void getTransactionsByUserShouldSupportPaginationParams() throws Exception {
         Page<TransactionResponseDTO> page = new PageImpl<>(List.of(response));
-        when(transactionService.getTransactionsByUserId(eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByUserId(eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(page);
         mockMvc.perform(get("/api/transactions/user")
                         .param("page", "0")
@@ -156,13 +204,76 @@ public class TransactionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getTransactionsByUserShouldPassFieldsSelectorAndOmitDescription() throws Exception {
+        response.setDescription(null);
+        when(transactionService.getTransactionsByUserId(eq(1), isNull(), isNull(), any(Pageable.class), eq("id,amount")))
+                .thenReturn(new PageImpl<>(List.of(response)));
+        authenticateAs(1);
+        mockMvc.perform(get("/api/transactions/user").param("fields", "id,amount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].amount").value(100.00))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void getTransactionsByUserShouldPassDateRange() throws Exception {
+        when(transactionService.getTransactionsByUserId(eq(1), eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 1, 31)),
+                any(Pageable.class), isNull()))
+                .thenReturn(new PageImpl<>(List.of(response)));
+        authenticateAs(1);
+        mockMvc.perform(get("/api/transactions/user")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    @Test
+    void searchTransactionsShouldBindAllFilters() throws Exception {
+        when(transactionService.searchTransactions(eq(1), any(TransactionSearchCriteria.class), any(Pageable.class), isNull()))
+                .thenReturn(new PageImpl<>(List.of(response)));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/transactions/search")
+                        .param("accountId", "1")
+                        .param("categoryId", "2")
+                        .param("type", "EXPENSE")
+                        .param("minAmount", "10")
+                        .param("maxAmount", "200.50")
+                        .param("from", "2025-01-01")
+                        .param("to", "2025-01-31")
+                        .param("q", "grocery"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+
+        verify(transactionService).searchTransactions(eq(1), argThat(criteria ->
+                criteria.getAccountId() == 1
+                        && criteria.getCategoryId() == 2
+                        && criteria.getType() == TransactionType.EXPENSE
+                        && criteria.getMinAmount().compareTo(new BigDecimal("10")) == 0
+                        && criteria.getMaxAmount().compareTo(new BigDecimal("200.50")) == 0
+                        && criteria.getFrom().equals(LocalDate.of(2025, 1, 1))
+                        && criteria.getTo().equals(LocalDate.of(2025, 1, 31))
+                        && criteria.getQ().equals("grocery")), any(Pageable.class), isNull());
+    }
+
+    @Test
+    void searchTransactionsShouldReturn400ForUnknownType() throws Exception {
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/transactions/search").param("type", "REFUND"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transactionService);
+    }
+
     @Test
     void getTransactionsByAccountShouldReturnPageOfTransactions() throws Exception {
         Page<TransactionResponseDTO> page = new PageImpl<>(List.of(response));
-        when(transactionService.getTransactionsByAccountId(eq(1), eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByAccountId(eq(1), eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(page);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/account/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].accountId").value(1))
@@ -172,10 +283,9 @@ public class TransactionControllerTest {
     @Test
     void getTransactionsByAccountShouldReturnEmptyPageWhenNoTransactions() throws Exception {
         Page<TransactionResponseDTO> emptyPage = new PageImpl<>(List.of());
-        when(transactionService.getTransactionsByAccountId(eq(1), eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByAccountId(eq(1), eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(emptyPage);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/account/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
@@ -184,10 +294,9 @@ public class TransactionControllerTest {
     @Test
     void getTransactionsByCategoryShouldReturnPageOfTransactions() throws Exception {
         Page<TransactionResponseDTO> page = new PageImpl<>(List.of(response));
-        when(transactionService.getTransactionsByCategoryId(eq(1), eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByCategoryId(eq(1), eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(page);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/category/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].categoryId").value(1))
@@ -197,22 +306,55 @@ public class TransactionControllerTest {
     @Test
     void getTransactionsByCategoryShouldReturnEmptyPage_whenNoTransactions() throws Exception {
         Page<TransactionResponseDTO> emptyPage = new PageImpl<>(List.of());
-        when(transactionService.getTransactionsByCategoryId(eq(1), eq(1), any(Pageable.class)))
+        when(transactionService.getTransactionsByCategoryId(eq(1), eq(1), isNull(), isNull(), any(Pageable.class), isNull()))
                 .thenReturn(emptyPage);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/category/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
     }
 
+    @Test
+    void getTransactionsByUserCursorShouldReturnCursorPage() throws Exception {
+        when(transactionService.getTransactionsByUserIdAfter(1, null, null, "abc", 10, null))
+                .thenReturn(new CursorPageDTO<>(List.of(response), "next"));
+        authenticateAs(1);
+        mockMvc.perform(get("/api/transactions/user/cursor")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getTransactionsByAccountCursorShouldReturn400ForBadCursor() throws Exception {
+        when(transactionService.getTransactionsByAccountIdAfter(1, 1, null, null, "bad", 20, null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+        authenticateAs(1);
+        mockMvc.perform(get("/api/transactions/account/1/cursor").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTransactionsByCategoryCursorShouldReturnFirstPageWithoutCursor() throws Exception {
+        when(transactionService.getTransactionsByCategoryIdAfter(1, 1, null, null, null, 20, null))
+                .thenReturn(new CursorPageDTO<>(List.of(response), null));
+        authenticateAs(1);
+        mockMvc.perform(get("/api/transactions/category/1/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categoryId").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
     // --- GET /api/transactions/{txnId}/user/{userId} ---
 
     @Test
     void getTransactionShouldReturnSingleTransaction() throws Exception {
         when(transactionService.getTransaction(1, 1)).thenReturn(response);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
@@ -223,8 +365,7 @@ public class TransactionControllerTest {
     void getTransactionShouldReturn404WhenNotFound() throws Exception {
         when(transactionService.getTransaction(99, 1))
                 .thenThrow(new ResourceNotFoundException("Transaction not found"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/99"))
                 .andExpect(status().isNotFound());
     }
@@ -233,8 +374,7 @@ public class TransactionControllerTest {
     void getBalanceShouldReturnBalanceDTO() throws Exception {
         when(transactionService.getAccountBalance(1, 1))
                 .thenReturn(new BigDecimal("500.00"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/transactions/1/balance"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accountId").value(1))
@@ -245,8 +385,7 @@ public class TransactionControllerTest {
     void getBalanceShouldReturn404WhenAccountNotFound() throws Exception {
         when(transactionService.getAccountBalance(1, 99))
                 .thenThrow(new ResourceNotFoundException("Account not found"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(99);
+        authenticateAs(99);
         mockMvc.perform(get("/api/transactions/1/balance"))
                 .andExpect(status().isNotFound());
     }
@@ -264,9 +403,94 @@ public class TransactionControllerTest {
         doThrow(new ResourceNotFoundException("Transaction not found"))
                 .when(transactionService).deleteTransaction(99, 1);
 
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(delete("/api/transactions/99"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void exportShouldStreamCsvAsAttachment() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(transactionExportService).exportTransactions(eq(1), eq(ExportFormat.CSV),
+                eq(LocalDate.of(2025, 1, 1)), eq(null), any(OutputStream.class));
+        authenticateAs(1);
+
+        var result = mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "csv")
+                        .param("from", "2025-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string("id\r\n1\r\n"));
+    }
+
+    @Test
+    void exportShouldGzipWhenClientAcceptsIt() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(4, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(transactionExportService).exportTransactions(eq(1), eq(ExportFormat.NDJSON),
+                eq(null), eq(null), any(OutputStream.class));
+        authenticateAs(1);
+
+        var result = mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "ndjson")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}\n");
+        }
+    }
+
+    @Test
+    void exportShouldReturn400ForUnsupportedFormat() throws Exception {
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/transactions/export").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(transactionExportService);
+    }
+
+    @Test
+    void streamShouldSendEventsForTheCurrentUser() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(liveUpdateRegistry.subscribe(1)).thenReturn(emitter);
+        authenticateAs(1);
+
+        var result = mockMvc.perform(get("/api/transactions/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        emitter.send(SseEmitter.event().name("balance").data(balance, MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString())
+                .contains("event:balance", "data:{\"accountId\":1,\"balance\":500.00}");
+    }
+
+    @Test
+    void streamShouldReturn429WhenConnectionsAreExhausted() throws Exception {
+        when(liveUpdateRegistry.subscribe(1)).thenThrow(new ServiceBusyException("Too many live update connections"));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/transactions/stream"))
+                .andExpect(status().isTooManyRequests());
+    }
 }
@@ -0,0 +1,63 @@
+package com.mandyk.expense.controller;
+
+import com.mandyk.expense.dto.ImportJobDTO;
+import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.service.JwtService;
+import com.mandyk.expense.service.TransactionImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
+
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransactionImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class TransactionImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TransactionImportService importService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Test
+    void importStatementShouldReturnAcceptedJob() throws Exception {
+        ImportJobDTO job = new ImportJobDTO();
+        job.setId("job-1");
+        job.setStatus("QUEUED");
+        when(importService.startImport(any(MultipartFile.class), isNull(), eq(1), eq(1))).thenReturn(job);
+        authenticateAs(1);
+
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", "date,amount\n".getBytes());
+
+        mockMvc.perform(multipart("/api/transactions/import").file(file).param("accountId", "1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void getImportJobShouldReturn404WhenUnknown() throws Exception {
+        when(importService.getJob("missing", 1)).thenThrow(new ResourceNotFoundException("Import job not found"));
+        authenticateAs(1);
+
+        mockMvc.perform(get("/api/transactions/import/missing"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -9,8 +9,6 @@ import com.mandyk.expense.exception.InvalidPasswordException;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.service.JwtService;
 import com.mandyk.expense.service.UserService;
-import com.mandyk.expense.util.JwtUtil;
-import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +20,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 
+import static com.mandyk.expense.security.TestAuthentication.authenticateAs;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,9 +40,6 @@ public class UserControllerTest {
     @MockitoBean
     private JwtService jwtService;
 
-    @MockitoBean
-    private JwtUtil jwtUtil;
-
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -69,8 +65,7 @@ public class UserControllerTest {
     @Test
     void getProfileShouldReturnUserDTO() throws Exception {
         when(userService.getProfile(1)).thenReturn(sampleUser);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(get("/api/users/me").param("userId", "1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
@@ -82,8 +77,7 @@ public class UserControllerTest {
     void updateProfileShouldReturnUpdatedUser() throws Exception {
         UserDTO updatedUser = new UserDTO(1, "Sonia Updated", "sonia.updated@email.com", LocalDateTime.now());
         when(userService.updateProfile(any(UpdateProfileDTO.class), eq(1))).thenReturn(updatedUser);
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(put("/api/users/me")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateProfileDTO)))
@@ -103,8 +97,7 @@ public class UserControllerTest {
     void updateProfileShouldReturn404WhenUserNotFound() throws Exception {
         when(userService.updateProfile(any(UpdateProfileDTO.class), eq(1)))
                 .thenThrow(new ResourceNotFoundException("User not found"));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(put("/api/users/me")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateProfileDTO)))
@@ -132,8 +125,7 @@ public class UserControllerTest {
     void changePasswordShouldReturn400WhenPasswordIsWrong() throws Exception {
         doThrow(new InvalidPasswordException("Incorrect old password"))
                 .when(userService).changePassword(any(ChangePasswordDTO.class), eq(1));
-        when(jwtUtil.getUserIdFromRequest(any(HttpServletRequest.class)))
-                .thenReturn(1);
+        authenticateAs(1);
         mockMvc.perform(put("/api/users/me/password")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(changePasswordDTO)))
@@ -0,0 +1,53 @@
+package com.mandyk.expense.exporter;
+
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTransactionWriterTest {
+
+    private TransactionResponseDTO row(Integer id, String description, Integer categoryId) {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setId(id);
+        dto.setAmount(new BigDecimal("12.50"));
+        dto.setDescription(description);
+        dto.setTransactionDate(LocalDateTime.of(2025, 1, 10, 9, 30));
+        dto.setTransactionType(TransactionType.EXPENSE);
+        dto.setAccountId(3);
+        dto.setCategoryId(categoryId);
+        dto.setCreatedAt(LocalDateTime.of(2025, 1, 10, 9, 31));
+        return dto;
+    }
+
+    @Test
+    void shouldWriteHeaderAndOneLinePerRow() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvTransactionWriter writer = new CsvTransactionWriter(out);
+
+        writer.write(row(1, "Coffee", 7));
+        writer.write(row(2, null, null));
+        writer.flush();
+
+        assertThat(out.toString()).isEqualTo(
+                CsvTransactionWriter.HEADER + "\r\n"
+                        + "1,2025-01-10T09:30,EXPENSE,12.50,3,7,Coffee,2025-01-10T09:31\r\n"
+                        + "2,2025-01-10T09:30,EXPENSE,12.50,3,,,2025-01-10T09:31\r\n");
+    }
+
+    @Test
+    void shouldQuoteDescriptionsContainingDelimitersQuotesOrLineBreaks() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvTransactionWriter writer = new CsvTransactionWriter(out);
+
+        writer.write(row(1, "Dinner, \"Luigi's\"\nparty", 7));
+
+        assertThat(out.toString()).contains(",\"Dinner, \"\"Luigi's\"\"\nparty\",");
+    }
+}
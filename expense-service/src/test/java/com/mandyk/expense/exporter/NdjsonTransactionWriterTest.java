@@ -0,0 +1,48 @@
+package com.mandyk.expense.exporter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonTransactionWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine() throws IOException {
+        StringWriter out = new StringWriter();
+        NdjsonTransactionWriter writer = new NdjsonTransactionWriter(objectMapper, out);
+
+        for (int id = 1; id <= 2; id++) {
+            TransactionResponseDTO dto = new TransactionResponseDTO();
+            dto.setId(id);
+            dto.setAmount(new BigDecimal("12.50"));
+            dto.setDescription("line\nbreak");
+            dto.setTransactionDate(LocalDateTime.of(2025, 1, 10, 9, 30));
+            dto.setTransactionType(TransactionType.EXPENSE);
+            writer.write(dto);
+        }
+        writer.flush();
+
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize(2);
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("id").asInt()).isEqualTo(2);
+        assertThat(second.get("description").asText()).isEqualTo("line\nbreak");
+        assertThat(second.get("transactionDate").asText()).isEqualTo("2025-01-10T09:30:00");
+    }
+}
@@ -0,0 +1,131 @@
+package com.mandyk.expense.importer;
+
+import com.mandyk.expense.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvStatementParserTest {
+
+    private CsvStatementParser parser(String csv) throws IOException {
+        return parser(csv, 1024);
+    }
+
+    private CsvStatementParser parser(String csv, int maxRecordLength) throws IOException {
+        return new CsvStatementParser(new BufferedReader(new StringReader(csv)), maxRecordLength);
+    }
+
+    @Test
+    void shouldParseRowsAndDeriveTypeFromSign() throws IOException {
+        CsvStatementParser parser = parser("""
+                date,amount,description
+                2025-01-10,-12.50,Coffee
+                2025-01-11T09:30:00,1500.00,Salary
+                """);
+
+        StatementRow first = parser.next();
+        assertThat(first.isValid()).isTrue();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 10, 0, 0));
+        assertThat(first.getAmount()).isEqualByComparingTo("12.50");
+        assertThat(first.getTransactionType()).isEqualTo(TransactionType.EXPENSE);
+        assertThat(first.getDescription()).isEqualTo("Coffee");
+
+        StatementRow second = parser.next();
+        assertThat(second.getTransactionType()).isEqualTo(TransactionType.INCOME);
+        assertThat(second.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 11, 9, 30));
+
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldHandleQuotedFieldsAndExplicitColumns() throws IOException {
+        CsvStatementParser parser = parser(
+                "Type,Date,Amount,Description,Category\n"
+                + "expense,2025-02-01,40.00,\"Dinner, \"\"Luigi's\"\"\",7\n");
+
+        StatementRow row = parser.next();
+
+        assertThat(row.getDescription()).isEqualTo("Dinner, \"Luigi's\"");
+        assertThat(row.getTransactionType()).isEqualTo(TransactionType.EXPENSE);
+        assertThat(row.getCategoryId()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReportUnreadableRowsAndContinue() throws IOException {
+        CsvStatementParser parser = parser("""
+                date,amount
+                not-a-date,10.00
+                2025-01-10,abc
+                2025-01-12,5.00
+                """);
+
+        StatementRow badDate = parser.next();
+        assertThat(badDate.isValid()).isFalse();
+        assertThat(badDate.getRowNumber()).isEqualTo(2);
+
+        assertThat(parser.next().isValid()).isFalse();
+        assertThat(parser.next().isValid()).isTrue();
+    }
+
+    @Test
+    void shouldRejectHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> parser("when,value\n2025-01-10,1\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("date");
+    }
+
+    @Test
+    void shouldKeepLineBreaksInsideQuotedFields() throws IOException {
+        CsvStatementParser parser = parser("date,amount,description\r\n"
+                + "2025-01-10,-1.00,\"two\r\nlines\"\r\n"
+                + "2025-01-11,-2.00,next\r\n");
+
+        StatementRow multiline = parser.next();
+        assertThat(multiline.getDescription()).isEqualTo("two\nlines");
+        assertThat(multiline.getRowNumber()).isEqualTo(3);
+        assertThat(parser.next().getRowNumber()).isEqualTo(4);
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectOverlongLineAndContinue() throws IOException {
+        CsvStatementParser parser = parser("date,amount,description\n"
+                + "2025-01-10,-1.00," + "x".repeat(100) + "\n"
+                + "2025-01-11,-2.00,short\n", 40);
+
+        StatementRow overlong = parser.next();
+        assertThat(overlong.isValid()).isFalse();
+        assertThat(overlong.getRowNumber()).isEqualTo(2);
+        assertThat(overlong.getError()).contains("longer than 40");
+
+        StatementRow next = parser.next();
+        assertThat(next.isValid()).isTrue();
+        assertThat(next.getDescription()).isEqualTo("short");
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectUnterminatedQuoteOnceItExceedsTheLimit() throws IOException {
+        CsvStatementParser parser = parser("date,amount,description\n"
+                + "2025-01-10,-1.00,\"never closed\n"
+                + "x".repeat(100) + "\n".repeat(10), 40);
+
+        StatementRow unterminated = parser.next();
+        assertThat(unterminated.isValid()).isFalse();
+        assertThat(unterminated.getError()).contains("longer than 40");
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectOverlongHeader() {
+        assertThatThrownBy(() -> parser("date,amount," + "x".repeat(100) + "\n", 40))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("longer than 40");
+    }
+}
@@ -0,0 +1,112 @@
+package com.mandyk.expense.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.ImportJobDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobRegistryTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    // unstubbed columns read as null/0
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private ResultSet resultSet;
+
+    private ImportJobRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ImportJobRegistry(jdbcTemplate, new ObjectMapper(), Duration.ofHours(24), Duration.ofMinutes(2));
+    }
+
+    @Test
+    void findShouldServeOwnJobsFromMemory() {
+        ImportJob job = new ImportJob(1, 3, StatementFormat.CSV, "s.csv", 10);
+        registry.register(job);
+        job.markRunning();
+        job.rowRead();
+
+        assertThat(registry.find(job.getId(), 1)).hasValueSatisfying(dto -> {
+            assertThat(dto.getStatus()).isEqualTo("RUNNING");
+            assertThat(dto.getRowsRead()).isEqualTo(1);
+        });
+        assertThat(registry.find(job.getId(), 2)).isEmpty();
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void findShouldReadJobsOfOtherInstancesFromTheTable() throws Exception {
+        LocalDateTime finishedAt = LocalDateTime.now().minusMinutes(10);
+        stubRow("COMPLETED", finishedAt.minusMinutes(1), finishedAt);
+        when(resultSet.getString("errors")).thenReturn("[{\"row\":4,\"message\":\"Category not found\"}]");
+
+        Optional<ImportJobDTO> found = registry.find("job-1", 1);
+
+        assertThat(found).hasValueSatisfying(dto -> {
+            assertThat(dto.getStatus()).isEqualTo("COMPLETED");
+            assertThat(dto.getRowsImported()).isEqualTo(5);
+            assertThat(dto.getFinishedAt()).isEqualTo(finishedAt);
+            assertThat(dto.getErrors()).extracting("row", "message")
+                    .containsExactly(tuple(4L, "Category not found"));
+        });
+    }
+
+    @Test
+    void findShouldReportJobsNoInstanceIsWritingAsInterrupted() throws Exception {
+        stubRow("RUNNING", LocalDateTime.now().minusMinutes(5), null);
+        when(resultSet.getString("errors")).thenReturn("[]");
+
+        ImportJobDTO dto = registry.find("job-1", 1).orElseThrow();
+
+        assertThat(dto.getStatus()).isEqualTo("FAILED");
+        assertThat(dto.getFailureMessage()).contains("interrupted");
+    }
+
+    @Test
+    void saveProgressShouldWriteUnfinishedJobs() {
+        ImportJob job = new ImportJob(1, 3, StatementFormat.CSV, "s.csv", 10);
+        registry.register(job);
+        job.markRunning();
+
+        registry.saveProgress();
+
+        verify(jdbcTemplate).update(contains("finished_at is null"), eq("RUNNING"), eq(0L), eq(0L), eq(0L),
+                any(), eq("[]"), any(Timestamp.class), any(), eq(job.getId()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRow(String status, LocalDateTime updatedAt, LocalDateTime finishedAt) throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("job-1"), eq(1)))
+                .thenAnswer(invocation -> List.of(((RowMapper<ImportJobDTO>) invocation.getArgument(1)).mapRow(resultSet, 0)));
+        when(resultSet.getString("id")).thenReturn("job-1");
+        when(resultSet.getString("status")).thenReturn(status);
+        when(resultSet.getString("format")).thenReturn("CSV");
+        when(resultSet.getLong("rows_imported")).thenReturn(5L);
+        when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(updatedAt.minusMinutes(1)));
+        when(resultSet.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(updatedAt));
+        when(resultSet.getTimestamp("finished_at")).thenReturn(finishedAt == null ? null : Timestamp.valueOf(finishedAt));
+    }
+}
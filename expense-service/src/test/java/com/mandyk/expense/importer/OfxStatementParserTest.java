@@ -0,0 +1,137 @@
+package com.mandyk.expense.importer;
+
+import com.mandyk.expense.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OfxStatementParserTest {
+
+    @Test
+    void shouldParseSgmlTransactionsWithUnclosedTags() throws IOException {
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20250110120000[-5:EST]
+                <TRNAMT>-42.10
+                <NAME>GROCERY STORE
+                <MEMO>Card 1234
+                </STMTTRN>
+                <STMTTRN>
+                <TRNTYPE>CREDIT
+                <DTPOSTED>20250115
+                <TRNAMT>2000.00
+                <NAME>PAYROLL
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(ofx), 1024);
+
+        StatementRow debit = parser.next();
+        assertThat(debit.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 10, 12, 0));
+        assertThat(debit.getAmount()).isEqualByComparingTo("42.10");
+        assertThat(debit.getTransactionType()).isEqualTo(TransactionType.EXPENSE);
+        assertThat(debit.getDescription()).isEqualTo("GROCERY STORE - Card 1234");
+
+        StatementRow credit = parser.next();
+        assertThat(credit.getTransactionType()).isEqualTo(TransactionType.INCOME);
+        assertThat(credit.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 15, 0, 0));
+
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldParseXmlTransactions() throws IOException {
+        String ofx = """
+                <?xml version="1.0"?>
+                <OFX><STMTTRN><DTPOSTED>20250301</DTPOSTED><TRNAMT>-5.00</TRNAMT><NAME>Fish &amp; Chips</NAME></STMTTRN></OFX>
+                """;
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(ofx), 1024);
+
+        StatementRow row = parser.next();
+
+        assertThat(row.getDescription()).isEqualTo("Fish & Chips");
+        assertThat(row.getAmount()).isEqualByComparingTo("5.00");
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldFlagTransactionsWithoutAmount() throws IOException {
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(
+                "<STMTTRN><DTPOSTED>20250301<NAME>Broken</STMTTRN>"), 1024);
+
+        StatementRow row = parser.next();
+
+        assertThat(row.isValid()).isFalse();
+        assertThat(row.getRowNumber()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFlagUnreadableDatesAndKeepReading() throws IOException {
+        OfxStatementParser parser = new OfxStatementParser(new StringReader("""
+                <STMTTRN><DTPOSTED>20251340<TRNAMT>-1.00</STMTTRN>
+                <STMTTRN><DTPOSTED>2025<TRNAMT>-2.00</STMTTRN>
+                <STMTTRN><DTPOSTED>20250231<TRNAMT>-3.00</STMTTRN>
+                <STMTTRN><DTPOSTED>20250110[-5:EST]<TRNAMT>-4.00</STMTTRN>
+                """), 1024);
+
+        StatementRow badMonth = parser.next();
+        StatementRow tooShort = parser.next();
+        StatementRow badDay = parser.next();
+        StatementRow dateWithZone = parser.next();
+
+        assertThat(badMonth.isValid()).isFalse();
+        assertThat(badMonth.getError()).startsWith("Unreadable value");
+        assertThat(tooShort.isValid()).isFalse();
+        assertThat(tooShort.getRowNumber()).isEqualTo(2);
+        assertThat(badDay.isValid()).isFalse();
+        assertThat(dateWithZone.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 10, 0, 0));
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectOverlongTransactionAndKeepReading() throws IOException {
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(
+                "<STMTTRN><DTPOSTED>20250301<TRNAMT>-1.00<MEMO>" + "x".repeat(100) + "</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20250302<TRNAMT>-2.00</STMTTRN>"), 40);
+
+        StatementRow overlong = parser.next();
+        StatementRow next = parser.next();
+
+        assertThat(overlong.isValid()).isFalse();
+        assertThat(overlong.getError()).contains("longer than 40");
+        assertThat(next.isValid()).isTrue();
+        assertThat(next.getAmount()).isEqualByComparingTo("2.00");
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldRejectTextWithoutClosingTagOnceItExceedsTheLimit() throws IOException {
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(
+                "<STMTTRN><DTPOSTED>20250301<TRNAMT>-1.00" + "0".repeat(100)), 40);
+
+        StatementRow row = parser.next();
+
+        assertThat(row.isValid()).isFalse();
+        assertThat(row.getError()).contains("longer than 40");
+        assertThat(parser.next()).isNull();
+    }
+
+    @Test
+    void shouldFailOnTagWithoutClosingBracket() {
+        OfxStatementParser parser = new OfxStatementParser(new StringReader(
+                "<OFX><STMTTRN" + "X".repeat(100)), 40);
+
+        assertThatThrownBy(parser::next)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("tag longer than 40");
+    }
+}
@@ -0,0 +1,60 @@
+package com.mandyk.expense.integration;
+
+import com.mandyk.expense.config.ConcurrencyLimit;
+import com.mandyk.expense.config.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The filter as VirtualThreadConfig registers it (that configuration needs JDK 21), with no
+// permits, so every request is shed. The real server matters: a rejection sent with
+// sendError would be re-dispatched to /error through the security chain.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConcurrencyLimitIntegrationTest extends BaseIntegrationTest {
+
+    @TestConfiguration
+    static class NoPermits {
+
+        @Bean
+        FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter() {
+            FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                    new ConcurrencyLimitFilter(new ConcurrencyLimit(0), Duration.ofMillis(1), new SimpleMeterRegistry()));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shedRequestShouldReachClientAs503WithRetryAfter() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/transactions/user", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(response.getBody()).isEqualTo("Server is busy, retry later");
+    }
+
+    @Test
+    void shedRequestShouldBe503ThroughMockMvcFilterChain() throws Exception {
+        mockMvc.perform(get("/api/transactions/user"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(content().string("Server is busy, retry later"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.mandyk.expense.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.config.SecurityConfig;
+import com.mandyk.expense.dto.TransactionBatchRequestDTO;
+import com.mandyk.expense.dto.TransactionCreateRequestDTO;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A database created by ddl-auto before Flyway: it is baselined at V1 and only runs the
+// later migrations. Those have to add everything the entities need since (startup
+// validates the schema), backfill it from the existing ledger, and move transactions_seq
+// past the ids the IDENTITY column handed out, which the rows keep through the V3 copy.
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@Import(SecurityConfig.class)
+class LegacyDatabaseUpgradeIntegrationTest {
+
+    private static final int USER_ID = 1;
+    private static final int ACCOUNT_ID = 1;
+    private static final int CATEGORY_ID = 1;
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> legacy;
+
+    static {
+        legacy = new PostgreSQLContainer<>("postgres:16-alpine")
+                .withDatabaseName("legacydb")
+                .withUsername("test")
+                .withPassword("test");
+        legacy.start();
+        createLegacySchema(legacy.getJdbcUrl(), legacy.getUsername(), legacy.getPassword());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Compared with the ledger rather than fixed totals, as the other test adds rows
+    @Test
+    void upgradeShouldBackfillBalancesAndRollupFromLedger() {
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "select sum(case when type = 'INCOME' then amount else -amount end) from transactions where account_id = ?",
+                BigDecimal.class, ACCOUNT_ID);
+        BigDecimal expenses = jdbcTemplate.queryForObject(
+                "select sum(amount) from transactions where user_id = ? and type = 'EXPENSE'",
+                BigDecimal.class, USER_ID);
+
+        assertThat(ledger).isNegative();
+        assertThat(jdbcTemplate.queryForObject(
+                "select balance from account where id = ?", BigDecimal.class, ACCOUNT_ID))
+                .isEqualByComparingTo(ledger);
+        assertThat(jdbcTemplate.queryForObject(
+                "select sum(total_amount) from user_month_rollup where user_id = ? and type = 'EXPENSE'",
+                BigDecimal.class, USER_ID))
+                .isEqualByComparingTo(expenses);
+    }
+
+    @Test
+    void batchInsertAfterUpgradeShouldNotReuseExistingIds() throws Exception {
+        TransactionCreateRequestDTO row = new TransactionCreateRequestDTO();
+        row.setAccountId(ACCOUNT_ID);
+        row.setCategoryId(CATEGORY_ID);
+        row.setAmount(new BigDecimal("12.50"));
+        row.setTransactionType(TransactionType.EXPENSE);
+        row.setTransactionDate(LocalDateTime.now().minusHours(1));
+        TransactionBatchRequestDTO batch = new TransactionBatchRequestDTO();
+        batch.setTransactions(List.of(row, row, row));
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header("Authorization", "Bearer " + jwtService.generateToken("legacy@email.com", USER_ID))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(3));
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transactions", Long.class)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct id) from transactions", Long.class)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject(
+                "select min(id) from transactions where description is null", Integer.class)).isGreaterThan(120);
+    }
+
+    // The pre-Flyway schema (not V1, so a V1 that drifted from it would fail here), plus
+    // rows whose ids came from the identity column (one far ahead, as deletes and
+    // rollbacks leave gaps)
+    static void createLegacySchema(String url, String username, String password) {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute(new ClassPathResource("db/legacy/ddl-auto-schema.sql")
+                    .getContentAsString(StandardCharsets.UTF_8));
+            statement.execute("INSERT INTO users (name, email, password, created_at) VALUES ('Legacy', 'legacy@email.com', 'x', now())");
+            statement.execute("INSERT INTO account (name, user_id, created_at) VALUES ('Checking', " + USER_ID + ", now())");
+            statement.execute("INSERT INTO category (name, user_id) VALUES ('Food', " + USER_ID + ")");
+            statement.execute("""
+                    INSERT INTO transactions (amount, description, transaction_date, type, account_id, category_id, user_id, created_at)
+                    SELECT 10.00, 'legacy', now() - INTERVAL '1 day', 'EXPENSE', 1, 1, 1, now() FROM generate_series(1, 2)
+                    """);
+            statement.execute("""
+                    INSERT INTO transactions (id, amount, description, transaction_date, type, account_id, category_id, user_id, created_at)
+                    VALUES (120, 10.00, 'legacy', now() - INTERVAL '1 day', 'EXPENSE', 1, 1, 1, now())
+                    """);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not create the legacy schema", ex);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.mandyk.expense.integration;
+
+import com.mandyk.expense.dto.TransactionCreateRequestDTO;
+import com.mandyk.expense.entity.Account;
+import com.mandyk.expense.entity.Category;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.entity.User;
+import com.mandyk.expense.replica.ReadReplicas;
+import com.mandyk.expense.replica.ReplicaNode;
+import com.mandyk.expense.repository.AccountRepository;
+import com.mandyk.expense.repository.CategoryRepository;
+import com.mandyk.expense.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// The "replica" is a second, independent database with the same schema, so what a request
+// returns shows which one served it: only the replica has this user's rollup row, only the
+// primary has their account.
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaIntegrationTest extends BaseIntegrationTest {
+
+    private static final long REPLICA_ONLY_COUNT = 42;
+
+    static final PostgreSQLContainer<?> replica;
+
+    static {
+        replica = new PostgreSQLContainer<>("postgres:16-alpine")
+                .withDatabaseName("replicadb")
+                .withUsername("test")
+                .withPassword("test");
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("read-replicas.enabled", () -> "true");
+        registry.add("read-replicas.urls", replica::getJdbcUrl);
+        registry.add("read-replicas.username", replica::getUsername);
+        registry.add("read-replicas.password", replica::getPassword);
+        registry.add("read-replicas.lag-check-interval", () -> "PT0.2S");
+        registry.add("read-replicas.read-your-writes", () -> "PT1M");
+    }
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        user = new User();
+        user.setName("Replica");
+        user.setEmail("replica-" + System.nanoTime() + "@email.com");
+        user.setPassword("not-used");
+        user = userRepository.save(user);
+        token = generateTestToken(user.getId(), user.getEmail());
+
+        try (Connection connection = DriverManager.getConnection(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO user_month_rollup (user_id, month_start, type, category_id, total_amount, transaction_count) "
+                             + "VALUES (?, ?, 'EXPENSE', 0, 10.00, ?)")) {
+            insert.setInt(1, user.getId());
+            insert.setObject(2, LocalDate.now().withDayOfMonth(1));
+            insert.setLong(3, REPLICA_ONLY_COUNT);
+            insert.executeUpdate();
+        }
+        awaitReplica(lag -> lag != null);
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyServiceMethodShouldReadFromReplica() throws Exception {
+        mockMvc.perform(get("/api/analytics/summary").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionCount").value(REPLICA_ONLY_COUNT));
+    }
+
+    @Test
+    @Order(2)
+    void repositoryReadOutsideServiceTransactionShouldStayOnPrimary() throws Exception {
+        accountRepository.save(new Account("Checking", user.getId()));
+
+        mockMvc.perform(get("/api/accounts/users").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Checking"));
+    }
+
+    @Test
+    @Order(3)
+    void userShouldReadTheirOwnWriteFromPrimary() throws Exception {
+        Account account = accountRepository.save(new Account("Checking", user.getId()));
+        Category category = categoryRepository.save(new Category(user.getId(), "Food"));
+
+        TransactionCreateRequestDTO request = new TransactionCreateRequestDTO();
+        request.setAccountId(account.getId());
+        request.setCategoryId(category.getId());
+        request.setAmount(new BigDecimal("25.00"));
+        request.setTransactionType(TransactionType.EXPENSE);
+        request.setTransactionDate(LocalDateTime.now());
+        mockMvc.perform(post("/api/transactions")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/analytics/summary").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionCount").value(1));
+    }
+
+    @Test
+    @Order(4)
+    void readOnlyServiceMethodShouldFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        replica.stop();
+        awaitReplica(lag -> lag == null);
+
+        mockMvc.perform(get("/api/analytics/summary").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionCount").value(0));
+    }
+
+    private void awaitReplica(Predicate<Duration> condition) throws InterruptedException {
+        ReplicaNode node = readReplicas.nodes().get(0);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.test(node.getLag()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.test(node.getLag())).isTrue();
+    }
+}
@@ -1,5 +1,6 @@
 package com.mandyk.expense.integration;
 
+import com.mandyk.expense.dto.TransactionBatchRequestDTO;
 import com.mandyk.expense.dto.TransactionCreateRequestDTO;
 import com.mandyk.expense.entity.*;
 import com.mandyk.expense.repository.AccountRepository;
@@ -15,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -85,6 +87,35 @@ class TransactionControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.amount").value(50.00));
     }
 
+    @Test
+    void createTransactionsShouldInsertBatchAndReportRejectedRows() throws Exception {
+        TransactionCreateRequestDTO valid = new TransactionCreateRequestDTO();
+        valid.setAccountId(savedAccount.getId());
+        valid.setCategoryId(savedCategory.getId());
+        valid.setAmount(new BigDecimal("12.50"));
+        valid.setTransactionType(TransactionType.EXPENSE);
+        valid.setTransactionDate(LocalDateTime.now().minusHours(1));
+
+        TransactionCreateRequestDTO foreignAccount = new TransactionCreateRequestDTO();
+        foreignAccount.setAccountId(-1);
+        foreignAccount.setAmount(new BigDecimal("5.00"));
+        foreignAccount.setTransactionType(TransactionType.EXPENSE);
+        foreignAccount.setTransactionDate(LocalDateTime.now().minusHours(1));
+
+        TransactionBatchRequestDTO batch = new TransactionBatchRequestDTO();
+        batch.setTransactions(List.of(valid, foreignAccount, valid));
+
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].transactionId").isNumber())
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"));
+    }
+
     @Test
     void getTransactionsByUserShouldReturnPagedResults() throws Exception {
         mockMvc.perform(get("/api/transactions/user")
@@ -0,0 +1,87 @@
+package com.mandyk.expense.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowQueryDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private SlowQueryRecorder recorder;
+
+    @Test
+    void shouldTimePreparedStatementExecutionWithItsSql() throws Exception {
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement("select * from account where id = ?")).thenReturn(prepared);
+        when(prepared.executeQuery()).thenReturn(resultSet);
+
+        try (Connection wrapped = new SlowQueryDataSource(target, () -> recorder).getConnection()) {
+            PreparedStatement statement = wrapped.prepareStatement("select * from account where id = ?");
+            statement.setInt(1, 7);
+
+            assertThat(statement.executeQuery()).isSameAs(resultSet);
+        }
+
+        verify(prepared).setInt(1, 7);
+        verify(recorder).record(eq("select * from account where id = ?"), anyLong());
+        verify(connection).close();
+    }
+
+    @Test
+    void shouldTimePlainStatementsAndRethrowDriverErrors() throws Exception {
+        Statement plain = mock(Statement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(plain);
+        when(plain.execute("analyze")).thenThrow(new SQLException("permission denied"));
+
+        Statement statement = new SlowQueryDataSource(target, () -> recorder).getConnection().createStatement();
+
+        assertThatThrownBy(() -> statement.execute("analyze"))
+                .isInstanceOf(SQLException.class)
+                .hasMessage("permission denied");
+        verify(recorder).record(eq("analyze"), anyLong());
+    }
+
+    @Test
+    void unwrapShouldReachTheDriverConnection() throws Exception {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+
+        Connection wrapped = new SlowQueryDataSource(target, () -> recorder).getConnection();
+
+        assertThat(wrapped.unwrap(Connection.class)).isSameAs(connection);
+        verifyNoInteractions(recorder);
+    }
+
+    @Test
+    void closeShouldCloseTheWrappedPool() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new SlowQueryDataSource(pool, () -> recorder).close();
+
+        verify((AutoCloseable) pool).close();
+    }
+}
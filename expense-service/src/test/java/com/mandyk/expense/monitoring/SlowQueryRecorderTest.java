@@ -0,0 +1,70 @@
+package com.mandyk.expense.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlowQueryRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldKeepOnlyStatementsAtOrAboveThreshold() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ofMillis(100), 10, meterRegistry);
+
+        recorder.record("select 1", TimeUnit.MILLISECONDS.toNanos(99));
+        recorder.record("select 2", TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(recorder.slowest()).extracting(SlowQuery::sql).containsExactly("select 2");
+        assertThat(recorder.slowest().get(0).durationMs()).isEqualTo(100.0);
+        assertThat(meterRegistry.get("jdbc.statements.slow").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepSlowestWhenFullAndListSlowestFirst() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 3, meterRegistry);
+
+        recorder.record("a", 500);
+        recorder.record("b", 100);
+        recorder.record("c", 300);
+        recorder.record("d", 200);
+        recorder.record("e", 50);
+        recorder.record("f", 200);
+
+        assertThat(recorder.slowest()).extracting(SlowQuery::sql).containsExactly("a", "c", "d");
+        assertThat(recorder.recorded()).isEqualTo(6);
+    }
+
+    @Test
+    void clearShouldLetFasterStatementsInAgain() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 1, meterRegistry);
+        recorder.record("a", 500);
+
+        recorder.clear();
+        recorder.record("b", 100);
+
+        assertThat(recorder.slowest()).extracting(SlowQuery::sql).containsExactly("b");
+    }
+
+    @Test
+    void clearShouldEmptyBufferButKeepTotal() {
+        SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 3, meterRegistry);
+        recorder.record("a", 500);
+
+        recorder.clear();
+
+        assertThat(recorder.slowest()).isEmpty();
+        assertThat(recorder.recorded()).isEqualTo(1);
+    }
+
+    @Test
+    void capacityShouldBePositive() {
+        assertThatThrownBy(() -> new SlowQueryRecorder(Duration.ofMillis(100), 0, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
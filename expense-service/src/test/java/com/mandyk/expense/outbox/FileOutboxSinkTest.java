@@ -0,0 +1,37 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mandyk.expense.entity.OutboxEventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOutboxSinkTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void publishShouldAppendOneJsonLinePerMessage() throws Exception {
+        Path file = dir.resolve("outbox.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(new ObjectMapper().registerModule(new JavaTimeModule()), file);
+
+        sink.publish(List.of(message(1)));
+        sink.publish(List.of(message(2), message(3)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(3);
+        // the payload is embedded as JSON, not as an escaped string
+        assertThat(lines.get(0)).contains("\"id\":1", "\"type\":\"TRANSACTION_CREATED\"", "\"payload\":{\"id\":1}");
+    }
+
+    private static OutboxMessage message(long id) {
+        return new OutboxMessage(id, OutboxEventType.TRANSACTION_CREATED, 1, 2, (int) id, null, "{\"id\":" + id + "}");
+    }
+}
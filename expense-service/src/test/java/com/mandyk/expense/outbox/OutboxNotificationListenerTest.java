@@ -0,0 +1,54 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboxNotificationListenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private final OutboxNotificationListener listener = new OutboxNotificationListener(null, objectMapper, eventPublisher);
+
+    @Test
+    void dispatchShouldRepublishTheMessageTheSinkSent() throws Exception {
+        OutboxMessage message = new OutboxMessage(7L, OutboxEventType.TRANSACTION_DELETED, 1, 2, 3,
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), "{\"id\":3,\"amount\":12.50}");
+
+        // what NotifyOutboxSink sends for one array element
+        listener.dispatch(objectMapper.writeValueAsString(message));
+
+        verify(eventPublisher).publishEvent(message);
+    }
+
+    @Test
+    void dispatchShouldIgnoreUnreadableNotifications() {
+        listener.dispatch("not json");
+        listener.dispatch("[1, 2]");
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void dispatchOwnershipChangeShouldRepublishTheChangeEvent() {
+        listener.dispatchOwnershipChange("accounts:5");
+        listener.dispatchOwnershipChange("categories:6");
+        listener.dispatchOwnershipChange("budgets:7");
+        listener.dispatchOwnershipChange("accounts");
+
+        verify(eventPublisher).publishEvent(new AccountsChangedEvent(5));
+        verify(eventPublisher).publishEvent(new CategoriesChangedEvent(6));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+}
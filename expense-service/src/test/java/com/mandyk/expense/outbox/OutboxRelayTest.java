@@ -0,0 +1,104 @@
+package com.mandyk.expense.outbox;
+
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxSink firstSink;
+
+    @Mock
+    private OutboxSink secondSink;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        lenient().when(firstSink.name()).thenReturn("first");
+        lenient().when(secondSink.name()).thenReturn("second");
+        relay = new OutboxRelay(outboxEventRepository, List.of(firstSink, secondSink),
+                new TransactionTemplate(transactionManager), meterRegistry, 2, 10, Duration.ofDays(7));
+    }
+
+    @Test
+    void relayShouldDeliverToEverySinkAndMarkPublished() {
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(events(1, 2), events(3));
+
+        relay.relay();
+
+        verify(firstSink, times(2)).publish(anyList());
+        verify(secondSink).publish(argThat(messages -> messages.size() == 1 && messages.get(0).id() == 3L));
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any());
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(meterRegistry.get("outbox.relay.published").tag("sink", "second").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void sinkFailureShouldRollBackTheBatchAndStopThePoll() {
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(events(1, 2));
+        doThrow(new IllegalStateException("connection refused")).when(secondSink).publish(anyList());
+
+        relay.relay();
+
+        verify(outboxEventRepository, times(1)).lockUnpublished(2);
+        verify(outboxEventRepository, never()).markPublished(anyList(), any());
+        // TransactionTemplate hands a rollback-only status to commit(), which rolls it back
+        verify(transactionManager).commit(argThat(status -> status.isRollbackOnly()));
+        assertThat(meterRegistry.get("outbox.relay.failures").tag("sink", "second").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void lagShouldTrackTheOldestUnpublishedRow() {
+        when(outboxEventRepository.lockUnpublished(2)).thenReturn(List.of());
+        when(outboxEventRepository.findOldestUnpublishedCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+
+        relay.relay();
+
+        assertThat(meterRegistry.get("outbox.lag").timeGauge().value(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(30.0);
+        verifyNoInteractions(firstSink, secondSink);
+    }
+
+    private static List<OutboxEvent> events(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            OutboxEvent event = new OutboxEvent();
+            event.setId(id);
+            event.setEventType(OutboxEventType.TRANSACTION_CREATED);
+            event.setPayload("{}");
+            return event;
+        }).toList();
+    }
+}
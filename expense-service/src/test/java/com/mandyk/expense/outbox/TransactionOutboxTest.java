@@ -0,0 +1,60 @@
+package com.mandyk.expense.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionOutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordShouldWriteOneRowPerTransaction() {
+        TransactionOutbox outbox = new TransactionOutbox(outboxEventRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+
+        outbox.record(OutboxEventType.TRANSACTION_DELETED, List.of(transaction(7), transaction(8)));
+
+        ArgumentCaptor<List<OutboxEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2);
+        OutboxEvent event = saved.getValue().get(0);
+        assertThat(event.getEventType()).isEqualTo(OutboxEventType.TRANSACTION_DELETED);
+        assertThat(event.getTransactionId()).isEqualTo(7);
+        assertThat(event.getUserId()).isEqualTo(1);
+        assertThat(event.getAccountId()).isEqualTo(3);
+        assertThat(event.getPayload()).contains("\"id\":7", "\"amount\":12.50");
+        assertThat(event.getCreatedAt()).isNotNull();
+        assertThat(meterRegistry.get("outbox.events.written").tag("type", "TRANSACTION_DELETED").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    private static TransactionResponseDTO transaction(int id) {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setId(id);
+        dto.setUserId(1);
+        dto.setAccountId(3);
+        dto.setAmount(new BigDecimal("12.50"));
+        return dto;
+    }
+}
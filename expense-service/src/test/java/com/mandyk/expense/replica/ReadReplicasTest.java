@@ -0,0 +1,104 @@
+package com.mandyk.expense.replica;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicasTest {
+
+    @Mock
+    private DataSource first;
+
+    @Mock
+    private DataSource second;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ReplicaNode replica1;
+    private ReplicaNode replica2;
+    private ReadReplicas replicas;
+
+    @BeforeEach
+    void setUp() {
+        replica1 = new ReplicaNode("replica-1", first);
+        replica2 = new ReplicaNode("replica-2", second);
+        replicas = new ReadReplicas(List.of(replica1, replica2), Duration.ofSeconds(1), Duration.ofSeconds(5), nanos::get);
+    }
+
+    @Test
+    void routeShouldTakeTurnsAmongReplicasWithinMaxLag() {
+        replica1.setLag(Duration.ZERO);
+        replica2.setLag(Duration.ofMillis(500));
+
+        assertThat(List.of(replicas.route(1, false), replicas.route(1, false), replicas.route(1, false), replicas.route(1, false)))
+                .containsExactly(replica1, replica2, replica1, replica2);
+        assertThat(replicas.routed(ReadReplicas.Route.REPLICA)).isEqualTo(4);
+    }
+
+    @Test
+    void routeShouldSkipReplicasBehindMaxLagOrNotYetMeasured() {
+        replica1.setLag(Duration.ofSeconds(3));
+
+        assertThat(replicas.route(1, false)).isNull();
+
+        replica2.setLag(Duration.ZERO);
+
+        assertThat(replicas.route(1, false)).isSameAs(replica2);
+        assertThat(replicas.route(1, false)).isSameAs(replica2);
+        assertThat(replicas.routed(ReadReplicas.Route.NO_REPLICA_AVAILABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void markUnreachableShouldTakeReplicaOutOfRotation() {
+        replica1.setLag(Duration.ZERO);
+        replica2.setLag(Duration.ZERO);
+
+        replicas.markUnreachable(replica1);
+
+        assertThat(replicas.route(1, false)).isSameAs(replica2);
+        assertThat(replicas.route(1, false)).isSameAs(replica2);
+    }
+
+    @Test
+    void routeShouldKeepUserOnPrimaryUntilReadYourWritesWindowHasPassed() {
+        replica1.setLag(Duration.ZERO);
+        replica2.setLag(Duration.ZERO);
+
+        replicas.recordWrite(7);
+
+        assertThat(replicas.route(7, false)).isNull();
+        assertThat(replicas.route(8, false)).isNotNull();
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+
+        assertThat(replicas.route(7, false)).isNotNull();
+        assertThat(replicas.routed(ReadReplicas.Route.READ_YOUR_WRITES)).isEqualTo(1);
+    }
+
+    @Test
+    void routeShouldKeepClientOnPrimaryAfterAWriteOnAnotherInstance() {
+        replica1.setLag(Duration.ZERO);
+
+        assertThat(replicas.route(7, true)).isNull();
+        assertThat(replicas.route(null, true)).isNull();
+        assertThat(replicas.routed(ReadReplicas.Route.READ_YOUR_WRITES)).isEqualTo(2);
+    }
+
+    @Test
+    void routeShouldNotApplyReadYourWritesWithoutUser() {
+        replica1.setLag(Duration.ZERO);
+        replicas.recordWrite(null);
+
+        assertThat(replicas.route(null, false)).isSameAs(replica1);
+    }
+}
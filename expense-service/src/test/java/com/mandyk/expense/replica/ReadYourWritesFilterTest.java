@@ -0,0 +1,58 @@
+package com.mandyk.expense.replica;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:10Z");
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void writeShouldLeaveCookieWithItsTime() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transactions"), response, (req, res) -> {});
+
+        assertThat(response.getHeader("Set-Cookie"))
+                .startsWith(ReadYourWritesFilter.COOKIE + "=" + NOW.toEpochMilli())
+                .contains("Max-Age=6", "HttpOnly");
+    }
+
+    @Test
+    void readShouldBeMarkedWhileCookieIsWithinWindow() throws Exception {
+        assertThat(marked(NOW.minusSeconds(5))).isTrue();
+        assertThat(marked(NOW.minusSeconds(6))).isFalse();
+        assertThat(ReadYourWritesFilter.currentClientWroteRecently()).isFalse();
+    }
+
+    @Test
+    void loginShouldNotLeaveCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, (req, res) -> {});
+
+        assertThat(response.getHeader("Set-Cookie")).isNull();
+    }
+
+    private boolean marked(Instant lastWrite) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/user");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(lastWrite.toEpochMilli())));
+        AtomicBoolean marked = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> marked.set(ReadYourWritesFilter.currentClientWroteRecently()));
+        return marked.get();
+    }
+}
@@ -0,0 +1,143 @@
+package com.mandyk.expense.replica;
+
+import com.mandyk.expense.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVICE_METHOD = "com.mandyk.expense.service.TransactionService.getTransactionsByUserId";
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaPool;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReplicaNode replica;
+    private ReadReplicas replicas;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+        when(primaryConnection.getAutoCommit()).thenReturn(true);
+        when(primaryConnection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+
+        replica = new ReplicaNode("replica-1", replicaPool);
+        replica.setLag(Duration.ZERO);
+        replicas = new ReadReplicas(List.of(replica), Duration.ofSeconds(1), Duration.ofSeconds(5), System::nanoTime);
+        dataSource = new ReplicaRoutingDataSource(primary, replicas);
+        clearInvocations(primary);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceTransactionShouldRunOnReplica() throws SQLException {
+        inTransaction(SERVICE_METHOD, true);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(replicaConnection);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void connectionShouldNotBeTakenBeforeFirstUse() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        connection.getAutoCommit();
+
+        // marked read-only after the connection was handed out, as Spring does
+        inTransaction(SERVICE_METHOD, true);
+        connection.createStatement();
+
+        verify(replicaPool).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransactionShouldRunOnPrimary() throws SQLException {
+        inTransaction(SERVICE_METHOD, false);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(primaryConnection);
+        verify(replicaPool, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyRepositoryTransactionShouldRunOnPrimary() throws SQLException {
+        inTransaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById", true);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyServiceTransactionShouldRunOnPrimaryAfterUsersOwnWrite() throws SQLException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new AuthenticatedUser(7, "a@b.com"), null, List.of()));
+        replicas.recordWrite(7);
+        inTransaction(SERVICE_METHOD, true);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyServiceTransactionShouldFallBackToPrimaryWhenReplicaIsLagging() throws SQLException {
+        replica.setLag(Duration.ofSeconds(30));
+        inTransaction(SERVICE_METHOD, true);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyServiceTransactionShouldFallBackToPrimaryWhenReplicaIsUnreachable() throws SQLException {
+        when(replicaPool.getConnection()).thenThrow(new SQLTransientConnectionException("timed out"));
+        inTransaction(SERVICE_METHOD, true);
+
+        assertThat(physical(dataSource.getConnection())).isSameAs(primaryConnection);
+        assertThat(replica.getLag()).isNull();
+    }
+
+    private static void inTransaction(String name, boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static Connection physical(Connection lazy) throws SQLException {
+        lazy.createStatement();
+        return ((ConnectionProxy) lazy).getTargetConnection();
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import static org.assertj.core.api.Assertions.*;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -76,4 +77,37 @@ public class AccountRepositoryTest extends BaseRepositoryTest {
         // Assertions
         assertThat(result).isEmpty();
     }
+
+    @Test
+    @DisplayName("Should increment balance atomically and read it back for the owner only")
+    void shouldAdjustAndReadBalance() {
+        Account account = new Account("Wallet", 4);
+        testEntityManager.persist(account);
+        testEntityManager.flush();
+
+        accountRepository.adjustBalance(account.getId(), new BigDecimal("150.00"));
+        accountRepository.adjustBalance(account.getId(), new BigDecimal("-20.50"));
+        testEntityManager.clear();
+
+        assertThat(accountRepository.findBalanceByIdAndUserId(account.getId(), 4))
+                .hasValueSatisfying(balance -> assertThat(balance).isEqualByComparingTo("129.50"));
+        assertThat(accountRepository.findBalanceByIdAndUserId(account.getId(), 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should count the archived opening balance as part of the ledger")
+    void findBalanceDriftShouldAddArchivedBalance() {
+        Account account = new Account("Archived", 6);
+        testEntityManager.persist(account);
+        testEntityManager.flush();
+        accountRepository.adjustBalance(account.getId(), new BigDecimal("40.00"));
+        testEntityManager.getEntityManager().createNativeQuery(
+                "insert into account_archived_balance (account_id, balance) values (?1, 40.00)")
+                .setParameter(1, account.getId())
+                .executeUpdate();
+
+        assertThat(accountRepository.findBalanceDrift())
+                .extracting(row -> ((Number) row[0]).intValue())
+                .doesNotContain(account.getId());
+    }
 }
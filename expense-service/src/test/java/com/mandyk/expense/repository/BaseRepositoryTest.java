@@ -34,6 +34,6 @@ public abstract class BaseRepositoryTest {
 
         registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
 
-        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
     }
 }
\ No newline at end of file
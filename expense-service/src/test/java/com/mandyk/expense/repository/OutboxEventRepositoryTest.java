@@ -0,0 +1,81 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.entity.OutboxEvent;
+import com.mandyk.expense.entity.OutboxEventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class OutboxEventRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    @DisplayName("Should lock only unpublished rows, oldest first, up to the limit")
+    void shouldLockUnpublishedInIdOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent published = save(1, now.minusMinutes(3));
+        published.setPublishedAt(now);
+        OutboxEvent first = save(2, now.minusMinutes(2));
+        OutboxEvent second = save(3, now.minusMinutes(1));
+        save(4, now);
+        testEntityManager.flush();
+
+        List<OutboxEvent> locked = outboxEventRepository.lockUnpublished(2);
+
+        assertThat(locked).extracting(OutboxEvent::getId).containsExactly(first.getId(), second.getId());
+        assertThat(outboxEventRepository.findOldestUnpublishedCreatedAt()).isEqualTo(first.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should lock by creation time, not id, as ids come in per-instance blocks")
+    void shouldLockUnpublishedInCreationOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent later = save(6, now);
+        OutboxEvent earlier = save(7, now.minusSeconds(1));
+        testEntityManager.flush();
+
+        assertThat(earlier.getId()).isGreaterThan(later.getId());
+        assertThat(outboxEventRepository.lockUnpublished(10)).extracting(OutboxEvent::getId)
+                .containsSubsequence(earlier.getId(), later.getId());
+        assertThat(outboxEventRepository.findOldestUnpublishedCreatedAt()).isEqualTo(earlier.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should mark rows published and purge them once past retention")
+    void shouldMarkAndPurgePublished() {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = save(5, now);
+        testEntityManager.flush();
+
+        outboxEventRepository.markPublished(List.of(event.getId()), now.minusDays(8));
+        testEntityManager.clear();
+
+        assertThat(outboxEventRepository.lockUnpublished(10)).isEmpty();
+        assertThat(outboxEventRepository.findOldestUnpublishedCreatedAt()).isNull();
+        assertThat(outboxEventRepository.deletePublishedBefore(now.minusDays(7))).isEqualTo(1);
+    }
+
+    private OutboxEvent save(int transactionId, LocalDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(OutboxEventType.TRANSACTION_CREATED);
+        event.setUserId(1);
+        event.setAccountId(1);
+        event.setTransactionId(transactionId);
+        event.setPayload("{\"id\":" + transactionId + "}");
+        event.setCreatedAt(createdAt.withNano(0));
+        return testEntityManager.persist(event);
+    }
+}
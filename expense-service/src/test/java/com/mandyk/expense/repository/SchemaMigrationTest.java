@@ -0,0 +1,75 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.config.SchemaIndexVerifier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// Runs against the schema built by the Flyway migrations (ddl-auto is validate in tests)
+@DataJpaTest
+public class SchemaMigrationTest extends BaseRepositoryTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldApplyAllMigrations() {
+        @SuppressWarnings("unchecked")
+        List<Object> versions = entityManager.createNativeQuery(
+                "select version from flyway_schema_history where success order by installed_rank").getResultList();
+
+        assertThat(versions).extracting(String::valueOf).contains("1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11");
+    }
+
+    @Test
+    void shouldCreateEveryIndexDeclaredOnEntities() {
+        SchemaIndexVerifier verifier = new SchemaIndexVerifier(dataSource, entityManagerFactory);
+
+        assertThat(verifier.expectedIndexes().get("transactions")).contains("idx_transactions_user_date");
+        assertThatCode(verifier::afterSingletonsInstantiated).doesNotThrowAnyException();
+    }
+
+    @Test
+    void userDateIndexShouldCoverUserAndDateOrdering() {
+        Object definition = entityManager.createNativeQuery(
+                "select indexdef from pg_indexes where indexname = 'idx_transactions_user_date'").getSingleResult();
+
+        assertThat(String.valueOf(definition)).contains("(user_id, transaction_date DESC, id DESC)");
+    }
+
+    @Test
+    void transactionsShouldBePartitionedByMonthAhead() {
+        Object strategy = entityManager.createNativeQuery("""
+                select pt.partstrat from pg_partitioned_table pt
+                join pg_class c on c.oid = pt.partrelid
+                where c.relname = 'transactions'
+                """).getSingleResult();
+        @SuppressWarnings("unchecked")
+        List<Object> partitions = entityManager.createNativeQuery("""
+                select c.relname from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = 'transactions'::regclass
+                """).getResultList();
+
+        assertThat(String.valueOf(strategy)).isEqualTo("r");
+        assertThat(partitions).extracting(String::valueOf).contains(
+                "transactions_default",
+                "transactions_p" + YearMonth.now().plusMonths(1).format(DateTimeFormatter.ofPattern("yyyyMM")));
+    }
+}
@@ -0,0 +1,52 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.config.TransactionIdVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Rows are inserted in the test transaction, which the verifier's JdbcTemplate joins
+@DataJpaTest
+class TransactionIdVerifierTest extends BaseRepositoryTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionIdVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        verifier = new TransactionIdVerifier(jdbcTemplate);
+    }
+
+    @Test
+    void shouldPassForIdsFromSequence() {
+        insert("nextval('transactions_seq')", "now()");
+
+        assertThatCode(verifier::afterSingletonsInstantiated).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldFailWhenSequenceIsBehindExistingIds() {
+        Long lastValue = jdbcTemplate.queryForObject("select last_value from transactions_seq", Long.class);
+        insert(String.valueOf(lastValue + 1000), "now()");
+
+        assertThatThrownBy(verifier::afterSingletonsInstantiated)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("setval");
+    }
+
+    private void insert(String id, String date) {
+        jdbcTemplate.update("insert into transactions (id, amount, transaction_date, type, account_id, user_id, created_at) "
+                + "values (" + id + ", 1.00, " + date + ", 'EXPENSE', 1, 1, now())");
+    }
+}
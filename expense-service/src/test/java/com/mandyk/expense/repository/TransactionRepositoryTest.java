@@ -1,5 +1,9 @@
 package com.mandyk.expense.repository;
 
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.dto.TransactionSearchCriteria;
+import com.mandyk.expense.entity.Category;
 import com.mandyk.expense.entity.Transaction;
 import com.mandyk.expense.entity.TransactionType;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,15 +17,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
 @DataJpaTest
 public class TransactionRepositoryTest extends BaseRepositoryTest {
 
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2025, 3, 1, 0, 0);
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -63,6 +72,8 @@ public class TransactionRepositoryTest extends BaseRepositoryTest {
                 LocalDateTime.of(2025, 1, 10, 10, 0)
         );
 
+        expense1.setDescription("Groceries");
+
         testEntityManager.persist(income1);
         testEntityManager.persist(expense1);
         testEntityManager.persist(expense2);
@@ -92,10 +103,22 @@ public class TransactionRepositoryTest extends BaseRepositoryTest {
     @Test
     void shouldFindTxnsByUserId() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Transaction> page = transactionRepository.findByUserId(1, pageable);
+        Page<TransactionResponseDTO> page = transactionRepository.findByUserId(1, FROM, TO, true, pageable);
         assertThat(page.getTotalElements()).isEqualTo(3);
     }
 
+    @Test
+    void shouldProjectDescriptionOnlyWhenRequested() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        Page<TransactionResponseDTO> withDescription = transactionRepository.findByUserIdAndCategoryId(1, 200, FROM, TO, true, pageable);
+        Page<TransactionResponseDTO> withoutDescription = transactionRepository.findByUserIdAndCategoryId(1, 200, FROM, TO, false, pageable);
+
+        assertThat(withDescription.getContent()).extracting(TransactionResponseDTO::getDescription).contains("Groceries");
+        assertThat(withoutDescription.getContent()).extracting(TransactionResponseDTO::getDescription).containsOnlyNulls();
+        assertThat(withoutDescription.getContent()).extracting(TransactionResponseDTO::getAmount).isNotEmpty().doesNotContainNull();
+    }
+
     @Test
     void shouldFindByIdAndUserId() {
 
@@ -113,16 +136,30 @@ public class TransactionRepositoryTest extends BaseRepositoryTest {
         assertThat(found).isEmpty();
     }
     @Test
-    void shouldFindExpensesByUserId() {
-        Pageable pageable = PageRequest.of(0, 10);
+    void shouldDeleteByIdAndDateAndReleaseTheId() {
 
-        Page<Transaction> page = transactionRepository.findByUserIdAndTransactionType(
-                        1,
-                        TransactionType.EXPENSE,
-                        pageable
-                );
+        int deleted = transactionRepository.deleteByIdAndTransactionDate(income1.getId(), income1.getTransactionDate());
 
-        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(deleted).isEqualTo(1);
+        assertThat(transactionRepository.findByIdAndUserId(income1.getId(), 1)).isEmpty();
+        assertThat(testEntityManager.getEntityManager()
+                .createNativeQuery("select count(*) from transaction_ids where id = :id")
+                .setParameter("id", income1.getId())
+                .getSingleResult()).isEqualTo(0L);
+    }
+
+    @Test
+    void shouldRejectAnIdAlreadyUsedInAnotherPartition() {
+
+        // the (id, transaction_date) key alone would allow it; transaction_ids does not
+        assertThatThrownBy(() -> testEntityManager.getEntityManager().createNativeQuery("""
+                        insert into transactions (id, amount, transaction_date, type, account_id, user_id, created_at)
+                        values (:id, 1.00, :date, 'EXPENSE', 10, 1, now())
+                        """)
+                .setParameter("id", income1.getId())
+                .setParameter("date", LocalDateTime.of(2025, 2, 20, 10, 0))
+                .executeUpdate())
+                .hasStackTraceContaining("transaction_ids_pkey");
     }
 
     @Test
@@ -130,7 +167,7 @@ public class TransactionRepositoryTest extends BaseRepositoryTest {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        Page<Transaction> page = transactionRepository.findByUserIdAndAccountId(1, 10, pageable);
+        Page<TransactionResponseDTO> page = transactionRepository.findByUserIdAndAccountId(1, 10, FROM, TO, true, pageable);
 
         assertThat(page.getTotalElements()).isEqualTo(2);
     }
@@ -140,54 +177,125 @@ public class TransactionRepositoryTest extends BaseRepositoryTest {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        Page<Transaction> page = transactionRepository.findByUserIdAndTransactionDateBetween(
+        Page<TransactionResponseDTO> page = transactionRepository.findByUserId(
                         1,
                         LocalDateTime.of(2025, 1, 1, 0, 0),
-                        LocalDateTime.of(2025, 1, 31, 23, 59),
+                        LocalDateTime.of(2025, 2, 1, 0, 0),
+                        true,
                         pageable
                 );
 
         assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(TransactionResponseDTO::getId)
+                .containsExactlyInAnyOrder(income1.getId(), expense1.getId());
     }
 
     @Test
-    void shouldCalculateTotalIncome() {
-        BigDecimal total = transactionRepository.getTotalIncomeByUserId(1);
-        assertThat(total).isEqualByComparingTo("1000.00");
+    void shouldSearchWithCombinedFilters() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.EXPENSE);
+        criteria.setAccountId(10);
+        criteria.setMinAmount(new BigDecimal("100.00"));
+        criteria.setQ("grocer");
+
+        Page<TransactionResponseDTO> page = transactionRepository.search(
+                TransactionSpecifications.matching(1, criteria), true, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(TransactionResponseDTO::getId).containsExactly(expense1.getId());
+        assertThat(page.getContent().get(0).getDescription()).isEqualTo("Groceries");
     }
 
     @Test
-    void shouldCalculateTotalExpense() {
-        BigDecimal total = transactionRepository.getTotalExpenseByUserId(1);
-        assertThat(total).isEqualByComparingTo("500.00");
+    void shouldSearchNewestFirstAndNeverReturnOtherUsersRows() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setFrom(LocalDate.of(2025, 1, 10));
+        criteria.setTo(LocalDate.of(2025, 1, 31));
+
+        Page<TransactionResponseDTO> page = transactionRepository.search(
+                TransactionSpecifications.matching(1, criteria), false, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(TransactionResponseDTO::getId)
+                .containsExactly(expense1.getId(), income1.getId());
+        assertThat(page.getContent()).extracting(TransactionResponseDTO::getDescription).containsOnlyNulls();
     }
 
     @Test
-    void shouldGroupExpenseByCategory() {
+    void shouldTreatLikeWildcardsInSearchTextLiterally() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setQ("%");
 
-        List<Object[]> results = transactionRepository.getExpenseByCategory(1);
+        Page<TransactionResponseDTO> page = transactionRepository.search(
+                TransactionSpecifications.matching(1, criteria), true, PageRequest.of(0, 10));
 
-        assertThat(results).hasSize(1);
+        assertThat(page.getContent()).isEmpty();
+    }
+
+    @Test
+    void shouldStreamUserTransactionsOldestFirstWithinRange() {
+        try (Stream<Transaction> stream = transactionRepository.streamByUserIdAndTransactionDateBetween(
+                1,
+                LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 2, 1, 0, 0))) {
+
+            assertThat(stream.map(Transaction::getId)).containsExactly(income1.getId(), expense1.getId());
+        }
+    }
+
+    @Test
+    void shouldSeekThroughUserTransactionsNewestFirst() {
+        Pageable limit = PageRequest.of(0, 2);
+
+        List<TransactionResponseDTO> first = transactionRepository.findFirstByUserId(1, FROM, TO, true, limit);
+        assertThat(first).extracting(TransactionResponseDTO::getId).containsExactly(expense2.getId(), expense1.getId());
+
+        TransactionResponseDTO last = first.get(1);
+        List<TransactionResponseDTO> next = transactionRepository.findNextByUserId(1, FROM, last.getTransactionDate(), last.getId(), true, limit);
+        assertThat(next).extracting(TransactionResponseDTO::getId).containsExactly(income1.getId());
+    }
+
+    @Test
+    void shouldSeekPastRowsSharingTheCursorDate() {
+        Transaction sameDate = testEntityManager.persistFlushFind(createTransaction(
+                new BigDecimal("5.00"), TransactionType.EXPENSE, 1, 20, 200, expense2.getTransactionDate()));
 
-        Integer categoryId = (Integer) results.get(0)[0];
-        BigDecimal total = (BigDecimal) results.get(0)[1];
+        List<TransactionResponseDTO> next = transactionRepository.findNextByUserId(
+                1, FROM, sameDate.getTransactionDate(), sameDate.getId(), true, PageRequest.of(0, 1));
 
-        assertThat(categoryId).isEqualTo(200);
-        assertThat(total).isEqualByComparingTo("500.00");
+        assertThat(next).extracting(TransactionResponseDTO::getId).containsExactly(expense2.getId());
     }
 
     @Test
-    void shouldReturnMonthlyExpenseTrend() {
+    void shouldSeekWithinAccount() {
+        Pageable limit = PageRequest.of(0, 10);
 
-        List<Object[]> results = transactionRepository.getMonthlyExpenseTrendByUserId(1);
+        List<TransactionResponseDTO> page = transactionRepository.findNextByUserIdAndAccountId(
+                1, 10, FROM, expense1.getTransactionDate(), expense1.getId(), true, limit);
 
-        assertThat(results).hasSize(2);
+        assertThat(page).extracting(TransactionResponseDTO::getId).containsExactly(income1.getId());
+    }
+
+    @Test
+    void shouldGroupExpenseByCategory() {
+
+        List<CategoryExpenseDTO> results = transactionRepository.getExpenseByCategory(1, FROM, TO);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getCategoryId()).isEqualTo(200);
+        assertThat(results.get(0).getTotalExpense()).isEqualByComparingTo("500.00");
+        assertThat(results.get(0).getTransactionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNameCategoriesInBreakdownLargestFirst() {
+        Category rent = testEntityManager.persist(new Category(1, "Rent"));
+        testEntityManager.persist(createTransaction(
+                new BigDecimal("900.00"), TransactionType.EXPENSE, 1, 10, rent.getId(), LocalDateTime.of(2025, 2, 1, 9, 0)));
+        testEntityManager.flush();
 
-        BigDecimal janTotal = (BigDecimal) results.get(0)[1];
-        BigDecimal febTotal = (BigDecimal) results.get(1)[1];
+        List<CategoryExpenseDTO> results = transactionRepository.getExpenseByCategory(1, FROM, TO);
 
-        assertThat(janTotal).isEqualByComparingTo("200.00");
-        assertThat(febTotal).isEqualByComparingTo("300.00");
+        assertThat(results).extracting(CategoryExpenseDTO::getCategoryName).containsExactly("Rent", null);
+        assertThat(results).extracting(CategoryExpenseDTO::getCategoryId).containsExactly(rent.getId(), 200);
     }
 
     @Test
@@ -0,0 +1,146 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.dto.TransactionSearchCriteria;
+import com.mandyk.expense.entity.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression test for transaction search: EXPLAINs the SQL Hibernate generates
+ * for typical filter combinations against a realistically sized table and asserts
+ * that Postgres answers it from one of the user-scoped indexes. Literals are inlined
+ * so the captured statement can be explained as is, and partitions are pruned at plan
+ * time. The plan names the per-partition copies of each index, which Postgres derives
+ * from the partition and column names.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.mandyk.expense.repository.CapturingStatementInspector"
+})
+public class TransactionSearchPlanTest extends BaseRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        // 50 users x 1000 rows over two monthly partitions, so a single user's slice is selective
+        for (YearMonth month : List.of(YearMonth.of(2024, 3), YearMonth.of(2024, 4))) {
+            entityManager.createNativeQuery(String.format(
+                    "create table transactions_p%d%02d partition of transactions for values from ('%s') to ('%s')",
+                    month.getYear(), month.getMonthValue(), month.atDay(1), month.plusMonths(1).atDay(1))).executeUpdate();
+        }
+        entityManager.createNativeQuery("""
+                insert into transactions (id, amount, description, transaction_date, type,
+                                          account_id, category_id, user_id, created_at)
+                select nextval('transactions_seq'),
+                       (g % 997) + 1,
+                       'row ' || g,
+                       timestamp '2024-03-01' + (g % 60) * interval '1 day',
+                       case when (g / 50) % 5 = 0 then 'INCOME' else 'EXPENSE' end,
+                       1000 + g % 200,
+                       2000 + g % 80,
+                       g % 50 + 1,
+                       now()
+                from generate_series(1, 50000) g
+                """).executeUpdate();
+        entityManager.createNativeQuery("analyze transactions").executeUpdate();
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void typeAndDateRangeSearchShouldUseAnIndex() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.INCOME);
+        criteria.setFrom(LocalDate.of(2024, 3, 1));
+        criteria.setTo(LocalDate.of(2024, 3, 31));
+
+        String plan = plan(criteria);
+        assertIndexScan(plan, "transactions_p202403_user_id_");
+        assertThat(plan).as("query plan:%n%s", plan)
+                .doesNotContain("transactions_p202404")
+                .doesNotContain("transactions_default");
+    }
+
+    @Test
+    void amountRangeSearchShouldUseAnIndex() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("10.00"));
+        criteria.setMaxAmount(new BigDecimal("20.00"));
+
+        // no dates: the default window ends today, so the months created ahead are pruned
+        String plan = plan(criteria);
+        assertIndexScan(plan, "transactions_p2024\\d{2}_user_id_");
+        assertThat(plan).as("query plan:%n%s", plan)
+                .doesNotContain("transactions_p" + YearMonth.now().plusMonths(1).format(DateTimeFormatter.ofPattern("yyyyMM")));
+    }
+
+    @Test
+    void accountSearchShouldUseAnIndex() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setAccountId(1006);
+        criteria.setQ("row");
+
+        assertIndexScan(plan(criteria), "transactions_p2024\\d{2}_(account|user)_id_");
+    }
+
+    // The statement behind TransactionRepository.findByIdAndUserId. The row's date is only
+    // known once transaction_ids has been read, so the other partitions are pruned at run time
+    @Test
+    void lookupByIdShouldOnlyScanThePartitionHoldingTheRow() {
+        Object id = entityManager.createNativeQuery(
+                "select min(id) from transactions where user_id = 7 and transaction_date >= '2024-04-01'").getSingleResult();
+
+        @SuppressWarnings("unchecked")
+        List<Object> rows = entityManager.createNativeQuery("""
+                explain (analyze, costs off, timing off, summary off)
+                select t.* from transaction_ids i
+                join transactions t on t.id = i.id and t.transaction_date = i.transaction_date
+                where i.id = %s
+                and t.user_id = 7
+                """.formatted(id)).getResultList();
+        String plan = rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+
+        assertThat(plan).as("query plan:%n%s", plan)
+                .containsPattern("on transactions_p202403 \\w+ \\(never executed\\)")
+                .doesNotContainPattern("on transactions_p202404 \\w+ \\(never executed\\)")
+                .doesNotContain("Seq Scan on transactions_p2024");
+    }
+
+    private String plan(TransactionSearchCriteria criteria) {
+        transactionRepository.search(TransactionSpecifications.matching(7, criteria), true, Pageable.unpaged());
+
+        String sql = CapturingStatementInspector.STATEMENTS.stream()
+                .filter(statement -> statement.contains("from transactions"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        @SuppressWarnings("unchecked")
+        List<Object> rows = entityManager.createNativeQuery("explain " + sql).getResultList();
+        return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    }
+
+    // only the partitions holding the test data; empty ones are legitimately seq scanned
+    private void assertIndexScan(String plan, String indexPrefix) {
+        assertThat(plan)
+                .as("query plan:%n%s", plan)
+                .doesNotContain("Seq Scan on transactions_p2024")
+                .containsPattern("Index (Only )?Scan (Backward )?(using|on) " + indexPrefix);
+    }
+}
@@ -0,0 +1,59 @@
+package com.mandyk.expense.repository;
+
+import com.mandyk.expense.entity.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class UserMonthRollupRepositoryTest extends BaseRepositoryTest {
+
+    @Autowired
+    private UserMonthRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    @DisplayName("Should insert a bucket and add to it on conflict")
+    void shouldUpsertAndAccumulate() {
+        LocalDate january = LocalDate.of(2025, 1, 1);
+
+        rollupRepository.increment(1, january, "EXPENSE", 0, new BigDecimal("10.00"), 1);
+        rollupRepository.increment(1, january, "EXPENSE", 0, new BigDecimal("15.50"), 2);
+        rollupRepository.increment(1, january, "EXPENSE", 0, new BigDecimal("-5.00"), -1);
+        testEntityManager.clear();
+
+        List<Object[]> rows = rollupRepository.sumByType(1);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[0]).isEqualTo(TransactionType.EXPENSE);
+        assertThat((BigDecimal) rows.get(0)[1]).isEqualByComparingTo("20.50");
+        assertThat(((Number) rows.get(0)[2]).longValue()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should sum categories per month and type within the range")
+    void shouldSumByMonthWithinRange() {
+        rollupRepository.increment(2, LocalDate.of(2025, 1, 1), "EXPENSE", 3, new BigDecimal("10.00"), 1);
+        rollupRepository.increment(2, LocalDate.of(2025, 1, 1), "EXPENSE", 4, new BigDecimal("5.00"), 1);
+        rollupRepository.increment(2, LocalDate.of(2025, 2, 1), "INCOME", 0, new BigDecimal("100.00"), 1);
+        rollupRepository.increment(2, LocalDate.of(2025, 3, 1), "EXPENSE", 3, new BigDecimal("1.00"), 1);
+        rollupRepository.increment(9, LocalDate.of(2025, 1, 1), "EXPENSE", 3, new BigDecimal("99.00"), 1);
+
+        List<Object[]> rows = rollupRepository.sumByMonth(2, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)[0]).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat((BigDecimal) rows.get(0)[2]).isEqualByComparingTo("15.00");
+        assertThat(rows.get(1)[1]).isEqualTo(TransactionType.INCOME);
+    }
+}
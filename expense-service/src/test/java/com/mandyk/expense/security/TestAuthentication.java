@@ -0,0 +1,21 @@
+package com.mandyk.expense.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.TestSecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * Puts the principal JwtAuthFilter would create into the test SecurityContext.
+ * Cleared after each test by spring-security-test's execution listener.
+ */
+public final class TestAuthentication {
+
+    private TestAuthentication() {
+    }
+
+    public static void authenticateAs(Integer userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "test@example.com");
+        TestSecurityContextHolder.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
@@ -2,6 +2,7 @@ package com.mandyk.expense.service;
 
 import com.mandyk.expense.dto.AccountDTO;
 import com.mandyk.expense.entity.Account;
+import com.mandyk.expense.event.AccountsChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.AccountRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +26,12 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private OwnershipCache ownershipCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -93,6 +101,8 @@ class AccountServiceTest {
         assertThat(result.getName()).isEqualTo("Checking");
         assertThat(result.getUserId()).isEqualTo(1);
         verify(accountRepository).save(any(Account.class));
+        verify(ownershipCache).invalidateAccounts(1);
+        verify(eventPublisher).publishEvent(new AccountsChangedEvent(1));
     }
 
     // --- deleteAccount ---
@@ -105,6 +115,8 @@ class AccountServiceTest {
         accountService.deleteAccount(1, 1);
 
         verify(accountRepository).delete(savedAccount);
+        verify(ownershipCache).invalidateAccounts(1);
+        verify(eventPublisher).publishEvent(new AccountsChangedEvent(1));
     }
 
     @Test
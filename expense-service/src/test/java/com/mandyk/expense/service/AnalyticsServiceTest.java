@@ -0,0 +1,140 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.dto.MonthlyExpenseDTO;
+import com.mandyk.expense.dto.TransactionSummaryDTO;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.event.TransactionsChangedEvent;
+import com.mandyk.expense.repository.TransactionRepository;
+import com.mandyk.expense.repository.UserMonthRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock
+    private UserMonthRollupRepository rollupRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Spy
+    private CategoryBreakdownCache categoryBreakdownCache =
+            new CategoryBreakdownCache(new SimpleMeterRegistry(), 100, 16, Duration.ofMinutes(5));
+
+    @InjectMocks
+    private AnalyticsService analyticsService;
+
+    @Test
+    void getMonthlyTrendShouldFillEveryMonthInRange() {
+        when(rollupRepository.sumByMonth(1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 1))).thenReturn(List.of(
+                new Object[]{LocalDate.of(2025, 1, 1), TransactionType.EXPENSE, new BigDecimal("40.00"), 3L},
+                new Object[]{LocalDate.of(2025, 1, 1), TransactionType.INCOME, new BigDecimal("100.00"), 1L},
+                new Object[]{LocalDate.of(2025, 3, 1), TransactionType.EXPENSE, new BigDecimal("5.00"), 1L}));
+
+        List<MonthlyExpenseDTO> trend = analyticsService.getMonthlyTrend(1, YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        assertThat(trend).extracting(MonthlyExpenseDTO::getMonth)
+                .containsExactly(YearMonth.of(2025, 1), YearMonth.of(2025, 2), YearMonth.of(2025, 3));
+        assertThat(trend.get(0).getTotalExpense()).isEqualByComparingTo("40.00");
+        assertThat(trend.get(0).getTotalIncome()).isEqualByComparingTo("100.00");
+        assertThat(trend.get(0).getNet()).isEqualByComparingTo("60.00");
+        assertThat(trend.get(0).getTransactionCount()).isEqualTo(4);
+        assertThat(trend.get(1).getTransactionCount()).isZero();
+        assertThat(trend.get(2).getTotalExpense()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void getMonthlyTrendShouldDefaultToLastTwelveMonths() {
+        YearMonth now = YearMonth.now();
+
+        List<MonthlyExpenseDTO> trend = analyticsService.getMonthlyTrend(1, null, null);
+
+        assertThat(trend).hasSize(12);
+        assertThat(trend.get(11).getMonth()).isEqualTo(now);
+        verify(rollupRepository).sumByMonth(1, now.minusMonths(11).atDay(1), now.atDay(1));
+    }
+
+    @Test
+    void getMonthlyTrendShouldRejectInvertedRange() {
+        assertThatThrownBy(() -> analyticsService.getMonthlyTrend(1, YearMonth.of(2025, 5), YearMonth.of(2025, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(rollupRepository, never()).sumByMonth(eq(1), any(), any());
+    }
+
+    @Test
+    void getSummaryShouldCombineTypes() {
+        when(rollupRepository.sumByType(1)).thenReturn(List.of(
+                new Object[]{TransactionType.INCOME, new BigDecimal("500.00"), 2L},
+                new Object[]{TransactionType.EXPENSE, new BigDecimal("120.00"), 7L}));
+
+        TransactionSummaryDTO summary = analyticsService.getSummary(1);
+
+        assertThat(summary.getTotalIncome()).isEqualByComparingTo("500.00");
+        assertThat(summary.getTotalExpense()).isEqualByComparingTo("120.00");
+        assertThat(summary.getNet()).isEqualByComparingTo("380.00");
+        assertThat(summary.getTransactionCount()).isEqualTo(9);
+    }
+
+    @Test
+    void getSummaryShouldReturnZerosForNewUser() {
+        when(rollupRepository.sumByType(1)).thenReturn(List.of());
+
+        TransactionSummaryDTO summary = analyticsService.getSummary(1);
+
+        assertThat(summary.getNet()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(summary.getTransactionCount()).isZero();
+    }
+
+    @Test
+    void getExpenseByCategoryShouldQueryWholeDaysAndServeRepeatsFromCache() {
+        List<CategoryExpenseDTO> breakdown = List.of(new CategoryExpenseDTO(4, "Food", new BigDecimal("80.00"), 5L));
+        when(transactionRepository.getExpenseByCategory(
+                1, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0))).thenReturn(breakdown);
+
+        analyticsService.getExpenseByCategory(1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        List<CategoryExpenseDTO> result = analyticsService.getExpenseByCategory(1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        assertThat(result).extracting(CategoryExpenseDTO::getCategoryName).containsExactly("Food");
+        verify(transactionRepository, times(1)).getExpenseByCategory(eq(1), any(), any());
+    }
+
+    @Test
+    void getExpenseByCategoryShouldReloadAfterUsersTransactionsChange() {
+        when(transactionRepository.getExpenseByCategory(eq(1), any(), any())).thenReturn(List.of());
+
+        analyticsService.getExpenseByCategory(1, null, null);
+        categoryBreakdownCache.onTransactionsChanged(new TransactionsChangedEvent(1));
+        analyticsService.getExpenseByCategory(1, null, null);
+
+        LocalDate today = LocalDate.now();
+        verify(transactionRepository, times(2)).getExpenseByCategory(
+                1, today.withDayOfMonth(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void getExpenseByCategoryShouldRejectInvertedRange() {
+        assertThatThrownBy(() -> analyticsService.getExpenseByCategory(1, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -11,7 +11,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
 
@@ -27,7 +26,7 @@ public class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtService jwtService;
@@ -52,7 +51,7 @@ public class AuthServiceTest {
     @Test
     void registerShouldSaveAndReturnUser() {
         when(userRepository.existsByEmail("mandeep@email.com")).thenReturn(false);
-        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
 
         AuthResponse response = authService.registerUser(request);
@@ -75,7 +74,7 @@ public class AuthServiceTest {
     @Test
     void loginUserShouldReturnResponseWhenCredentialsAreCorrect() {
         when(userRepository.findByEmail("mandeep@email.com")).thenReturn(Optional.of(savedUser));
-        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
 
         AuthResponse response = authService.loginUser(request);
 
@@ -83,6 +82,30 @@ public class AuthServiceTest {
         assertThat(response.getId()).isEqualTo(1);
     }
 
+    @Test
+    void loginUserShouldRehashPasswordWhenCostFactorIncreased() {
+        when(userRepository.findByEmail("mandeep@email.com")).thenReturn(Optional.of(savedUser));
+        when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.needsRehash("encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode("password123")).thenReturn("strongerHash");
+
+        authService.loginUser(request);
+
+        assertThat(savedUser.getPassword()).isEqualTo("strongerHash");
+        verify(userRepository).save(savedUser);
+    }
+
+    @Test
+    void loginUserShouldNotRehashWhenCostFactorUnchanged() {
+        when(userRepository.findByEmail("mandeep@email.com")).thenReturn(Optional.of(savedUser));
+        when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+
+        authService.loginUser(request);
+
+        verify(passwordHashingService, never()).encode(any());
+        verify(userRepository, never()).save(any());
+    }
+
     @Test
     void loginUserShouldThrowWhenEmailNotFound() {
         when(userRepository.findByEmail("mandeep@email.com")).thenReturn(Optional.empty());
@@ -95,7 +118,7 @@ public class AuthServiceTest {
     @Test
     void loginUserShouldThrowWhenPasswordIsWrong() {
         when(userRepository.findByEmail("mandeep@email.com")).thenReturn(Optional.of(savedUser));
-        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
+        when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(false);
 
         assertThatThrownBy(() -> authService.loginUser(request))
                 .isInstanceOf(InvalidPasswordException.class)
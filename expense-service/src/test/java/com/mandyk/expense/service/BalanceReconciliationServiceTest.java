@@ -0,0 +1,87 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.BalanceDriftDTO;
+import com.mandyk.expense.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        lenient().when(accountRepository.tryLockReconciliation()).thenReturn(true);
+    }
+
+    @Test
+    void reconcileShouldReportAndRepairDrift() {
+        BalanceReconciliationService service = service( true, false);
+        when(accountRepository.findBalanceDrift()).thenReturn(List.<Object[]>of(
+                new Object[]{3, new BigDecimal("10.00"), new BigDecimal("25.00")}));
+
+        List<BalanceDriftDTO> drift = service.reconcile();
+
+        assertThat(drift).hasSize(1);
+        assertThat(drift.get(0).getDrift()).isEqualByComparingTo("15.00");
+        verify(accountRepository).adjustBalance(3, new BigDecimal("15.00"));
+        assertThat(meterRegistry.get("account.balance.drift.accounts").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reconcileShouldOnlyReportWhenRepairDisabled() {
+        BalanceReconciliationService service = service( false, false);
+        when(accountRepository.findBalanceDrift()).thenReturn(List.<Object[]>of(
+                new Object[]{3, new BigDecimal("10.00"), new BigDecimal("0.00")}));
+
+        service.reconcile();
+
+        verify(accountRepository, never()).adjustBalance(any(), any());
+    }
+
+    @Test
+    void reconcileShouldSkipWhenAnotherInstanceHoldsTheLock() {
+        BalanceReconciliationService service = service(true, false);
+        when(accountRepository.tryLockReconciliation()).thenReturn(false);
+
+        assertThat(service.reconcile()).isEmpty();
+        verify(accountRepository, never()).findBalanceDrift();
+        verify(accountRepository, never()).adjustBalance(any(), any());
+    }
+
+    @Test
+    void reconcileShouldClearGaugeWhenBalancesMatch() {
+        BalanceReconciliationService service = service( true, false);
+        when(accountRepository.findBalanceDrift()).thenReturn(List.of());
+
+        assertThat(service.reconcile()).isEmpty();
+        assertThat(meterRegistry.get("account.balance.drift.accounts").gauge().value()).isZero();
+    }
+
+    private BalanceReconciliationService service(boolean repair, boolean onStartup) {
+        return new BalanceReconciliationService(accountRepository, new TransactionTemplate(transactionManager),
+                meterRegistry, repair, onStartup);
+    }
+}
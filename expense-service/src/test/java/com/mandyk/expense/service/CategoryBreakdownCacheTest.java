@@ -0,0 +1,106 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.dto.CategoryExpenseDTO;
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.event.TransactionsChangedEvent;
+import com.mandyk.expense.outbox.OutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryBreakdownCacheTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_31 = LocalDate.of(2025, 1, 31);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CategoryBreakdownCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CategoryBreakdownCache(meterRegistry, 100, 2, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    private List<CategoryExpenseDTO> load() {
+        loads.incrementAndGet();
+        return List.of(new CategoryExpenseDTO(1, "Food", new BigDecimal("10.00"), 1L));
+    }
+
+    @Test
+    void shouldServeSameUserAndRangeFromCache() {
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(1, JAN_1, JAN_31, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("analytics.category.cache.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepUsersAndRangesApart() {
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(2, JAN_1, JAN_31, this::load);
+        cache.get(1, JAN_1, JAN_1, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void changeShouldDropOnlyThatUsersRanges() {
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(2, JAN_1, JAN_31, this::load);
+
+        cache.onTransactionsChanged(new TransactionsChangedEvent(1));
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(2, JAN_1, JAN_31, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void outboxMessageFromAnotherInstanceShouldDropThatUsersRanges() {
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(2, JAN_1, JAN_31, this::load);
+
+        cache.onOutboxMessage(new OutboxMessage(9L, OutboxEventType.TRANSACTION_CREATED, 1, 4, 7,
+                LocalDateTime.of(2025, 1, 15, 10, 0), "{}"));
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(2, JAN_1, JAN_31, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void breakdownLoadedAcrossAChangeShouldNotBeServed() {
+        cache.get(1, JAN_1, JAN_31, () -> {
+            // the write commits while this (older) snapshot is being read
+            cache.onTransactionsChanged(new TransactionsChangedEvent(1));
+            return load();
+        });
+        cache.get(1, JAN_1, JAN_31, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldNotKeepMoreRangesPerUserThanConfigured() {
+        cache.get(1, JAN_1, JAN_1, this::load);
+        cache.get(1, JAN_1, JAN_31, this::load);
+        cache.get(1, JAN_31, JAN_31, this::load);
+        cache.get(1, JAN_31, JAN_31, this::load);
+
+        assertThat(loads).hasValue(4);
+    }
+}
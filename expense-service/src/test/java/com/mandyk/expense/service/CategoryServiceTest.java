@@ -2,6 +2,7 @@ package com.mandyk.expense.service;
 
 import com.mandyk.expense.dto.CategoryDTO;
 import com.mandyk.expense.entity.Category;
+import com.mandyk.expense.event.CategoriesChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.CategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +26,12 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private OwnershipCache ownershipCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -72,6 +80,7 @@ class CategoryServiceTest {
         assertThat(result.getName()).isEqualTo("Food");
         assertThat(result.getUserId()).isEqualTo(1);
         verify(categoryRepository).save(any(Category.class));
+        verify(ownershipCache).invalidateCategories(1);
     }
 
     // --- deleteCategory ---
@@ -84,6 +93,8 @@ class CategoryServiceTest {
         categoryService.deleteCategory(1, 1);
 
         verify(categoryRepository).delete(savedCategory);
+        verify(ownershipCache).invalidateCategories(1);
+        verify(eventPublisher).publishEvent(new CategoriesChangedEvent(1));
     }
 
     @Test
@@ -0,0 +1,72 @@
+package com.mandyk.expense.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long-for-hs256";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, 60_000L, 100, meterRegistry);
+    }
+
+    @Test
+    void shouldExtractClaimsFromGeneratedToken() {
+        String token = jwtService.generateToken("test@example.com", 7);
+
+        assertThat(jwtService.extractEmail(token)).isEqualTo("test@example.com");
+        assertThat(jwtService.extractUserId(token)).isEqualTo(7);
+        assertThat(jwtService.isTokenValid(token, "test@example.com")).isTrue();
+        assertThat(jwtService.isTokenValid(token, "other@example.com")).isFalse();
+    }
+
+    @Test
+    void shouldVerifyTokenOnceAndServeRepeatsFromCache() {
+        String token = jwtService.generateToken("test@example.com", 7);
+
+        jwtService.extractEmail(token);
+        jwtService.extractUserId(token);
+        jwtService.isTokenValid(token, "test@example.com");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("jwt.verify").tag("cache", "miss").tag("outcome", "SUCCESS").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verify").tag("cache", "hit").tag("outcome", "SUCCESS").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        JwtService other = new JwtService("another-secret-key-that-is-at-least-256-bits-long-hs256", 60_000L, 100,
+                new SimpleMeterRegistry());
+        String forged = other.generateToken("test@example.com", 7);
+
+        assertThatThrownBy(() -> jwtService.extractClaims(forged)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtService.extractClaims(forged)).isInstanceOf(SignatureException.class);
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "INVALID").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        JwtService shortLived = new JwtService(SECRET, -1_000L, 100, new SimpleMeterRegistry());
+        String token = shortLived.generateToken("test@example.com", 7);
+
+        assertThatThrownBy(() -> jwtService.extractClaims(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "EXPIRED").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.entity.OutboxEventType;
+import com.mandyk.expense.exception.ServiceBusyException;
+import com.mandyk.expense.outbox.OutboxMessage;
+import com.mandyk.expense.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveUpdateRegistryTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // drains only run when the test says so
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+
+    private LiveUpdateRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new LiveUpdateRegistry(accountRepository, new TaskExecutorAdapter(pendingDrains::add),
+                meterRegistry, 2, 3, 4, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void subscribeShouldEvictTheOldestConnectionOverThePerUserLimit() {
+        registry.subscribe(1);
+        registry.subscribe(1);
+        registry.subscribe(1);
+
+        assertThat(registry.connectionCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("live.disconnects").tag("reason", "evicted").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void subscribeShouldRejectOverTheGlobalLimit() {
+        registry.subscribe(1);
+        registry.subscribe(2);
+        registry.subscribe(3);
+
+        assertThatThrownBy(() -> registry.subscribe(4)).isInstanceOf(ServiceBusyException.class);
+        assertThat(registry.connectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void balanceShouldBeReadOncePerDrainForAnAccount() {
+        registry.subscribe(1);
+        when(accountRepository.findBalanceByIdAndUserId(7, 1)).thenReturn(Optional.of(new BigDecimal("42.00")));
+
+        registry.onOutboxMessage(message(1L, 1, 7));
+        registry.onOutboxMessage(message(2L, 1, 7));
+        registry.onOutboxMessage(message(3L, 2, 7));
+        runPendingDrains();
+
+        verify(accountRepository, times(1)).findBalanceByIdAndUserId(7, 1);
+        assertThat(meterRegistry.get("live.events.sent").tag("event", "transaction.created").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("live.events.sent").tag("event", "balance").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void slowClientShouldBeDisconnectedWhenItsQueueIsFull() {
+        registry.subscribe(1);
+
+        // the connect heartbeat plus four events overflow the queue of four
+        for (long id = 1; id <= 4; id++) {
+            registry.onOutboxMessage(message(id, 1, 7));
+        }
+
+        assertThat(registry.connectionCount()).isZero();
+        assertThat(meterRegistry.get("live.disconnects").tag("reason", "slow").counter().count()).isEqualTo(1.0);
+        verifyNoInteractions(accountRepository);
+    }
+
+    private void runPendingDrains() {
+        while (!pendingDrains.isEmpty()) {
+            pendingDrains.remove(0).run();
+        }
+    }
+
+    private static OutboxMessage message(long id, int userId, int accountId) {
+        return new OutboxMessage(id, OutboxEventType.TRANSACTION_CREATED, userId, accountId, (int) id, null, "{}");
+    }
+}
@@ -0,0 +1,81 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.repository.UserMonthRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MonthlyRollupServiceTest {
+
+    @Mock
+    private UserMonthRollupRepository rollupRepository;
+
+    private MonthlyRollupService monthlyRollupService;
+
+    @BeforeEach
+    void setUp() {
+        monthlyRollupService = new MonthlyRollupService(rollupRepository, false);
+    }
+
+    @Test
+    void recordCreatedShouldMergeRowsIntoOneIncrementPerBucket() {
+        Transaction a = transaction("10.00", LocalDateTime.of(2025, 1, 3, 10, 0), TransactionType.EXPENSE, 5);
+        Transaction b = transaction("2.50", LocalDateTime.of(2025, 1, 28, 9, 0), TransactionType.EXPENSE, 5);
+        Transaction c = transaction("100.00", LocalDateTime.of(2025, 2, 1, 0, 0), TransactionType.INCOME, null);
+
+        monthlyRollupService.recordCreated(List.of(c, a, b));
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).increment(1, LocalDate.of(2025, 1, 1), "EXPENSE", 5, new BigDecimal("12.50"), 2);
+        inOrder.verify(rollupRepository).increment(1, LocalDate.of(2025, 2, 1), "INCOME", 0, new BigDecimal("100.00"), 1);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void recordDeletedShouldSubtractFromBucket() {
+        Transaction a = transaction("10.00", LocalDateTime.of(2025, 1, 3, 10, 0), TransactionType.EXPENSE, 5);
+
+        monthlyRollupService.recordDeleted(List.of(a));
+
+        verify(rollupRepository).increment(1, LocalDate.of(2025, 1, 1), "EXPENSE", 5, new BigDecimal("-10.00"), -1);
+    }
+
+    @Test
+    void rebuildShouldClearAndRecompute() {
+        when(rollupRepository.rebuildFromTransactions()).thenReturn(3);
+
+        monthlyRollupService.rebuild();
+
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteAllInBatch();
+        inOrder.verify(rollupRepository).rebuildFromTransactions();
+    }
+
+    @Test
+    void rebuildOnStartupShouldDoNothingWhenDisabled() {
+        monthlyRollupService.rebuildOnStartup();
+
+        verify(rollupRepository, never()).rebuildFromTransactions();
+        verify(rollupRepository, never()).increment(anyInt(), any(), any(), anyInt(), any(), anyLong());
+    }
+
+    private Transaction transaction(String amount, LocalDateTime date, TransactionType type, Integer categoryId) {
+        Transaction t = new Transaction(null, new BigDecimal(amount), date, type, 1, 1);
+        t.setCategoryId(categoryId);
+        return t;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.event.AccountsChangedEvent;
+import com.mandyk.expense.event.CategoriesChangedEvent;
+import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.repository.AccountRepository;
+import com.mandyk.expense.repository.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OwnershipCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OwnershipCache ownershipCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ownershipCache = new OwnershipCache(accountRepository, categoryRepository, jdbcTemplate, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void ownsAccountShouldQueryOnceThenServeFromCache() {
+        when(accountRepository.existsByIdAndUserId(3, 1)).thenReturn(true);
+
+        assertThat(ownershipCache.ownsAccount(1, 3)).isTrue();
+        assertThat(ownershipCache.ownsAccount(1, 3)).isTrue();
+        assertThat(ownershipCache.ownsAccount(1, 3)).isTrue();
+
+        verify(accountRepository, times(1)).existsByIdAndUserId(3, 1);
+        assertThat(requests("account", "hit")).isEqualTo(2);
+        assertThat(requests("account", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void ownsAccountShouldNotCacheNegativeResults() {
+        when(accountRepository.existsByIdAndUserId(3, 2)).thenReturn(false, true);
+
+        assertThat(ownershipCache.ownsAccount(2, 3)).isFalse();
+        assertThat(ownershipCache.ownsAccount(2, 3)).isTrue();
+
+        verify(accountRepository, times(2)).existsByIdAndUserId(3, 2);
+    }
+
+    @Test
+    void invalidateAccountsShouldForceRecheck() {
+        when(accountRepository.existsByIdAndUserId(3, 1)).thenReturn(true, false);
+        ownershipCache.ownsAccount(1, 3);
+
+        ownershipCache.invalidateAccounts(1);
+
+        assertThat(ownershipCache.ownsAccount(1, 3)).isFalse();
+        verify(accountRepository, times(2)).existsByIdAndUserId(3, 1);
+    }
+
+    @Test
+    void ownsAccountShouldNotCacheAnAnswerThatRacedAnInvalidation() {
+        // the account is deleted (and the entry invalidated) while the check is running
+        when(accountRepository.existsByIdAndUserId(3, 1)).thenAnswer(invocation -> {
+            ownershipCache.invalidateAccounts(1);
+            return true;
+        }).thenReturn(false);
+
+        assertThat(ownershipCache.ownsAccount(1, 3)).isTrue();
+        assertThat(ownershipCache.ownsAccount(1, 3)).isFalse();
+
+        verify(accountRepository, times(2)).existsByIdAndUserId(3, 1);
+    }
+
+    @Test
+    void invalidateShouldNotifyOtherInstances() {
+        ownershipCache.invalidateAccounts(1);
+        ownershipCache.invalidateCategories(2);
+
+        verify(jdbcTemplate).queryForList("select pg_notify(?, ?)", OwnershipCache.CHANNEL, "accounts:1");
+        verify(jdbcTemplate).queryForList("select pg_notify(?, ?)", OwnershipCache.CHANNEL, "categories:2");
+    }
+
+    @Test
+    void changeEventsFromOtherInstancesShouldForceRecheck() {
+        when(accountRepository.existsByIdAndUserId(3, 1)).thenReturn(true);
+        when(categoryRepository.existsByIdAndUserId(4, 1)).thenReturn(true);
+        ownershipCache.ownsAccount(1, 3);
+        ownershipCache.ownsCategory(1, 4);
+
+        ownershipCache.onAccountsChanged(new AccountsChangedEvent(1));
+        ownershipCache.onCategoriesChanged(new CategoriesChangedEvent(1));
+        ownershipCache.ownsAccount(1, 3);
+        ownershipCache.ownsCategory(1, 4);
+
+        verify(accountRepository, times(2)).existsByIdAndUserId(3, 1);
+        verify(categoryRepository, times(2)).existsByIdAndUserId(4, 1);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void categoriesShouldBeCachedSeparatelyFromAccounts() {
+        when(categoryRepository.existsByIdAndUserId(3, 1)).thenReturn(true);
+
+        assertThat(ownershipCache.ownsCategory(1, 3)).isTrue();
+        ownershipCache.invalidateAccounts(1);
+        assertThat(ownershipCache.ownsCategory(1, 3)).isTrue();
+
+        verify(categoryRepository, times(1)).existsByIdAndUserId(3, 1);
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void requireShouldThrowWhenNotOwned() {
+        assertThatThrownBy(() -> ownershipCache.requireAccount(1, 9))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Account not found");
+        assertThatThrownBy(() -> ownershipCache.requireCategory(1, 9))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Category not found");
+    }
+
+    private double requests(String type, String result) {
+        return meterRegistry.get("ownership.cache.requests").tag("type", type).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,85 @@
+package com.mandyk.expense.service;
+
+import com.mandyk.expense.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(5), executor, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldEncodeAndMatchOnExecutor() {
+        String hash = passwordHashingService.encode("password123");
+
+        assertThat(passwordHashingService.matches("password123", hash)).isTrue();
+        assertThat(passwordHashingService.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").tag("outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "matches").tag("outcome", "MISMATCH")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").tag("outcome", "SUCCESS")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectImmediatelyWhenExecutorIsSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(() -> { }); // fills the single queue slot
+
+        try {
+            assertThatThrownBy(() -> passwordHashingService.encode("password123"))
+                    .isInstanceOf(ServiceBusyException.class);
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldRequestRehashForWeakerStoredHash() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+        String currentHash = passwordHashingService.encode("password123");
+
+        assertThat(passwordHashingService.needsRehash(weakHash)).isTrue();
+        assertThat(passwordHashingService.needsRehash(currentHash)).isFalse();
+    }
+}
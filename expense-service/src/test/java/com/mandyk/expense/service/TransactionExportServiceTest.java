@@ -0,0 +1,98 @@
+package com.mandyk.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.exporter.ExportFormat;
+import com.mandyk.expense.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        exportService = new TransactionExportService(transactionRepository, entityManager,
+                new ObjectMapper().findAndRegisterModules(), meterRegistry);
+    }
+
+    private Transaction transaction(Integer id) {
+        Transaction t = new Transaction();
+        t.setId(id);
+        t.setUserId(1);
+        t.setAccountId(1);
+        t.setAmount(new BigDecimal("10.00"));
+        t.setTransactionType(TransactionType.EXPENSE);
+        t.setTransactionDate(LocalDateTime.of(2025, 1, id, 12, 0));
+        return t;
+    }
+
+    @Test
+    void exportShouldWriteEveryRowAndDetachIt() throws Exception {
+        Transaction first = transaction(1);
+        Transaction second = transaction(2);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamByUserIdAndTransactionDateBetween(
+                1, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0)))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportTransactions(1, ExportFormat.CSV,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\r\n")).hasSize(3);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertThat(closed).isTrue();
+        assertThat(meterRegistry.get("transactions.export.rows").tag("format", "CSV").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("transactions.export.duration").tag("outcome", "completed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exportShouldDefaultToWholeHistoryUpToToday() throws Exception {
+        when(transactionRepository.streamByUserIdAndTransactionDateBetween(eq(1), any(), any()))
+                .thenReturn(Stream.empty());
+
+        exportService.exportTransactions(1, ExportFormat.NDJSON, null, null, new ByteArrayOutputStream());
+
+        verify(transactionRepository).streamByUserIdAndTransactionDateBetween(
+                1, LocalDateTime.of(1900, 1, 1, 0, 0), LocalDate.now().plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void checkRangeShouldRejectFromAfterTo() {
+        assertThatThrownBy(() -> exportService.checkRange(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,129 @@
+package com.mandyk.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mandyk.expense.dto.ImportJobDTO;
+import com.mandyk.expense.entity.Transaction;
+import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.importer.ImportJobRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private OwnershipCache ownershipCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        // synchronous executor + chunk size 2 so chunking is observable in one call
+        importService = new TransactionImportService(transactionService, ownershipCache,
+                new ImportJobRegistry(jdbcTemplate, new ObjectMapper(), Duration.ofHours(1), Duration.ofMinutes(2)), new SyncTaskExecutor(), 2, 100, 65536);
+    }
+
+    @Test
+    void startImportShouldWriteRowsInChunksAndReportErrors() {
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(transactionService.persistTransactions(anyList())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+
+        String csv = """
+                date,amount,description
+                2025-01-01,-1.00,a
+                2025-01-02,-2.00,b
+                bad,-3.00,c
+                2025-01-04,-4.00,d
+                2999-01-01,-5.00,future
+                2025-01-06,6.00,f
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        ImportJobDTO job = importService.startImport(file, null, 1, 1);
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getRowsRead()).isEqualTo(6);
+        assertThat(job.getRowsImported()).isEqualTo(4);
+        assertThat(job.getRowsRejected()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting("row").containsExactly(4L, 6L);
+        assertThat(chunkSizes).containsExactly(2, 2);
+
+        assertThat(importService.getJob(job.getId(), 1).getRowsImported()).isEqualTo(4);
+    }
+
+    @Test
+    void startImportShouldRejectAmountsTheColumnCannotHold() {
+        List<Transaction> saved = new ArrayList<>();
+        when(transactionService.persistTransactions(anyList())).thenAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(0);
+            saved.addAll(chunk);
+            return chunk;
+        });
+
+        String csv = """
+                date,amount,description
+                2025-01-01,-1.005,too precise
+                2025-01-02,-10000000000000.00,too large
+                2025-01-03,-9999999999999.99,largest
+                2025-01-04,-2.500,trailing zero
+                """;
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        ImportJobDTO job = importService.startImport(file, null, 1, 1);
+
+        assertThat(job.getRowsImported()).isEqualTo(2);
+        assertThat(job.getErrors()).extracting("row").containsExactly(2L, 3L);
+        assertThat(job.getErrors()).extracting("message").containsOnly("Invalid amount format");
+        assertThat(saved).extracting(Transaction::getDescription).containsExactly("largest", "trailing zero");
+    }
+
+    @Test
+    void startImportShouldThrowWhenAccountNotOwned() {
+        doThrow(new ResourceNotFoundException("Account not found")).when(ownershipCache).requireAccount(1, 9);
+        MockMultipartFile file = new MockMultipartFile("file", "statement.ofx", "application/x-ofx", "<OFX/>".getBytes());
+
+        assertThatThrownBy(() -> importService.startImport(file, null, 9, 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Account not found");
+
+        verify(transactionService, never()).persistTransactions(anyList());
+    }
+
+    @Test
+    void getJobShouldNotExposeOtherUsersJobs() {
+        MockMultipartFile file = new MockMultipartFile("file", "s.csv", "text/csv", "date,amount\n".getBytes());
+
+        ImportJobDTO job = importService.startImport(file, "csv", 1, 1);
+
+        assertThatThrownBy(() -> importService.getJob(job.getId(), 2))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.mandyk.expense.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void maintainShouldCreateCurrentAndUpcomingMonths() {
+        TransactionPartitionService service = service(2, 0, "archive");
+
+        service.maintain(YearMonth.of(2026, 11));
+
+        verify(jdbcTemplate).execute("create table if not exists transactions_p202611 partition of transactions"
+                + " for values from ('2026-11-01') to ('2026-12-01')");
+        verify(jdbcTemplate).execute("create table if not exists transactions_p202612 partition of transactions"
+                + " for values from ('2026-12-01') to ('2027-01-01')");
+        verify(jdbcTemplate).execute("create table if not exists transactions_p202701 partition of transactions"
+                + " for values from ('2027-01-01') to ('2027-02-01')");
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+
+    @Test
+    void maintainShouldKeepGoingWhenOneMonthCannotBeCreated() {
+        TransactionPartitionService service = service(1, 0, "archive");
+        doThrow(new DataIntegrityViolationException("default partition contains rows"))
+                .when(jdbcTemplate).execute(startsWith("create table if not exists transactions_p202611"));
+
+        service.maintain(YearMonth.of(2026, 11));
+
+        verify(jdbcTemplate).execute(startsWith("create table if not exists transactions_p202612"));
+        assertThat(meterRegistry.get("transactions.partitions.failures").tag("operation", "create").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void maintainShouldDetachMonthsOutsideRetentionIntoArchive() {
+        TransactionPartitionService service = service(1, 12, "archive");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("transactions_default", "transactions_p202510", "transactions_p202511", "transactions_p202611"));
+
+        service.maintain(YearMonth.of(2026, 11));
+
+        InOrder inOrder = inOrder(transactionManager, jdbcTemplate);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).execute("alter table transactions detach partition transactions_p202510");
+        inOrder.verify(jdbcTemplate).execute(contains("insert into account_archived_balance"));
+        inOrder.verify(jdbcTemplate).execute("alter table transactions_p202510 set schema archive");
+        inOrder.verify(transactionManager).commit(any());
+        verify(jdbcTemplate).execute(contains("from transactions_p202510"));
+        verify(jdbcTemplate, never()).execute("alter table transactions detach partition transactions_p202511");
+        verify(jdbcTemplate, never()).execute("alter table transactions detach partition transactions_default");
+        assertThat(meterRegistry.get("transactions.partitions.detached").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void archiveSchemaShouldBeAPlainIdentifier() {
+        assertThatThrownBy(() -> service(3, 0, "archive; drop table users"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TransactionPartitionService service(int monthsAhead, int retentionMonths, String archiveSchema) {
+        return new TransactionPartitionService(jdbcTemplate, new TransactionTemplate(transactionManager), meterRegistry,
+                monthsAhead, retentionMonths, archiveSchema);
+    }
+}
@@ -1,21 +1,33 @@
 package com.mandyk.expense.service;
 
+import com.mandyk.expense.dto.CursorPageDTO;
+import com.mandyk.expense.dto.TransactionBatchResponseDTO;
+import com.mandyk.expense.dto.TransactionBatchResultDTO;
 import com.mandyk.expense.dto.TransactionCreateRequestDTO;
 import com.mandyk.expense.dto.TransactionResponseDTO;
+import com.mandyk.expense.dto.TransactionSearchCriteria;
 import com.mandyk.expense.entity.Account;
 import com.mandyk.expense.entity.Category;
+import com.mandyk.expense.entity.OutboxEventType;
 import com.mandyk.expense.entity.Transaction;
 import com.mandyk.expense.entity.TransactionType;
+import com.mandyk.expense.event.TransactionsChangedEvent;
 import com.mandyk.expense.exception.ResourceNotFoundException;
+import com.mandyk.expense.outbox.TransactionOutbox;
 import com.mandyk.expense.repository.AccountRepository;
-import com.mandyk.expense.repository.CategoryRepository;
 import com.mandyk.expense.repository.TransactionRepository;
+import com.mandyk.expense.util.TransactionCursor;
+import com.mandyk.expense.util.TransactionDateRange;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,17 +35,23 @@ import org.springframework.data.domain.Pageable;
 
 import javax.swing.text.html.Option;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionServiceTest {
 
+    private static final LocalDateTime EARLIEST = TransactionDateRange.EARLIEST.atStartOfDay();
+
     @Mock
     private TransactionRepository transactionRepository;
 
@@ -41,7 +59,19 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private OwnershipCache ownershipCache;
+
+    @Mock
+    private MonthlyRollupService monthlyRollupService;
+
+    @Mock
+    private TransactionOutbox transactionOutbox;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -83,8 +113,6 @@ class TransactionServiceTest {
 
 
         when(transactionRepository.save(any(Transaction.class))).thenReturn(savedTransaction);
-        when(accountRepository.findByIdAndUserId(any(Integer.class), any(Integer.class))).thenReturn(Optional.of(savedAccount));
-        when(categoryRepository.findByIdAndUserId(any(Integer.class), any(Integer.class))).thenReturn(Optional.of(savedCategory));
 
         TransactionCreateRequestDTO request = new TransactionCreateRequestDTO();
         request.setAccountId(1);
@@ -100,16 +128,96 @@ class TransactionServiceTest {
         assertThat(result.getAmount()).isEqualByComparingTo("100.00");
         assertThat(result.getDescription()).isEqualTo("Grocery shopping");
         verify(transactionRepository).save(any(Transaction.class));
+        verify(ownershipCache).requireAccount(1, 1);
+        verify(accountRepository).adjustBalance(1, new BigDecimal("-100.00"));
+        verify(monthlyRollupService).recordCreated(List.of(savedTransaction));
+        verify(transactionOutbox).record(eq(OutboxEventType.TRANSACTION_CREATED),
+                argThat(rows -> rows.size() == 1 && rows.get(0).getId() == 1));
+        verify(eventPublisher).publishEvent(new TransactionsChangedEvent(1));
+    }
+
+    // --- createTransactions (batch) ---
+
+    @Test
+    void createTransactionsShouldSaveValidRowsAndRejectOthers() {
+        when(ownershipCache.ownsAccount(1, 1)).thenReturn(true);
+        when(ownershipCache.ownsAccount(1, 2)).thenReturn(false);
+        when(ownershipCache.ownsCategory(1, 1)).thenReturn(true);
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> rows = invocation.getArgument(0);
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).setId(100 + i);
+            }
+            return rows;
+        });
+
+        List<TransactionCreateRequestDTO> requests = List.of(
+                batchRow(1, 1, LocalDateTime.now().minusDays(1)),
+                batchRow(2, 1, LocalDateTime.now().minusDays(1)),
+                batchRow(1, 1, LocalDateTime.now().plusDays(1)),
+                batchRow(1, 1, LocalDateTime.now().minusDays(2))
+        );
+
+        TransactionBatchResponseDTO result = transactionService.createTransactions(requests, 1);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(TransactionBatchResultDTO::getStatus)
+                .containsExactly(TransactionBatchResultDTO.Status.CREATED,
+                        TransactionBatchResultDTO.Status.REJECTED,
+                        TransactionBatchResultDTO.Status.REJECTED,
+                        TransactionBatchResultDTO.Status.CREATED);
+        assertThat(result.getResults().get(0).getTransactionId()).isEqualTo(100);
+        assertThat(result.getResults().get(1).getError()).isEqualTo("Account not found");
+        assertThat(result.getResults().get(3).getTransactionId()).isEqualTo(101);
+
+        // ownership looked up once per distinct id
+        verify(ownershipCache, times(1)).ownsAccount(1, 1);
+        verify(ownershipCache, times(1)).ownsCategory(1, 1);
+        verify(transactionRepository).flush();
+        verify(accountRepository).adjustBalance(1, new BigDecimal("-20.00"));
+        verify(monthlyRollupService).recordCreated(argThat(rows -> rows.size() == 2));
+        verify(transactionOutbox).record(eq(OutboxEventType.TRANSACTION_CREATED), argThat(rows -> rows.size() == 2));
+        verify(eventPublisher, times(1)).publishEvent(new TransactionsChangedEvent(1));
+        assertThat(meterRegistry.get("transactions.batch.rows").tag("outcome", "created").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void createTransactionsShouldNotWriteWhenAllRowsRejected() {
+        when(ownershipCache.ownsAccount(1, 2)).thenReturn(false);
+
+        TransactionBatchResponseDTO result = transactionService.createTransactions(
+                List.of(batchRow(2, null, LocalDateTime.now())), 1);
+
+        assertThat(result.getCreated()).isZero();
+        assertThat(result.getRejected()).isEqualTo(1);
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    private TransactionCreateRequestDTO batchRow(Integer accountId, Integer categoryId, LocalDateTime date) {
+        TransactionCreateRequestDTO request = new TransactionCreateRequestDTO();
+        request.setAccountId(accountId);
+        request.setCategoryId(categoryId);
+        request.setAmount(new BigDecimal("10.00"));
+        request.setTransactionType(TransactionType.EXPENSE);
+        request.setTransactionDate(date);
+        return request;
     }
 
     // --- getTransactionsByUserId ---
 
+    private TransactionResponseDTO row(Integer id, LocalDateTime date) {
+        return new TransactionResponseDTO(id, new BigDecimal("100.00"), "Grocery shopping", date,
+                TransactionType.EXPENSE, 1, 1, 1, date);
+    }
+
     @Test
     void getTransactionsByUserIdShouldReturnPage() {
-        Page<Transaction> page = new PageImpl<>(List.of(savedTransaction));
-        when(transactionRepository.findByUserId(1, pageable)).thenReturn(page);
+        Page<TransactionResponseDTO> page = new PageImpl<>(List.of(row(1, LocalDateTime.now())));
+        when(transactionRepository.findByUserId(eq(1), eq(EARLIEST), any(), eq(true), eq(pageable))).thenReturn(page);
 
-        Page<TransactionResponseDTO> result = transactionService.getTransactionsByUserId(1, pageable);
+        Page<TransactionResponseDTO> result = transactionService.getTransactionsByUserId(1, null, null, pageable, null);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
         assertThat(result.getContent().get(0).getDescription()).isEqualTo("Grocery shopping");
@@ -117,23 +225,69 @@ class TransactionServiceTest {
 
     @Test
     void getTransactionsByUserIdShouldReturnEmptyPageWhenNoTransactions() {
-        Page<Transaction> emptyPage = new PageImpl<>(List.of());
-        when(transactionRepository.findByUserId(1, pageable)).thenReturn(emptyPage);
+        Page<TransactionResponseDTO> emptyPage = new PageImpl<>(List.of());
+        when(transactionRepository.findByUserId(eq(1), eq(EARLIEST), any(), eq(true), eq(pageable))).thenReturn(emptyPage);
 
-        Page<TransactionResponseDTO> result = transactionService.getTransactionsByUserId(1, pageable);
+        Page<TransactionResponseDTO> result = transactionService.getTransactionsByUserId(1, null, null, pageable, null);
 
         assertThat(result.getTotalElements()).isEqualTo(0);
         assertThat(result.getContent()).isEmpty();
     }
 
+    @Test
+    void getTransactionsByUserIdShouldSkipDescriptionWhenNotSelected() {
+        when(transactionRepository.findByUserId(eq(1), eq(EARLIEST), any(), eq(false), eq(pageable))).thenReturn(new PageImpl<>(List.of()));
+
+        transactionService.getTransactionsByUserId(1, null, null, pageable, "id, amount,transactionDate");
+
+        verify(transactionRepository).findByUserId(eq(1), eq(EARLIEST), any(), eq(false), eq(pageable));
+    }
+
+    @Test
+    void getTransactionsByUserIdShouldLoadDescriptionWhenSelected() {
+        when(transactionRepository.findByUserId(eq(1), eq(EARLIEST), any(), eq(true), eq(pageable))).thenReturn(new PageImpl<>(List.of()));
+
+        transactionService.getTransactionsByUserId(1, null, null, pageable, "id,description");
+
+        verify(transactionRepository).findByUserId(eq(1), eq(EARLIEST), any(), eq(true), eq(pageable));
+    }
+
+    @Test
+    void getTransactionsByUserIdShouldBoundQueryByRequestedDates() {
+        when(transactionRepository.findByUserId(any(), any(), any(), anyBoolean(), any())).thenReturn(new PageImpl<>(List.of()));
+
+        transactionService.getTransactionsByUserId(1, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), pageable, null);
+
+        verify(transactionRepository).findByUserId(
+                1, LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0), true, pageable);
+    }
+
+    @Test
+    void getTransactionsByUserIdShouldRejectInvertedDateRange() {
+        assertThatThrownBy(() -> transactionService.getTransactionsByUserId(
+                1, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), pageable, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'from'");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void getTransactionsByUserIdShouldRejectUnknownFields() {
+        assertThatThrownBy(() -> transactionService.getTransactionsByUserId(1, null, null, pageable, "id,password"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown field: password");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
     // --- getTransactionsByAccountId ---
 
     @Test
     void getTransactionsByAccountIdShouldReturnPage() {
-        Page<Transaction> page = new PageImpl<>(List.of(savedTransaction));
-        when(transactionRepository.findByUserIdAndAccountId(1, 1, pageable)).thenReturn(page);
-        when(accountRepository.findByIdAndUserId(any(Integer.class), any(Integer.class))).thenReturn(Optional.of(savedAccount));
-        Page<TransactionResponseDTO> result = transactionService.getTransactionsByAccountId(1, 1, pageable);
+        Page<TransactionResponseDTO> page = new PageImpl<>(List.of(row(1, LocalDateTime.now())));
+        when(transactionRepository.findByUserIdAndAccountId(eq(1), eq(1), eq(EARLIEST), any(), eq(true), eq(pageable))).thenReturn(page);
+        Page<TransactionResponseDTO> result = transactionService.getTransactionsByAccountId(1, 1, null, null, pageable, null);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
         assertThat(result.getContent().get(0).getAccountId()).isEqualTo(1);
@@ -143,15 +297,98 @@ class TransactionServiceTest {
 
     @Test
     void getTransactionsByCategoryIdShouldReturnPage() {
-        Page<Transaction> page = new PageImpl<>(List.of(savedTransaction));
-        when(transactionRepository.findByUserIdAndCategoryId(1, 1, pageable)).thenReturn(page);
+        Page<TransactionResponseDTO> page = new PageImpl<>(List.of(row(1, LocalDateTime.now())));
+        when(transactionRepository.findByUserIdAndCategoryId(eq(1), eq(1), eq(EARLIEST), any(), eq(true), eq(pageable))).thenReturn(page);
 
-        Page<TransactionResponseDTO> result = transactionService.getTransactionsByCategoryId(1, 1, pageable);
+        Page<TransactionResponseDTO> result = transactionService.getTransactionsByCategoryId(1, 1, null, null, pageable, null);
 
         assertThat(result.getTotalElements()).isEqualTo(1);
         assertThat(result.getContent().get(0).getCategoryId()).isEqualTo(1);
     }
 
+    // --- searchTransactions ---
+
+    @Test
+    void searchTransactionsShouldDelegateWithSelectedFields() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.EXPENSE);
+        when(transactionRepository.search(any(), eq(false), eq(pageable))).thenReturn(new PageImpl<>(List.of()));
+
+        transactionService.searchTransactions(1, criteria, pageable, "id,amount");
+
+        verify(transactionRepository).search(any(), eq(false), eq(pageable));
+    }
+
+    @Test
+    void searchTransactionsShouldRejectInvertedAmountRange() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setMinAmount(new BigDecimal("50"));
+        criteria.setMaxAmount(new BigDecimal("10"));
+
+        assertThatThrownBy(() -> transactionService.searchTransactions(1, criteria, pageable, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("minAmount");
+
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void searchTransactionsShouldRejectInvertedDateRange() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setFrom(LocalDate.of(2025, 2, 1));
+        criteria.setTo(LocalDate.of(2025, 1, 1));
+
+        assertThatThrownBy(() -> transactionService.searchTransactions(1, criteria, pageable, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'from'");
+    }
+
+    // --- keyset pagination ---
+
+    @Test
+    void getTransactionsByUserIdAfterShouldReturnNextCursorWhenMoreRowsExist() {
+        LocalDateTime date = LocalDateTime.of(2025, 1, 10, 10, 0);
+        when(transactionRepository.findFirstByUserId(eq(1), eq(EARLIEST), any(), eq(true), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(row(1, date), row(2, date.minusDays(1))));
+
+        CursorPageDTO<TransactionResponseDTO> result = transactionService.getTransactionsByUserIdAfter(1, null, null, null, 1, null);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isTrue();
+        TransactionCursor cursor = TransactionCursor.decode(result.getNextCursor());
+        assertThat(cursor.getId()).isEqualTo(1);
+        assertThat(cursor.getTransactionDate()).isEqualTo(date);
+    }
+
+    @Test
+    void getTransactionsByUserIdAfterShouldSeekFromCursor() {
+        LocalDateTime date = LocalDateTime.of(2025, 1, 10, 10, 0);
+        String cursor = new TransactionCursor(date, 7).encode();
+        when(transactionRepository.findNextByUserId(1, EARLIEST, date, 7, true, PageRequest.of(0, 21)))
+                .thenReturn(List.of(row(1, date.minusDays(1))));
+
+        CursorPageDTO<TransactionResponseDTO> result = transactionService.getTransactionsByUserIdAfter(1, null, null, cursor, 20, null);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTransactionsByUserIdAfterShouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> transactionService.getTransactionsByUserIdAfter(1, null, null, "not-a-cursor", 20, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void getTransactionsByAccountIdAfterShouldThrowWhenAccountNotOwned() {
+        doThrow(new ResourceNotFoundException("Account not found")).when(ownershipCache).requireAccount(1, 5);
+
+        assertThatThrownBy(() -> transactionService.getTransactionsByAccountIdAfter(1, 5, null, null, null, 20, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
     // --- getTransaction ---
 
     @Test
@@ -178,11 +415,29 @@ class TransactionServiceTest {
     @Test
     void deleteTransactionShouldDeleteSuccessfully() {
         when(transactionRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(savedTransaction));
-        doNothing().when(transactionRepository).delete(savedTransaction);
+        when(transactionRepository.deleteByIdAndTransactionDate(1, savedTransaction.getTransactionDate())).thenReturn(1);
 
         transactionService.deleteTransaction(1, 1);
 
-        verify(transactionRepository).delete(savedTransaction);
+        verify(transactionRepository).deleteByIdAndTransactionDate(1, savedTransaction.getTransactionDate());
+        verify(accountRepository).adjustBalance(1, new BigDecimal("100.00"));
+        verify(monthlyRollupService).recordDeleted(List.of(savedTransaction));
+        verify(transactionOutbox).record(eq(OutboxEventType.TRANSACTION_DELETED),
+                argThat(rows -> rows.size() == 1 && rows.get(0).getId() == 1));
+        verify(eventPublisher).publishEvent(new TransactionsChangedEvent(1));
+    }
+
+    @Test
+    void deleteTransactionShouldNotApplySideEffectsWhenAConcurrentDeleteWon() {
+        when(transactionRepository.findByIdAndUserId(1, 1)).thenReturn(Optional.of(savedTransaction));
+        when(transactionRepository.deleteByIdAndTransactionDate(1, savedTransaction.getTransactionDate())).thenReturn(0);
+
+        assertThatThrownBy(() -> transactionService.deleteTransaction(1, 1))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Transaction not found");
+
+        verify(accountRepository, never()).adjustBalance(any(), any());
+        verifyNoInteractions(monthlyRollupService, transactionOutbox, eventPublisher);
     }
 
     @Test
@@ -193,26 +448,35 @@ class TransactionServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Transaction not found");
 
-        verify(transactionRepository, never()).delete(any());
+        verify(transactionRepository, never()).deleteByIdAndTransactionDate(any(), any());
+        verifyNoInteractions(transactionOutbox, eventPublisher);
     }
 
     // --- getAccountBalance ---
 
     @Test
     void getAccountBalanceShouldReturnBalance() {
-        when(transactionRepository.getAccountBalance(1, 1)).thenReturn(new BigDecimal("500.00"));
-        when(accountRepository.findByIdAndUserId(any(Integer.class), any(Integer.class))).thenReturn(Optional.of(savedAccount));
+        when(accountRepository.findBalanceByIdAndUserId(1, 1)).thenReturn(Optional.of(new BigDecimal("500.00")));
         BigDecimal balance = transactionService.getAccountBalance(1, 1);
 
         assertThat(balance).isEqualByComparingTo("500.00");
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
     void getAccountBalanceShouldReturnZeroWhenNoTransactions() {
-        when(transactionRepository.getAccountBalance(1, 1)).thenReturn(BigDecimal.ZERO);
-        when(accountRepository.findByIdAndUserId(any(Integer.class), any(Integer.class))).thenReturn(Optional.of(savedAccount));
+        when(accountRepository.findBalanceByIdAndUserId(1, 1)).thenReturn(Optional.of(BigDecimal.ZERO));
         BigDecimal balance = transactionService.getAccountBalance(1, 1);
 
         assertThat(balance).isEqualByComparingTo(BigDecimal.ZERO);
     }
+
+    @Test
+    void getAccountBalanceShouldThrowWhenAccountNotOwned() {
+        when(accountRepository.findBalanceByIdAndUserId(1, 2)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> transactionService.getAccountBalance(1, 2))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Account not found");
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.mandyk.expense.dto.ChangePasswordDTO;
 import com.mandyk.expense.dto.UpdateProfileDTO;
 import com.mandyk.expense.dto.UserDTO;
 import com.mandyk.expense.entity.User;
+import com.mandyk.expense.event.UserChangedEvent;
 import com.mandyk.expense.exception.InvalidPasswordException;
 import com.mandyk.expense.exception.ResourceNotFoundException;
 import com.mandyk.expense.repository.UserRepository;
@@ -13,7 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -28,7 +29,10 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UserService userService;
@@ -82,6 +86,7 @@ class UserServiceTest {
         assertThat(result.getName()).isEqualTo("Mandeep Updated");
         assertThat(result.getEmail()).isEqualTo("mandeep.updated@email.com");
         verify(userRepository).save(any(User.class));
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1, false));
     }
 
     @Test
@@ -110,7 +115,7 @@ class UserServiceTest {
 
         when(userRepository.findById(1)).thenReturn(Optional.of(savedUser));
         when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(passwordEncoder.matches("password123", "password123")).thenReturn(true);
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
 
         assertThatNoException().isThrownBy(() -> userService.changePassword(dto, 1));
 
@@ -149,6 +154,25 @@ class UserServiceTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    void changePasswordShouldThrowWhenNewPasswordIsSameAsOld() {
+        ChangePasswordDTO dto = new ChangePasswordDTO();
+
+        dto.setOldPassword("password123");
+        dto.setNewPassword("password123");
+
+        when(userRepository.findById(1)).thenReturn(Optional.of(savedUser));
+        when(passwordHashingService.matches("password123", "password123")).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.changePassword(dto, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("New password must be different");
+
+        // a single BCrypt verification per password change
+        verify(passwordHashingService, times(1)).matches(any(), any());
+        verify(userRepository, never()).save(any());
+    }
+
     // --- deleteUserById ---
 
     @Test
@@ -159,6 +183,7 @@ class UserServiceTest {
         userService.deleteUserById(1);
 
         verify(userRepository).deleteById(1);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(1, true));
     }
 
     @Test
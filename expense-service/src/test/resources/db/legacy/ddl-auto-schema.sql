@@ -0,0 +1,44 @@
+-- The schema Hibernate (ddl-auto: update) generated for the entities before Flyway took
+-- over, kept as-is so upgrade tests start from what existing databases really hold.
+-- Never edit this to follow the migrations.
+
+create table users (
+    id integer generated by default as identity,
+    created_at timestamp(6) not null,
+    email varchar(255) not null unique,
+    name varchar(255),
+    password varchar(255) not null,
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table account (
+    id integer generated by default as identity,
+    created_at timestamp(6) not null,
+    name varchar(255) not null,
+    user_id integer not null,
+    primary key (id)
+);
+
+create table category (
+    id integer generated by default as identity,
+    name varchar(255) not null,
+    user_id integer,
+    primary key (id)
+);
+
+create table transactions (
+    id integer generated by default as identity,
+    account_id integer not null,
+    amount numeric(15,2) not null,
+    category_id integer,
+    created_at timestamp(6) not null,
+    description text,
+    transaction_date timestamp(6),
+    type varchar(255) not null check (type in ('INCOME','EXPENSE')),
+    user_id integer not null,
+    primary key (id)
+);
+
+create index idx_transactions_user_date on transactions (user_id);
+create index idx_transactions_account on transactions (account_id);
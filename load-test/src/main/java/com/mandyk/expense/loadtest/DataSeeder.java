@@ -0,0 +1,209 @@
+package com.mandyk.expense.loadtest;
+
+import com.mandyk.expense.service.MonthlyRollupService;
+import com.mandyk.expense.service.TransactionPartitionService;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Fills an empty database with users, accounts, categories and a ledger of the requested
+ * size, using COPY. Ids are assigned here, so {@link SeededData} can work out which rows
+ * belong to whom without reading them back. A database that already has users is left
+ * as it is, so a seeded external database can be reused across runs.
+ */
+class DataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int COPY_BUFFER = 1 << 20;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Groceries", "Rent", "Transport", "Eating out", "Utilities", "Health", "Travel", "Shopping",
+            "Entertainment", "Insurance", "Education", "Gifts"};
+    private static final String[] ACCOUNT_NAMES = {"Current", "Savings", "Credit card", "Cash", "Joint"};
+    private static final String[] MERCHANTS = {
+            "Card payment at Fresh Market", "Monthly rent", "Metro top-up", "Coffee corner", "Electricity bill",
+            "Pharmacy", "Airline ticket", "Online order", "Cinema", "Salary", "Refund", "Bank transfer"};
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PasswordEncoder passwordEncoder;
+    private TransactionPartitionService partitionService;
+    private MonthlyRollupService rollupService;
+
+    DataSeeder(DataSource dataSource,
+               PasswordEncoder passwordEncoder,
+               TransactionPartitionService partitionService,
+               MonthlyRollupService rollupService) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.passwordEncoder = passwordEncoder;
+        this.partitionService = partitionService;
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * @return false when the database already had users and nothing was written
+     */
+    boolean seed(LoadTestOptions options) throws SQLException {
+
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from users", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already has {} users; reusing its data", existing);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(options.seed());
+
+        // monthly partitions for the whole history, so old rows do not pile up in the default one
+        YearMonth first = YearMonth.now().minusMonths(options.months());
+        for (YearMonth month = first; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            partitionService.maintain(month);
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            PGConnection pg = connection.unwrap(PGConnection.class);
+            copyUsers(pg, options);
+            copyAccounts(pg, options);
+            copyCategories(pg, options);
+            copyTransactions(pg, options, random);
+        }
+
+        // ids were supplied explicitly, so move every generator past them
+        jdbcTemplate.execute("select setval(pg_get_serial_sequence('users', 'id'), (select max(id) from users))");
+        jdbcTemplate.execute("select setval(pg_get_serial_sequence('account', 'id'), (select max(id) from account))");
+        jdbcTemplate.execute("select setval(pg_get_serial_sequence('category', 'id'), (select max(id) from category))");
+        jdbcTemplate.execute("select setval('transactions_seq', (select max(id) from transactions) + 100)");
+
+        jdbcTemplate.update("""
+                update account a set balance = l.balance
+                from (select account_id,
+                             sum(case when type = 'INCOME' then amount else -amount end) as balance
+                      from transactions group by account_id) l
+                where l.account_id = a.id
+                """);
+        rollupService.rebuild();
+        jdbcTemplate.execute("analyze");
+
+        log.info("Seeded {} users, {} accounts, {} categories and {} transactions in {} s",
+                options.users(), (long) options.users() * options.accountsPerUser(),
+                (long) options.users() * options.categoriesPerUser(), options.transactions(),
+                (System.nanoTime() - start) / 1_000_000_000);
+        return true;
+    }
+
+    private void copyUsers(PGConnection pg, LoadTestOptions options) throws SQLException {
+        // one hash for everybody: hashing a million passwords would dominate the seeding time
+        String hash = passwordEncoder.encode(SeededData.PASSWORD);
+        String now = LocalDateTime.now().format(TIMESTAMP);
+        try (CsvCopy copy = new CsvCopy(pg, "users (id, name, email, password, created_at)")) {
+            for (int user = 1; user <= options.users(); user++) {
+                copy.row(user, "Load test user " + user, SeededData.email(user), hash, now);
+            }
+        }
+    }
+
+    private void copyAccounts(PGConnection pg, LoadTestOptions options) throws SQLException {
+        String now = LocalDateTime.now().format(TIMESTAMP);
+        try (CsvCopy copy = new CsvCopy(pg, "account (id, name, user_id, created_at, balance)")) {
+            for (int user = 1; user <= options.users(); user++) {
+                for (int i = 0; i < options.accountsPerUser(); i++) {
+                    copy.row(SeededData.accountId(options, user, i), ACCOUNT_NAMES[i % ACCOUNT_NAMES.length],
+                            user, now, "0");
+                }
+            }
+        }
+    }
+
+    private void copyCategories(PGConnection pg, LoadTestOptions options) throws SQLException {
+        try (CsvCopy copy = new CsvCopy(pg, "category (id, name, user_id)")) {
+            for (int user = 1; user <= options.users(); user++) {
+                for (int i = 0; i < options.categoriesPerUser(); i++) {
+                    copy.row(SeededData.categoryId(options, user, i), CATEGORY_NAMES[i % CATEGORY_NAMES.length], user);
+                }
+            }
+        }
+    }
+
+    private void copyTransactions(PGConnection pg, LoadTestOptions options, SplittableRandom random) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        long historySeconds = options.months() * 30L * 24 * 3600;
+
+        try (CsvCopy copy = new CsvCopy(pg,
+                "transactions (id, amount, description, transaction_date, type, account_id, category_id, user_id, created_at)")) {
+            for (long id = 1; id <= options.transactions(); id++) {
+                int user = SeededData.pickUser(options, random);
+                boolean income = random.nextInt(10) == 0;
+                // mostly small card payments with the occasional large one
+                BigDecimal amount = BigDecimal.valueOf(Math.exp(random.nextDouble(0.5, income ? 8.5 : 6.5)))
+                        .setScale(2, RoundingMode.HALF_UP);
+                LocalDateTime date = now.minusSeconds(random.nextLong(historySeconds));
+                String category = random.nextInt(10) == 0
+                        ? ""
+                        : String.valueOf(SeededData.categoryId(options, user, random.nextInt(options.categoriesPerUser())));
+
+                copy.row(id, amount.toPlainString(), MERCHANTS[random.nextInt(MERCHANTS.length)],
+                        date.format(TIMESTAMP), income ? "INCOME" : "EXPENSE",
+                        SeededData.accountId(options, user, random.nextInt(options.accountsPerUser())),
+                        category, user, date.format(TIMESTAMP));
+
+                if (id % 500_000 == 0) {
+                    log.info("  {} transactions copied", id);
+                }
+            }
+        }
+    }
+
+    // Streams CSV rows into COPY ... FROM STDIN in large chunks
+    private static final class CsvCopy implements AutoCloseable {
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER + 1024);
+
+        private CsvCopy(PGConnection pg, String target) throws SQLException {
+            this.copyIn = pg.getCopyAPI().copyIn("copy " + target + " from stdin with (format csv)");
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                buffer.append(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+}
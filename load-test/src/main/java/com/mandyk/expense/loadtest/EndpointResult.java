@@ -0,0 +1,58 @@
+package com.mandyk.expense.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Summary of one endpoint in a report, in milliseconds. {@code histogram} is the full
+ * HdrHistogram (compressed, base64, in microseconds), so other percentiles can be
+ * computed from a report later.
+ */
+public record EndpointResult(
+        String endpoint,
+        long count,
+        long errors,
+        double throughput,
+        double meanMs,
+        double p50Ms,
+        double p90Ms,
+        double p95Ms,
+        double p99Ms,
+        double p999Ms,
+        double maxMs,
+        String histogram) {
+
+    static EndpointResult of(String endpoint, Histogram histogram, long errors, double seconds) {
+        long count = histogram.getTotalCount();
+        return new EndpointResult(
+                endpoint,
+                count,
+                errors,
+                seconds > 0 ? count / seconds : 0,
+                histogram.getMean() / 1000,
+                millis(histogram, 50),
+                millis(histogram, 90),
+                millis(histogram, 95),
+                millis(histogram, 99),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0,
+                encode(histogram));
+    }
+
+    double errorRate() {
+        return count == 0 ? 0 : (double) errors / count;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,47 @@
+package com.mandyk.expense.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one endpoint. Virtual users record into an HdrHistogram
+ * {@link Recorder}, which takes concurrent writers without locking; samples taken during
+ * the warmup are dropped by {@link #reset()}.
+ */
+class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    void record(long latencyNanos, boolean failed) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        recorder.reset();
+        errors.reset();
+    }
+
+    // Everything recorded since the last reset; call once, after the run
+    EndpointResult result(double seconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return EndpointResult.of(endpoint, histogram, errors.sum(), seconds);
+    }
+}
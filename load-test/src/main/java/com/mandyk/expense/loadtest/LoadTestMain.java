@@ -0,0 +1,123 @@
+package com.mandyk.expense.loadtest;
+
+import com.mandyk.expense.ExpenseServiceApplication;
+import com.mandyk.expense.service.JwtService;
+import com.mandyk.expense.service.MonthlyRollupService;
+import com.mandyk.expense.service.TransactionPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts expense-service against a Postgres container (the one BaseIntegrationTest uses),
+ * seeds it, runs the workload and reports per endpoint latency and throughput. Exits
+ * with 1 when a {@code --baseline} is given and an endpoint regressed against it.
+ */
+public class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    public static void main(String[] args) throws Exception {
+
+        if (List.of(args).contains("--help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        PostgreSQLContainer<?> postgres = null;
+        String jdbcUrl = options.jdbcUrl();
+        String dbUser = options.dbUser();
+        String dbPassword = options.dbPassword();
+        if (jdbcUrl == null) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse(options.image()).asCompatibleSubstituteFor("postgres"))
+                    .withDatabaseName("testdb")
+                    .withUsername("test")
+                    .withPassword("test");
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+            dbUser = postgres.getUsername();
+            dbPassword = postgres.getPassword();
+        }
+
+        boolean regressed;
+        try (ConfigurableApplicationContext context = start(jdbcUrl, dbUser, dbPassword, options.profiles())) {
+            new DataSeeder(
+                    context.getBean(DataSource.class),
+                    context.getBean(PasswordEncoder.class),
+                    context.getBean(TransactionPartitionService.class),
+                    context.getBean(MonthlyRollupService.class)).seed(options);
+
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            Workload workload = new Workload(options, "http://localhost:" + port, context.getBean(JwtService.class));
+            List<EndpointResult> results = workload.run();
+
+            LoadTestReport report = new LoadTestReport(Instant.now(), gitCommit(), Runtime.getRuntime().availableProcessors(),
+                    options.profiles(), options.duration().toMillis() / 1000.0, options.workloadShape(), results);
+            report.print(System.out);
+            report.write(options.report());
+            log.info("Report written to {}", options.report().toAbsolutePath());
+
+            regressed = options.baseline() != null
+                    && report.compareTo(LoadTestReport.read(options.baseline()), options.tolerancePercent(), System.out);
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static ConfigurableApplicationContext start(String jdbcUrl, String dbUser, String dbPassword, String profiles) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", dbUser);
+        properties.put("spring.datasource.password", dbPassword);
+        properties.put("server.port", 0);
+        properties.put("management.server.port", 0);
+        // perf: no statement logging; Hibernate statistics and slow statements are collected instead
+        properties.put("spring.profiles.active", profiles);
+
+        // as command line arguments, so they take precedence over application.yml
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(ExpenseServiceApplication.class).run(args);
+    }
+
+    // Recorded in the report so a baseline can be traced back to the code it measured
+    private static String gitCommit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0 ? commit : null;
+        } catch (IOException ex) {
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
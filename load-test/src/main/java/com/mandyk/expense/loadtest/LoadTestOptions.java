@@ -0,0 +1,128 @@
+package com.mandyk.expense.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load test, as {@code --name=value} pairs; every option has a default.
+ */
+public record LoadTestOptions(
+        int users,
+        int accountsPerUser,
+        int categoriesPerUser,
+        long transactions,
+        int months,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Duration thinkTime,
+        Map<Operation, Integer> mix,
+        long seed,
+        Path report,
+        Path baseline,
+        double tolerancePercent,
+        String jdbcUrl,
+        String dbUser,
+        String dbPassword,
+        String image,
+        String profiles) {
+
+    static final String USAGE = """
+            java -jar load-test/target/load-test.jar [--name=value ...]
+
+              --users=1000                 seeded users (each gets a virtual user slot)
+              --accounts-per-user=3
+              --categories-per-user=8
+              --transactions=2000000       seeded ledger rows, spread over --months
+              --months=24
+              --concurrency=64             virtual users issuing requests back to back
+              --warmup=PT30S               run, but not recorded
+              --duration=PT2M              recorded
+              --think-time=PT0S            pause between a virtual user's requests
+              --mix=login=2,create=10,list=35,balance=30,analytics=23
+              --seed=42                    data and request choices are reproducible
+              --report=load-test-report.json
+              --baseline=<earlier report>  compare against it; exit 1 on regression
+              --tolerance=10               percent of slack before a change is a regression
+              --jdbc-url=<url>             use this (empty or earlier seeded) database instead of a container
+              --db-user=postgres --db-password=postgres
+              --image=postgres:16-alpine
+              --profiles=perf              Spring profiles of the service, e.g. perf,virtual-threads
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("accounts-per-user", "3")),
+                Integer.parseInt(values.getOrDefault("categories-per-user", "8")),
+                Long.parseLong(values.getOrDefault("transactions", "2000000")),
+                Integer.parseInt(values.getOrDefault("months", "24")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Duration.parse(values.getOrDefault("warmup", "PT30S")),
+                Duration.parse(values.getOrDefault("duration", "PT2M")),
+                Duration.parse(values.getOrDefault("think-time", "PT0S")),
+                parseMix(values.getOrDefault("mix", "login=2,create=10,list=35,balance=30,analytics=23")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Path.of(values.getOrDefault("report", "load-test-report.json")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                Double.parseDouble(values.getOrDefault("tolerance", "10")),
+                values.get("jdbc-url"),
+                values.getOrDefault("db-user", "postgres"),
+                values.getOrDefault("db-password", "postgres"),
+                values.getOrDefault("image", "postgres:16-alpine"),
+                values.getOrDefault("profiles", "perf"));
+
+        if (options.users < 1 || options.accountsPerUser < 1 || options.categoriesPerUser < 1) {
+            throw new IllegalArgumentException("users, accounts-per-user and categories-per-user must be at least 1");
+        }
+        if (options.months < 1 || options.concurrency < 1) {
+            throw new IllegalArgumentException("months and concurrency must be at least 1");
+        }
+        return options;
+    }
+
+    // The options that shape the load; two reports are only comparable when these match
+    Map<String, String> workloadShape() {
+        Map<String, String> shape = new LinkedHashMap<>();
+        shape.put("users", String.valueOf(users));
+        shape.put("accounts-per-user", String.valueOf(accountsPerUser));
+        shape.put("categories-per-user", String.valueOf(categoriesPerUser));
+        shape.put("transactions", String.valueOf(transactions));
+        shape.put("months", String.valueOf(months));
+        shape.put("concurrency", String.valueOf(concurrency));
+        shape.put("think-time", thinkTime.toString());
+        StringBuilder weights = new StringBuilder();
+        mix.forEach((operation, weight) -> weights.append(weights.isEmpty() ? "" : ",")
+                .append(operation.getName()).append('=').append(weight));
+        shape.put("mix", weights.toString());
+        shape.put("seed", String.valueOf(seed));
+        return shape;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid --mix entry: " + part);
+            }
+            weights.put(Operation.fromName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix weights must add up to more than 0");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mandyk.expense.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * What a run writes to {@code --report}, and what a later run reads back as its
+ * {@code --baseline}.
+ */
+public record LoadTestReport(
+        Instant finishedAt,
+        String gitCommit,
+        int availableProcessors,
+        String profiles,
+        double durationSeconds,
+        Map<String, String> workload,
+        List<EndpointResult> endpoints) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    void write(Path path) throws IOException {
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    static LoadTestReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nprofiles: %s%n", profiles);
+        out.printf("%-42s %9s %9s %8s %8s %8s %8s %8s %8s %8s %7s%n",
+                "endpoint", "count", "req/s", "mean ms", "p50", "p90", "p95", "p99", "p99.9", "max", "errors");
+        for (EndpointResult e : endpoints) {
+            out.printf("%-42s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f %8.2f %7d%n",
+                    e.endpoint(), e.count(), e.throughput(), e.meanMs(), e.p50Ms(), e.p90Ms(), e.p95Ms(),
+                    e.p99Ms(), e.p999Ms(), e.maxMs(), e.errors());
+        }
+        double total = endpoints.stream().mapToDouble(EndpointResult::throughput).sum();
+        out.printf("%-42s %9s %9.1f%n%n", "total", "", total);
+    }
+
+    /**
+     * Prints each endpoint next to the baseline and flags the ones that are slower at p50
+     * or p99, serve less throughput, or fail more often, by more than {@code tolerancePercent}.
+     *
+     * @return true when at least one endpoint regressed
+     */
+    boolean compareTo(LoadTestReport baseline, double tolerancePercent, PrintStream out) {
+
+        if (!workload.equals(baseline.workload)) {
+            out.printf("Warning: the baseline was run with a different workload%n  baseline: %s%n  this run: %s%n",
+                    baseline.workload, workload);
+        }
+        // not part of the workload: comparing e.g. virtual threads against platform threads is the point
+        if (!Objects.equals(profiles, baseline.profiles)) {
+            out.printf("Comparing profiles %s (baseline) with %s (this run)%n", baseline.profiles, profiles);
+        }
+
+        double slack = tolerancePercent / 100;
+        Map<String, EndpointResult> before = baseline.endpoints.stream()
+                .collect(Collectors.toMap(EndpointResult::endpoint, Function.identity()));
+        boolean regressed = false;
+
+        out.printf("%n%-42s %20s %20s %20s%n", "endpoint", "p50 ms", "p99 ms", "req/s");
+        for (EndpointResult now : endpoints) {
+            EndpointResult then = before.get(now.endpoint());
+            if (then == null || then.count() == 0 || now.count() == 0) {
+                continue;
+            }
+            boolean worse = now.p50Ms() > then.p50Ms() * (1 + slack)
+                    || now.p99Ms() > then.p99Ms() * (1 + slack)
+                    || now.throughput() < then.throughput() * (1 - slack)
+                    || now.errorRate() > then.errorRate() * (1 + slack);
+            regressed |= worse;
+            out.printf("%-42s %8.2f -> %-8.2f %8.2f -> %-8.2f %8.1f -> %-8.1f %s%n",
+                    now.endpoint(), then.p50Ms(), now.p50Ms(), then.p99Ms(), now.p99Ms(),
+                    then.throughput(), now.throughput(), worse ? "REGRESSED" : "ok");
+        }
+        return regressed;
+    }
+}
@@ -0,0 +1,32 @@
+package com.mandyk.expense.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The kinds of request in the workload mix. {@code analytics} spreads over its three
+ * endpoints, which are reported separately.
+ */
+public enum Operation {
+    LOGIN("login"),
+    CREATE("create"),
+    LIST("list"),
+    BALANCE("balance"),
+    ANALYTICS("analytics");
+
+    private final String name;
+
+    Operation(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    static Operation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(op -> op.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in --mix: " + name));
+    }
+}
@@ -0,0 +1,33 @@
+package com.mandyk.expense.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * How seeded rows are numbered: user {@code u} (1-based) owns a contiguous block of
+ * account and category ids. The seeder and the virtual users share these rules instead
+ * of reading ids back.
+ */
+final class SeededData {
+
+    static final String PASSWORD = "load-test-password";
+
+    private SeededData() {}
+
+    static String email(int user) {
+        return "loadtest-" + user + "@example.com";
+    }
+
+    static int accountId(LoadTestOptions options, int user, int index) {
+        return (user - 1) * options.accountsPerUser() + index + 1;
+    }
+
+    static int categoryId(LoadTestOptions options, int user, int index) {
+        return (user - 1) * options.categoriesPerUser() + index + 1;
+    }
+
+    // Skewed towards low ids, so a few users have long histories and most have short ones
+    static int pickUser(LoadTestOptions options, SplittableRandom random) {
+        double r = random.nextDouble();
+        return 1 + (int) (options.users() * r * r);
+    }
+}
@@ -0,0 +1,232 @@
+package com.mandyk.expense.loadtest;
+
+import com.mandyk.expense.service.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the request mix against a running instance: {@code concurrency} virtual users,
+ * each sending its next request as soon as the previous one is answered (plus the think
+ * time). This is a closed model, so when the service slows down the offered load drops
+ * with it; compare runs at the same concurrency, and read throughput and latency together.
+ */
+class Workload {
+
+    private static final Logger log = LoggerFactory.getLogger(Workload.class);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final JwtService jwtService;
+    private final HttpClient client;
+    private final Operation[] weightedOperations;
+    private final String[] tokens;
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final EndpointStats login = endpoint("POST /api/auth/login");
+    private final EndpointStats create = endpoint("POST /api/transactions");
+    private final EndpointStats list = endpoint("GET /api/transactions/user");
+    private final EndpointStats balance = endpoint("GET /api/transactions/{accountId}/balance");
+    private final EndpointStats summary = endpoint("GET /api/analytics/summary");
+    private final EndpointStats monthly = endpoint("GET /api/analytics/monthly");
+    private final EndpointStats categories = endpoint("GET /api/analytics/categories");
+
+    private volatile boolean running = true;
+
+    Workload(LoadTestOptions options, String baseUrl, JwtService jwtService) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.jwtService = jwtService;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.weightedOperations = weigh(options.mix());
+        this.tokens = new String[options.users() + 1];
+    }
+
+    /**
+     * Runs the warmup and then the measured period.
+     *
+     * @return per endpoint results of the measured period, in a fixed order
+     */
+    List<EndpointResult> run() throws InterruptedException {
+
+        CountDownLatch finished = new CountDownLatch(options.concurrency());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.concurrency(); i++) {
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + i);
+            Thread thread = new Thread(() -> {
+                try {
+                    virtualUser(random);
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+
+        log.info("Warming up for {} with {} virtual users", options.warmup(), options.concurrency());
+        Thread.sleep(options.warmup().toMillis());
+        stats.values().forEach(EndpointStats::reset);
+
+        log.info("Measuring for {}", options.duration());
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // results are taken before the in-flight requests finish: those fall outside the window
+        List<EndpointResult> results = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            results.add(endpoint.result(seconds));
+        }
+
+        running = false;
+        if (!finished.await(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            log.warn("Some virtual users were still waiting for a response");
+        }
+        return results;
+    }
+
+    private void virtualUser(SplittableRandom random) {
+        while (running) {
+            int user = SeededData.pickUser(options, random);
+            switch (weightedOperations[random.nextInt(weightedOperations.length)]) {
+                case LOGIN -> login(user);
+                case CREATE -> create(user, random);
+                case LIST -> send(list, get(user, "/api/transactions/user?page=0&size=20"));
+                case BALANCE -> send(balance, get(user, "/api/transactions/"
+                        + SeededData.accountId(options, user, random.nextInt(options.accountsPerUser())) + "/balance"));
+                case ANALYTICS -> analytics(user, random);
+            }
+            pause();
+        }
+    }
+
+    private void login(int user) {
+        String body = String.format("{\"email\":\"%s\",\"password\":\"%s\"}", SeededData.email(user), SeededData.PASSWORD);
+        send(login, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private void create(int user, SplittableRandom random) {
+        boolean income = random.nextInt(10) == 0;
+        // dated in the current month, like most real entries
+        LocalDateTime monthStart = YearMonth.now().atDay(1).atStartOfDay();
+        long minutesSoFar = Math.max(1, Duration.between(monthStart, LocalDateTime.now()).toMinutes());
+        LocalDateTime date = monthStart.plusMinutes(random.nextLong(minutesSoFar));
+        String body = String.format(Locale.ROOT,
+                "{\"amount\":%.2f,\"description\":\"Load test\",\"transactionDate\":\"%s\","
+                        + "\"transactionType\":\"%s\",\"accountId\":%d,\"categoryId\":%d}",
+                random.nextDouble(1, income ? 3000 : 200),
+                date,
+                income ? "INCOME" : "EXPENSE",
+                SeededData.accountId(options, user, random.nextInt(options.accountsPerUser())),
+                SeededData.categoryId(options, user, random.nextInt(options.categoriesPerUser())));
+        send(create, authorized(user, "/api/transactions")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private void analytics(int user, SplittableRandom random) {
+        switch (random.nextInt(3)) {
+            case 0 -> send(summary, get(user, "/api/analytics/summary"));
+            case 1 -> send(monthly, get(user, "/api/analytics/monthly"));
+            default -> {
+                YearMonth month = YearMonth.now().minusMonths(random.nextInt(Math.min(options.months(), 12)));
+                send(categories, get(user, "/api/analytics/categories?from=" + month.atDay(1) + "&to=" + month.atEndOfMonth()));
+            }
+        }
+    }
+
+    private HttpRequest get(int user, String path) {
+        return authorized(user, path).GET().build();
+    }
+
+    private HttpRequest.Builder authorized(int user, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token(user));
+    }
+
+    // Tokens are issued directly, so only the login operation pays for password hashing.
+    // Two threads may both issue one for the same user; either is valid.
+    private String token(int user) {
+        String token = tokens[user];
+        if (token == null) {
+            token = jwtService.generateToken(SeededData.email(user), user);
+            tokens[user] = token;
+        }
+        return token;
+    }
+
+    private void send(EndpointStats endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException ex) {
+            failed = true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return;
+        }
+        if (running) {
+            endpoint.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void pause() {
+        if (!options.thinkTime().isZero()) {
+            try {
+                Thread.sleep(options.thinkTime().toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private EndpointStats endpoint(String name) {
+        EndpointStats endpoint = new EndpointStats(name);
+        stats.put(name, endpoint);
+        return endpoint;
+    }
+
+    // One slot per unit of weight, so picking a slot at random follows the mix
+    private static Operation[] weigh(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(new Operation[0]);
+    }
+}